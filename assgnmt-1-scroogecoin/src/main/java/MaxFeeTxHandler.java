@@ -44,7 +44,7 @@ public class MaxFeeTxHandler {
      */
     public boolean isValidTx(Transaction tx, UTXOPool pool) {
         UTXOPool uniqueUtxos = new UTXOPool();
-        double inSum = 0;
+        long inSum = 0;
 
         for (int i = 0; i < tx.numInputs(); i++) {
             Transaction.Input in = tx.getInput(i);
@@ -69,17 +69,25 @@ public class MaxFeeTxHandler {
             }
 
             uniqueUtxos.addUTXO(utxo, out);
-            inSum += out.value;
+            inSum += out.amount;
+            if (inSum < 0) {
+                // overflow
+                return false;
+            }
         }
 
-        double outSum = 0;
+        long outSum = 0;
         for (Transaction.Output out : tx.getOutputs()) {
             // CASE 4: all of {@code tx}s output values are non-negative
-            if (out.value < 0) {
+            if (out.amount < 0) {
                 return false;
             }
 
-            outSum += out.value;
+            outSum += out.amount;
+            if (outSum < 0) {
+                // overflow
+                return false;
+            }
         }
 
         // CASE 5: the sum of {@code tx}s input values is greater than or
@@ -92,22 +100,24 @@ public class MaxFeeTxHandler {
      *
      * @param tx   the transaction whose fees being calculated
      * @param pool a pool of unspent transaction outputs
-     * @return transaction fees
+     * @return transaction fees in base units
      */
-    private double calculateFees(Transaction tx, UTXOPool pool) {
-        double inSum = tx.getInputs().stream()
-                .mapToDouble(i -> {
-                    UTXO ut = new UTXO(i.prevTxHash, i.outputIndex);
-                    if (pool.getTxOutput(ut) != null) {
-                        return pool.getTxOutput(
-                                new UTXO(i.prevTxHash, i.outputIndex)).value;
-                    }
-
-                    return 0;
-                }).sum();
+    private long calculateFees(Transaction tx, UTXOPool pool) {
+        long inSum = 0;
+        for (Transaction.Input in : tx.getInputs()) {
+            Transaction.Output out =
+                    pool.getTxOutput(new UTXO(in.prevTxHash, in.outputIndex));
+            if (out != null) {
+                inSum += out.amount;
+            }
+        }
 
-        double outSum = tx.getOutputs().stream().filter(
-                Objects::nonNull).mapToDouble(o -> o.value).sum();
+        long outSum = 0;
+        for (Transaction.Output out : tx.getOutputs()) {
+            if (out != null) {
+                outSum += out.amount;
+            }
+        }
 
         return inSum - outSum;
     }
@@ -135,7 +145,7 @@ public class MaxFeeTxHandler {
             Transaction tx = possibleTxs[i];
             log("Transactions processed: ");
             if (isValidTx(tx, pool)) {
-                double fees = calculateFees(tx, pool);
+                long fees = calculateFees(tx, pool);
                 TransactionWithFees txf =
                         new TransactionWithFees(i, tx, fees);
                 log(txf.toString());
@@ -162,9 +172,9 @@ public class MaxFeeTxHandler {
         }
 
         if (!accepted.isEmpty()) {
-            double totalFees =
-                    accepted.stream().mapToDouble(t -> t.fees).sum();
-            log("totalFees: " + totalFees, true);
+            long totalFees =
+                    accepted.stream().mapToLong(t -> t.fees).sum();
+            log("totalFees: " + Amount.toCoins(totalFees), true);
             log("accepted: " + txIndexToString(accepted), true);
         }
 
@@ -439,7 +449,7 @@ public class MaxFeeTxHandler {
         log("Trying to add: " + txIndexToString(maybes));
         log("Shared: " + txIndexToString(shared));
 
-        double oldFees = 0;
+        long oldFees = 0;
         for (int t = shared.size() - 1; t >= 0; t--) {
             TransactionWithFees at = shared.get(t);
             at.spentUTXOs.entrySet().forEach(e ->
@@ -452,7 +462,7 @@ public class MaxFeeTxHandler {
         }
 
         // dry run for checking all 'maybes' are valid
-        double fees = 0;
+        long fees = 0;
         for (int t = maybes.size() - 1; t >= 0; t--) {
             TransactionWithFees txf = maybes.get(t);
             if (isValidTx(txf.tx, tempPool)) {
@@ -488,7 +498,7 @@ public class MaxFeeTxHandler {
             UTXOPool pool,
             List<TransactionWithFees> maybes,
             List<TransactionWithFees> shared,
-            double oldFees, double fees) {
+            long oldFees, long fees) {
         if (shared.isEmpty() || (fees > oldFees)) {
             for (int t = shared.size() - 1; t >= 0; t--) {
                 TransactionWithFees at = shared.get(t);
@@ -616,11 +626,11 @@ public class MaxFeeTxHandler {
 
         private Transaction tx;
 
-        private double fees;
+        private long fees;
 
         private Map<UTXO, Transaction.Output> spentUTXOs;
 
-        public TransactionWithFees(int index, Transaction tx, double fees) {
+        public TransactionWithFees(int index, Transaction tx, long fees) {
             this.index = index;
             this.tx = tx;
             this.fees = fees;
@@ -39,18 +39,37 @@ public class Transaction {
 
     public class Output {
         /**
-         * value in bitcoins of the output
+         * value of the output in base units, see {@link Amount}
          */
-        public double value;
+        public long amount;
         /**
          * the address or public key of the recipient
          */
         public PublicKey address;
 
+        /**
+         * Creates an output of {@code v} coins, rounded to the nearest base
+         * unit
+         */
         public Output(double v, PublicKey addr) {
-            value = v;
+            this(addr, Amount.fromCoins(v));
+        }
+
+        /**
+         * Creates an output of {@code amount} base units
+         */
+        public Output(PublicKey addr, long amount) {
+            this.amount = amount;
             address = addr;
         }
+
+        /**
+         * @return value in coins of the output, which replaces the former
+         * {@code value} field
+         */
+        public double getValue() {
+            return Amount.toCoins(amount);
+        }
     }
 
     /**
@@ -76,11 +95,22 @@ public class Transaction {
         inputs.add(in);
     }
 
+    /**
+     * Adds an output of {@code value} coins, rounded to the nearest base unit
+     */
     public void addOutput(double value, PublicKey address) {
         Output op = new Output(value, address);
         outputs.add(op);
     }
 
+    /**
+     * Adds an output of {@code amount} base units
+     */
+    public void addOutputAmount(long amount, PublicKey address) {
+        Output op = new Output(address, amount);
+        outputs.add(op);
+    }
+
     public void removeInput(int index) {
         inputs.remove(index);
     }
@@ -112,8 +142,8 @@ public class Transaction {
         for (int i = 0; i < outputIndex.length; i++)
             sigData.add(outputIndex[i]);
         for (Output op : outputs) {
-            ByteBuffer bo = ByteBuffer.allocate(Double.SIZE / 8);
-            bo.putDouble(op.value);
+            ByteBuffer bo = ByteBuffer.allocate(Long.SIZE / 8);
+            bo.putLong(op.amount);
             byte[] value = bo.array();
             byte[] addressBytes = op.address.getEncoded();
             for (int i = 0; i < value.length; i++)
@@ -151,8 +181,8 @@ public class Transaction {
                     rawTx.add(signature[i]);
         }
         for (Output op : outputs) {
-            ByteBuffer b = ByteBuffer.allocate(Double.SIZE / 8);
-            b.putDouble(op.value);
+            ByteBuffer b = ByteBuffer.allocate(Long.SIZE / 8);
+            b.putLong(op.amount);
             byte[] value = b.array();
             byte[] addressBytes = op.address.getEncoded();
             for (int i = 0; i < value.length; i++) {
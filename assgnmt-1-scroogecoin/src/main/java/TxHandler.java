@@ -32,7 +32,7 @@ public class TxHandler {
 
         ArrayList<Transaction.Input> inputs = tx.getInputs();
 
-        double inputSum = 0.0;
+        long inputSum = 0;
         Set<UTXO> utxos = new HashSet<>();
 
         for (int i = 0; i < inputs.size(); i++) {
@@ -60,18 +60,26 @@ public class TxHandler {
             }
 
             utxos.add(utxo);
-            inputSum += inputsOutput.value;
+            inputSum += inputsOutput.amount;
+            if (inputSum < 0) {
+                // overflow
+                return false;
+            }
         }
 
-        double outputSum = 0.0;
+        long outputSum = 0;
         ArrayList<Transaction.Output> outputs = tx.getOutputs();
         for (Transaction.Output output : outputs) {
             // CASE 4: all of {@code tx}s output values are non-negative
-            if (output.value < 0) {
+            if (output.amount < 0) {
                 return false;
             }
 
-            outputSum += output.value;
+            outputSum += output.amount;
+            if (outputSum < 0) {
+                // overflow
+                return false;
+            }
         }
 
         // CASE 5: the sum of {@code tx}s input values is greater than or
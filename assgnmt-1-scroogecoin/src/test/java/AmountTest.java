@@ -0,0 +1,36 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code AmountTest} represents an unit test for {@code Amount}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class AmountTest {
+
+    @Test
+    public void testFromCoins() {
+        assertEquals(250_000_000L, Amount.fromCoins(2.5));
+        assertEquals(30_000_000L, Amount.fromCoins(0.1 + 0.2));
+        assertEquals(-1L, Amount.fromCoins(-0.00000001));
+    }
+
+    @Test
+    public void testToCoins() {
+        assertEquals(2.5, Amount.toCoins(250_000_000L), 0);
+        assertEquals(25.0, Amount.toCoins(25 * Amount.COIN), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromCoinsTooLarge() {
+        Amount.fromCoins(1e12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromCoinsNaN() {
+        Amount.fromCoins(Double.NaN);
+    }
+}
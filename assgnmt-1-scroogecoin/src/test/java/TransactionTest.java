@@ -24,6 +24,10 @@ public class TransactionTest {
 
         tx.addOutput(10.0, pair.getPublic());
         assertEquals(2, tx.numOutputs());
+
+        Transaction.Output output = tx.getOutput(1);
+        assertEquals(10 * Amount.COIN, output.amount);
+        assertEquals(10.0, output.getValue(), 0);
     }
 
     @Test
@@ -250,4 +250,62 @@ public class TxHandlerTest {
         assertEquals(1, validTxs.length);
         assertEquals(tx3, validTxs[0]);
     }
+
+    @Test
+    public void testIsValidTxExactSum() throws Exception {
+        KeyPair pair = TestUtil.generateKeyPair();
+        UTXOPool pool = new UTXOPool();
+
+        Transaction tx1 = new Transaction();
+        tx1.addOutput(0.3, pair.getPublic());
+        tx1.finalize();
+        UTXO utxo1 = new UTXO(tx1.getHash(), 0);
+        pool.addUTXO(utxo1, tx1.getOutput(0));
+
+        TxHandler handler = new TxHandler(pool);
+
+        // 0.1 + 0.2 > 0.3 with doubles, but not in base units
+        Transaction tx = new Transaction();
+        tx.addInput(tx1.getHash(), 0);
+        tx.addOutput(0.1, pair.getPublic());
+        tx.addOutput(0.2, pair.getPublic());
+
+        Transaction.Input input = tx.getInput(0);
+        byte[] signature = TestUtil.createSignature(
+                tx.getRawDataToSign(0),
+                pair.getPrivate());
+        input.addSignature(signature);
+        tx.finalize();
+
+        assertTrue(handler.isValidTx(tx));
+    }
+
+    @Test
+    public void testIsValidTxOverflow() throws Exception {
+        KeyPair pair = TestUtil.generateKeyPair();
+        UTXOPool pool = new UTXOPool();
+
+        Transaction tx1 = new Transaction();
+        tx1.addOutput(10.0, pair.getPublic());
+        tx1.finalize();
+        UTXO utxo1 = new UTXO(tx1.getHash(), 0);
+        pool.addUTXO(utxo1, tx1.getOutput(0));
+
+        TxHandler handler = new TxHandler(pool);
+
+        // the output sum wraps around to a negative amount
+        Transaction tx = new Transaction();
+        tx.addInput(tx1.getHash(), 0);
+        tx.addOutputAmount(Long.MAX_VALUE, pair.getPublic());
+        tx.addOutputAmount(Long.MAX_VALUE, pair.getPublic());
+
+        Transaction.Input input = tx.getInput(0);
+        byte[] signature = TestUtil.createSignature(
+                tx.getRawDataToSign(0),
+                pair.getPrivate());
+        input.addSignature(signature);
+        tx.finalize();
+
+        assertFalse(handler.isValidTx(tx));
+    }
 }
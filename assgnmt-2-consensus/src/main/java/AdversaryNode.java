@@ -0,0 +1,124 @@
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * {@code AdversaryNode} is the base of the configurable malicious nodes used
+ * to load test {@link CompliantNode}.
+ * <p/>
+ * It keeps track of the round and of the valid transactions the node heard
+ * of, and can mimic the trust round handshake of compliant nodes by proposing
+ * a single transaction in each of the first {@code handshakeRounds} rounds.
+ * Compliant followers then trust the node and accept whatever it proposes
+ * afterwards, so the attack reaches them in full. With no handshake rounds
+ * the attack only costs them the time to discard it.
+ * <p/>
+ * An adversary doesn't take part in consensus, its own consensus is always
+ * empty.
+ *
+ * @since 10/18/26
+ */
+public abstract class AdversaryNode implements Node {
+
+    /**
+     * Number of handshake rounds needed to gain the trust of a {@link
+     * CompliantNode}
+     */
+    public static final int TRUST_ROUNDS = 2;
+
+    private final int handshakeRounds;
+
+    private final IntHashSet heard = new IntHashSet();
+
+    private boolean hasMarkerTxn;
+
+    private int markerTxn;
+
+    private int round;
+
+    /**
+     * @param handshakeRounds number of rounds in which the node proposes a
+     *                        single transaction before attacking
+     */
+    protected AdversaryNode(int handshakeRounds) {
+        this.handshakeRounds = handshakeRounds;
+    }
+
+    /**
+     * @return the proposals of the node in {@code round} once the handshake
+     * is over, may contain invalid ids
+     */
+    protected abstract int[] attack(int round);
+
+    /**
+     * Called for every candidate received, whether the node heard of the
+     * transaction before or not
+     */
+    protected void hear(int sender, int txId) {
+        heard.add(txId);
+    }
+
+    /**
+     * @return the valid transactions the node heard of so far, including its
+     * initial ones
+     */
+    protected IntHashSet getHeard() {
+        return heard;
+    }
+
+    public void setFollowees(boolean[] followees) {
+        return;
+    }
+
+    @Override
+    public void setFollowees(int[] followees, int numNodes) {
+        return;
+    }
+
+    public void setPendingTransaction(Set<Transaction> pendingTransactions) {
+        for (Transaction tx : pendingTransactions) {
+            if (!hasMarkerTxn) {
+                markerTxn = tx.id;
+                hasMarkerTxn = true;
+            }
+            heard.add(tx.id);
+        }
+    }
+
+    public Set<Transaction> sendToFollowers() {
+        Set<Transaction> transactions = new HashSet<>();
+        for (int id : sendTxIdsToFollowers()) {
+            transactions.add(new Transaction(id));
+        }
+
+        return transactions;
+    }
+
+    @Override
+    public int[] sendTxIdsToFollowers() {
+        round++;
+        if (round <= handshakeRounds) {
+            return hasMarkerTxn ? new int[]{markerTxn} : new int[0];
+        }
+
+        return attack(round);
+    }
+
+    @Override
+    public Set<Transaction> getConsensus() {
+        return Collections.emptySet();
+    }
+
+    public void receiveFromFollowees(Set<Candidate> candidates) {
+        for (Candidate candidate : candidates) {
+            hear(candidate.sender, candidate.tx.id);
+        }
+    }
+
+    @Override
+    public void receiveFromFollowees(CandidateBuffer candidates) {
+        for (int i = 0; i < candidates.size(); i++) {
+            hear(candidates.getSender(i), candidates.getTxId(i));
+        }
+    }
+}
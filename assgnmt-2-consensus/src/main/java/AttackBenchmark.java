@@ -0,0 +1,139 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+
+/**
+ * {@code AttackBenchmark} runs the consensus simulation against each of the
+ * {@link AdversaryNode adversaries} and reports what the attack costs the
+ * compliant nodes: callback time, allocated memory, messages, candidates
+ * and bytes received, per compliant node and round, along with the
+ * consensus rate.
+ * <p/>
+ * Every attack is run with the same seeds, so all of them face the same
+ * graphs and initial transactions. The stub {@link MaliciousNode} is the
+ * baseline.
+ * <p/>
+ * Usage: {@code AttackBenchmark [numSeeds] [numNodes] [p_malicious]
+ * [floodSize]}
+ *
+ * @since 10/18/26
+ */
+public class AttackBenchmark {
+
+    private static final double P_GRAPH = .1;
+
+    private static final double P_TX_DISTRIBUTION = .05;
+
+    private static final int NUM_ROUNDS = 10;
+
+    /**
+     * {@code Attack} names a kind of adversary and creates the malicious
+     * nodes of a single simulation
+     */
+    private static class Attack {
+
+        private final String name;
+
+        private final LongFunction<IntFunction<Node>> adversaries;
+
+        Attack(String name, LongFunction<IntFunction<Node>> adversaries) {
+            this.name = name;
+            this.adversaries = adversaries;
+        }
+    }
+
+    private static List<Attack> attacks(int floodSize) {
+        int trust = AdversaryNode.TRUST_ROUNDS;
+        List<Attack> attacks = new ArrayList<>();
+        attacks.add(new Attack("stub", seed -> null));
+        attacks.add(new Attack("flood", seed ->
+                id -> new FloodingNode(floodSize, 0, seed * 31 + id)));
+        attacks.add(new Attack("flood after handshake", seed ->
+                id -> new FloodingNode(floodSize, trust, seed * 31 + id)));
+        attacks.add(new Attack("black hole", seed ->
+                id -> new SelectiveForwardingNode(0, trust, seed * 31 + id)));
+        attacks.add(new Attack("grey hole", seed ->
+                id -> new SelectiveForwardingNode(.5, trust, seed * 31 + id)));
+        attacks.add(new Attack("sybil", seed -> {
+            SybilNode.Group group = new SybilNode.Group(NUM_ROUNDS);
+            return id -> new SybilNode(group, trust);
+        }));
+
+        return attacks;
+    }
+
+    private static ConsensusSimulator newSimulator(Attack attack,
+                                                   int numNodes,
+                                                   double p_malicious,
+                                                   long seed) {
+        ConsensusSimulator simulator = new ConsensusSimulator(numNodes,
+                ConsensusSimulator.DEFAULT_NUM_TX,
+                GraphGenerator.erdosRenyi(P_GRAPH), p_malicious,
+                P_TX_DISTRIBUTION, NUM_ROUNDS, attack.adversaries.apply(seed),
+                new Random(seed));
+        simulator.setParallel(false);
+        simulator.setMetricsEnabled(true);
+        return simulator;
+    }
+
+    public static void main(String[] args) {
+        int numSeeds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int numNodes = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        double p_malicious = args.length > 2
+                ? Double.parseDouble(args[2]) : .3;
+        int floodSize = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+
+        System.out.println(String.format(Locale.ROOT,
+                "numNodes = %d, p_graph = %s, p_malicious = %s, "
+                        + "p_txDistribution = %s, numRounds = %d, "
+                        + "floodSize = %d, seeds = %d",
+                numNodes, P_GRAPH, p_malicious, P_TX_DISTRIBUTION,
+                NUM_ROUNDS, floodSize, numSeeds));
+        System.out.println("per compliant node and round:");
+
+        List<Attack> attacks = attacks(floodSize);
+        // warm up the JIT so that the first attack isn't measured cold
+        for (Attack attack : attacks) {
+            newSimulator(attack, numNodes, p_malicious, -1).run();
+        }
+
+        for (Attack attack : attacks) {
+            RunningStats consensusRate = new RunningStats();
+            ResourceUsage total = new ResourceUsage();
+            long nodeRounds = 0;
+            for (long seed = 0; seed < numSeeds; seed++) {
+                ConsensusSimulator simulator =
+                        newSimulator(attack, numNodes, p_malicious, seed);
+                int numCompliant = simulator.getNumCompliantNodes();
+                consensusRate.add(numCompliant == 0 ? 1 : (double)
+                        simulator.countConsensus(simulator.run())
+                        / numCompliant);
+
+                ResourceUsage usage = simulator.getCompliantUsage();
+                total.add(usage.getSendNanos(), usage.getReceiveNanos(),
+                        usage.getAllocatedBytes(),
+                        usage.getMessagesReceived(),
+                        usage.getCandidatesReceived(),
+                        usage.getBytesReceived());
+                nodeRounds += (long) numCompliant * simulator.getRoundsRun();
+            }
+
+            double n = Math.max(1, nodeRounds);
+            System.out.println(String.format(Locale.ROOT,
+                    "%-22s consensus = %.3f, send = %.1f us, "
+                            + "receive = %.1f us, allocated = %.0f bytes, "
+                            + "messages = %.1f, candidates = %.0f, "
+                            + "received = %.0f bytes",
+                    attack.name, consensusRate.getMean(),
+                    total.getSendNanos() / n / 1e3,
+                    total.getReceiveNanos() / n / 1e3,
+                    total.getAllocatedBytes() / n,
+                    total.getMessagesReceived() / n,
+                    total.getCandidatesReceived() / n,
+                    total.getBytesReceived() / n));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import java.util.Arrays;
+
+/**
+ * {@code CandidateBuffer} holds the candidates delivered to a node in a round
+ * as two parallel primitive arrays of sender ids and transaction ids.
+ * <p/>
+ * A buffer is reused by the simulator across receivers, so a node must copy
+ * whatever it needs out of it before returning from
+ * {@link Node#receiveFromFollowees(CandidateBuffer)}.
+ *
+ * @since 10/18/26
+ */
+public class CandidateBuffer {
+
+    private int[] senders;
+
+    private int[] txIds;
+
+    private int size;
+
+    public CandidateBuffer() {
+        this(16);
+    }
+
+    public CandidateBuffer(int capacity) {
+        senders = new int[capacity];
+        txIds = new int[capacity];
+    }
+
+    public void add(int sender, int txId) {
+        if (size == senders.length) {
+            int capacity = Math.max(16, size * 2);
+            senders = Arrays.copyOf(senders, capacity);
+            txIds = Arrays.copyOf(txIds, capacity);
+        }
+
+        senders[size] = sender;
+        txIds[size] = txId;
+        size++;
+    }
+
+    /**
+     * Adds a candidate for every transaction id in {@code ids} proposed by
+     * {@code sender}
+     */
+    public void addAll(int sender, int[] ids) {
+        ensureCapacity(size + ids.length);
+        Arrays.fill(senders, size, size + ids.length, sender);
+        System.arraycopy(ids, 0, txIds, size, ids.length);
+        size += ids.length;
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > senders.length) {
+            senders = Arrays.copyOf(senders, capacity);
+            txIds = Arrays.copyOf(txIds, capacity);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getSender(int i) {
+        return senders[i];
+    }
+
+    public int getTxId(int i) {
+        return txIds[i];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
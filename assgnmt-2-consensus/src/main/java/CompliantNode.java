@@ -1,6 +1,5 @@
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -41,16 +40,52 @@ public class CompliantNode implements Node {
 
     private static final int NUM_OF_TRUST_ROUNDS = 2;
 
-    private boolean[] followees;
+    /**
+     * Sorted ids of the followees, a followee is referred to by its slot in
+     * this array
+     */
+    private int[] followees = new int[0];
 
-    private int[] followeesScore;
+    private int[] followeesScore = new int[0];
 
-    private Set<Transaction> pendingTransactions;
+    /**
+     * Number of distinct transactions received from each followee slot in the
+     * present round. Only whether a followee sent exactly one transaction
+     * matters, so a second distinct id is enough to rule it out.
+     */
+    private int[] roundTxCount = new int[0];
 
-    private Transaction markerTxn;
+    /**
+     * First transaction id received from each followee slot in the present
+     * round
+     */
+    private int[] roundFirstTx = new int[0];
+
+    private final IntHashSet pendingTransactions;
+
+    private boolean hasMarkerTxn;
+
+    private int markerTxn;
 
     private int round;
 
+    private boolean deltaGossip;
+
+    /**
+     * All transactions this node knows of in delta gossip mode, filters out
+     * transactions received again
+     */
+    private final IntHashSet knownTransactions;
+
+    /**
+     * Known transactions in the order they became known. Everything before
+     * the watermark has already been sent to the followers.
+     */
+    private int[] knownLog = new int[16];
+
+    private int knownLogSize;
+
+    private int watermark;
 
     /**
      * @param p_graph          the pairwise connectivity probability of the
@@ -65,83 +100,205 @@ public class CompliantNode implements Node {
      */
     public CompliantNode(double p_graph, double p_malicious,
                          double p_txDistribution, int numRounds) {
-        pendingTransactions = new HashSet<>();
+        pendingTransactions = new IntHashSet();
+        knownTransactions = new IntHashSet();
+    }
+
+    /**
+     * Enables delta gossip. After the trust rounds the node then only sends
+     * the transactions which became known since its previous proposal
+     * instead of re-sending everything it received, and its consensus is
+     * everything it knows. Every transaction is sent to the followers once,
+     * so a lost message is not repeated.
+     */
+    public void setDeltaGossip(boolean deltaGossip) {
+        this.deltaGossip = deltaGossip;
     }
 
     public void setFollowees(boolean[] followees) {
+        int count = 0;
+        for (boolean followee : followees) {
+            if (followee) {
+                count++;
+            }
+        }
+
+        int[] ids = new int[count];
+        count = 0;
+        for (int i = 0; i < followees.length; i++) {
+            if (followees[i]) {
+                ids[count++] = i;
+            }
+        }
+
+        setFollowees(ids, followees.length);
+    }
+
+    @Override
+    public void setFollowees(int[] followees, int numNodes) {
         this.followees = followees;
         followeesScore = new int[followees.length];
+        roundTxCount = new int[followees.length];
+        roundFirstTx = new int[followees.length];
     }
 
     public void setPendingTransaction(Set<Transaction> pendingTransactions) {
         if (!pendingTransactions.isEmpty()) {
             this.pendingTransactions.clear();
-            this.pendingTransactions.addAll(pendingTransactions);
-            Transaction[] txns = pendingTransactions.toArray(new Transaction[0]);
-            if (txns.length > 0) {
-                markerTxn = txns[0];
+            for (Transaction tx : pendingTransactions) {
+                this.pendingTransactions.add(tx.id);
+            }
+            markerTxn = pendingTransactions.iterator().next().id;
+            hasMarkerTxn = true;
+
+            for (Transaction tx : pendingTransactions) {
+                know(tx.id);
             }
         }
     }
 
+    /**
+     * @return in delta gossip mode all known transactions, otherwise the
+     * proposals as before
+     */
+    @Override
+    public Set<Transaction> getConsensus() {
+        if (!deltaGossip) {
+            return sendToFollowers();
+        }
+
+        Set<Transaction> consensus = new HashSet<>();
+        knownTransactions.forEach(id -> consensus.add(new Transaction(id)));
+        return consensus;
+    }
+
     public Set<Transaction> sendToFollowers() {
         Set<Transaction> sendTransactions = new HashSet<>();
-        if (round > NUM_OF_TRUST_ROUNDS) {
-            sendTransactions.addAll(pendingTransactions);
-            pendingTransactions.clear();
-        } else {
-            // create trust by sending only 1 transaction as long
-            // as the round is less than equal to the number of trusted rounds
-            if (markerTxn != null) {
-                sendTransactions.add(markerTxn);
-            }
+        for (int id : sendTxIdsToFollowers()) {
+            sendTransactions.add(new Transaction(id));
         }
 
         return sendTransactions;
     }
 
+    @Override
+    public int[] sendTxIdsToFollowers() {
+        if (round > NUM_OF_TRUST_ROUNDS && deltaGossip) {
+            int[] ids = Arrays.copyOfRange(knownLog, watermark, knownLogSize);
+            watermark = knownLogSize;
+            return ids;
+        } else if (round > NUM_OF_TRUST_ROUNDS) {
+            int[] ids = pendingTransactions.toArray();
+            pendingTransactions.clear();
+            return ids;
+        }
+
+        // create trust by sending only 1 transaction as long
+        // as the round is less than equal to the number of trusted rounds
+        return hasMarkerTxn ? new int[]{markerTxn} : new int[0];
+    }
+
+    /**
+     * Takes part in set reconciliation with all known transactions once the
+     * trust rounds are over, only in delta gossip mode
+     */
+    @Override
+    public int[] reconciliationSet() {
+        return deltaGossip && round > NUM_OF_TRUST_ROUNDS
+                ? knownTransactions.toArray() : null;
+    }
+
+    /**
+     * The marker transaction is proposed unchanged during the trust rounds,
+     * so the node isn't quiescent before they're over
+     */
+    @Override
+    public boolean isQuiescent() {
+        return round > NUM_OF_TRUST_ROUNDS;
+    }
+
     public void receiveFromFollowees(Set<Candidate> candidates) {
+        beginRound();
+        for (Candidate c : candidates) {
+            receive(Arrays.binarySearch(followees, c.sender), c.tx.id);
+        }
+        endRound();
+    }
+
+    @Override
+    public void receiveFromFollowees(CandidateBuffer candidates) {
+        beginRound();
+
+        // candidates of the same sender usually arrive next to each other,
+        // only look up the slot when the sender changes
+        int sender = -1;
+        int slot = -1;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (candidates.getSender(i) != sender) {
+                sender = candidates.getSender(i);
+                slot = Arrays.binarySearch(followees, sender);
+            }
+            receive(slot, candidates.getTxId(i));
+        }
+
+        endRound();
+    }
+
+    private void beginRound() {
         round++;
+        if (round <= NUM_OF_TRUST_ROUNDS) {
+            Arrays.fill(roundTxCount, 0);
+        }
+    }
 
-        Map<Integer, Set<Transaction>> senderToTxMap = new HashMap<>();
-        for (Candidate c : candidates) {
-            if (followees[c.sender]) {
-                if (!senderToTxMap.containsKey(c.sender)) {
-                    senderToTxMap.put(c.sender, new HashSet<>());
-                }
+    /**
+     * Processes transaction {@code txId} received from the followee in
+     * {@code slot}, a negative slot means the sender isn't a followee
+     */
+    private void receive(int slot, int txId) {
+        if (slot < 0) {
+            return;
+        }
+
+        if (round <= NUM_OF_TRUST_ROUNDS) {
+            if (roundTxCount[slot] == 0) {
+                roundFirstTx[slot] = txId;
+                roundTxCount[slot] = 1;
+            } else if (roundFirstTx[slot] != txId) {
+                roundTxCount[slot]++;
+            }
+        } else if (followeesScore[slot] == NUM_OF_TRUST_ROUNDS) {
+            // if the present round is greater than the number of trusted
+            // rounds, consider the transactions from followees who have a
+            // followee score count equal to the number of trusted rounds
+            if (deltaGossip) {
+                know(txId);
+            } else {
+                pendingTransactions.add(txId);
+            }
+        }
+    }
 
-                senderToTxMap.get(c.sender).add(c.tx);
+    private void know(int txId) {
+        if (knownTransactions.add(txId)) {
+            if (knownLogSize == knownLog.length) {
+                knownLog = Arrays.copyOf(knownLog, knownLogSize * 2);
             }
+            knownLog[knownLogSize++] = txId;
         }
+    }
 
+    private void endRound() {
         // if the round is less than equal to the number of trusted rounds
         // and the followee sends ony one transaction, increment
         // the followees' score count by one.
         // it's secret handshake
         if (round <= NUM_OF_TRUST_ROUNDS) {
-            for (int i = 0; i < followees.length; i++) {
-                if (followees[i]) {
-                    if (senderToTxMap.containsKey(i)) {
-                        Set<Transaction> txns = senderToTxMap.get(i);
-                        if (txns.size() == 1) {
-                            followeesScore[i]++;
-                        }
-                    }
-                }
-            }
-        }
-
-        // if the present round is greater than the number of trusted rounds,
-        // consider the transactions from followees who have a followee
-        // score count equal to the number of trusted rounds
-        if (round > NUM_OF_TRUST_ROUNDS) {
-            for (int i = 0; i < followees.length; i++) {
-                if (followees[i] && followeesScore[i] == NUM_OF_TRUST_ROUNDS) {
-                    if (senderToTxMap.containsKey(i)) {
-                        pendingTransactions.addAll(senderToTxMap.get(i));
-                    }
+            for (int slot = 0; slot < followees.length; slot++) {
+                if (roundTxCount[slot] == 1) {
+                    followeesScore[slot]++;
                 }
             }
         }
     }
-}
\ No newline at end of file
+}
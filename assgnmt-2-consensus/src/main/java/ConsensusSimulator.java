@@ -0,0 +1,732 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * {@code ConsensusSimulator} runs the nodes of a simulated network on a
+ * {@link FollowGraph} for a number of rounds.
+ * <p/>
+ * In every round each node's proposals are collected once and delivered to
+ * the followers of the node through the bulk {@link CandidateBuffer} API of
+ * {@link Node}. Both steps are performed in parallel across nodes as a
+ * node's {@code sendTxIdsToFollowers} and {@code receiveFromFollowees} only
+ * touch that node's own state. The candidates of a receiver are always
+ * built in the order of its followees, so the outcome only depends on the
+ * {@link Random} the simulator is created with.
+ *
+ * @since 10/18/26
+ */
+public class ConsensusSimulator {
+
+    public static final int DEFAULT_NUM_TX = 500;
+
+    /**
+     * Size of a message header and a transaction id in bytes, used to
+     * estimate the bytes on the wire
+     */
+    private static final int HEADER_BYTES = 8;
+
+    private static final int TX_ID_BYTES = 4;
+
+    /**
+     * Smallest reconciliation filter, filters grow by doubling
+     */
+    private static final int MIN_CELLS = 12;
+
+    /**
+     * Number of MinHashes exchanged to estimate the size of a difference
+     */
+    private static final int NUM_MIN_HASHES = 64;
+
+    /**
+     * Delivery buffer of each worker thread, reused across receivers
+     */
+    private static final ThreadLocal<CandidateBuffer> BUFFER =
+            ThreadLocal.withInitial(CandidateBuffer::new);
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_COUNTER =
+            allocationCounter();
+
+    private final Node[] nodes;
+
+    private final boolean[] compliant;
+
+    private final FollowGraph graph;
+
+    private final IntHashSet validTxIds;
+
+    private final int numRounds;
+
+    private boolean parallel = true;
+
+    private boolean metricsEnabled;
+
+    private int round;
+
+    private final List<RoundMetrics> roundMetrics = new ArrayList<>();
+
+    private final ResourceUsage compliantUsage = new ResourceUsage();
+
+    private final ResourceUsage maliciousUsage = new ResourceUsage();
+
+    private int stabilityWindow;
+
+    private boolean stopWhenStable;
+
+    /**
+     * Order independent hash of the proposals of every node in the last
+     * round
+     */
+    private long[] fingerprints;
+
+    /**
+     * Number of consecutive rounds the fingerprint of every node didn't
+     * change
+     */
+    private int[] stableRounds;
+
+    private int convergedRound = -1;
+
+    private boolean reconciliation;
+
+    /**
+     * Reconciliation filters of the present round by node and size
+     */
+    private final Map<Long, InvertibleBloomFilter> sketches =
+            new ConcurrentHashMap<>();
+
+    private final LongAdder reconciliationFailures = new LongAdder();
+
+    private long bytesSent;
+
+    /**
+     * Sets up a network of {@code numNodes} nodes on a random follow graph
+     * and distributes {@link #DEFAULT_NUM_TX} valid transactions among them.
+     *
+     * @see #ConsensusSimulator(int, int, double, double, double, int, Random)
+     */
+    public ConsensusSimulator(int numNodes, double p_graph, double p_malicious,
+                              double p_txDistribution, int numRounds,
+                              Random random) {
+        this(numNodes, DEFAULT_NUM_TX, p_graph, p_malicious, p_txDistribution,
+                numRounds, random);
+    }
+
+    /**
+     * Sets up a network of {@code numNodes} nodes on a random follow graph
+     * and distributes {@code numTx} valid transactions among them.
+     *
+     * @see #ConsensusSimulator(int, int, GraphGenerator, double, double,
+     * int, Random)
+     */
+    public ConsensusSimulator(int numNodes, int numTx, double p_graph,
+                              double p_malicious, double p_txDistribution,
+                              int numRounds, Random random) {
+        this(numNodes, numTx, GraphGenerator.erdosRenyi(p_graph), p_malicious,
+                p_txDistribution, numRounds, random);
+    }
+
+    /**
+     * Sets up a network of {@code numNodes} nodes on a follow graph created
+     * by {@code graphGenerator} and distributes {@code numTx} valid
+     * transactions among them.
+     *
+     * @see #ConsensusSimulator(int, int, GraphGenerator, double, double,
+     * int, IntFunction, Random)
+     */
+    public ConsensusSimulator(int numNodes, int numTx,
+                              GraphGenerator graphGenerator,
+                              double p_malicious, double p_txDistribution,
+                              int numRounds, Random random) {
+        this(numNodes, numTx, graphGenerator, p_malicious, p_txDistribution,
+                numRounds, null, random);
+    }
+
+    /**
+     * Sets up a network of {@code numNodes} nodes on a follow graph created
+     * by {@code graphGenerator} whose malicious nodes are created by {@code
+     * adversaries}, and distributes {@code numTx} valid transactions among
+     * them.
+     *
+     * @param graphGenerator   creates the follow graph
+     * @param p_malicious      prob. that a node will be set to be malicious
+     * @param p_txDistribution probability of assigning an initial transaction
+     *                         to each node
+     * @param numRounds        number of simulation rounds the nodes will run
+     *                         for
+     * @param adversaries      creates the malicious node of the given id, null
+     *                         for a {@link MaliciousNode}
+     * @param random           source of all randomness of the simulation
+     */
+    public ConsensusSimulator(int numNodes, int numTx,
+                              GraphGenerator graphGenerator,
+                              double p_malicious, double p_txDistribution,
+                              int numRounds, IntFunction<Node> adversaries,
+                              Random random) {
+        this.numRounds = numRounds;
+
+        // pick which nodes are malicious and which are compliant
+        compliant = new boolean[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            compliant[i] = random.nextDouble() >= p_malicious;
+        }
+
+        // initialize the follow graph, create the nodes and notify them of
+        // their followees
+        graph = graphGenerator.generate(numNodes, random);
+        double p_graph = graph.getDensity();
+        nodes = new Node[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            nodes[i] = compliant[i]
+                    ? new CompliantNode(p_graph, p_malicious,
+                    p_txDistribution, numRounds)
+                    : adversaries != null ? adversaries.apply(i)
+                    : new MaliciousNode(p_graph, p_malicious,
+                    p_txDistribution, numRounds);
+            nodes[i].setFollowees(graph.getFollowees(i), numNodes);
+        }
+
+        // initialize a set of valid Transactions with random ids
+        validTxIds = new IntHashSet(numTx);
+        int[] txIds = new int[numTx];
+        for (int count = 0; count < numTx; ) {
+            int id = random.nextInt();
+            if (validTxIds.add(id)) {
+                txIds[count++] = id;
+            }
+        }
+
+        // distribute the Transactions throughout the nodes, to initialize
+        // the starting state of Transactions each node has heard
+        for (int i = 0; i < numNodes; i++) {
+            Set<Transaction> pendingTransactions = new HashSet<>();
+            for (int txId : txIds) {
+                if (random.nextDouble() < p_txDistribution) {
+                    pendingTransactions.add(new Transaction(txId));
+                }
+            }
+            nodes[i].setPendingTransaction(pendingTransactions);
+        }
+    }
+
+    /**
+     * Enables or disables running the nodes of a round in parallel. The
+     * results are the same either way.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Enables or disables delta gossip on all compliant nodes
+     *
+     * @see CompliantNode#setDeltaGossip(boolean)
+     */
+    public void setDeltaGossip(boolean deltaGossip) {
+        for (Node node : nodes) {
+            if (node instanceof CompliantNode) {
+                ((CompliantNode) node).setDeltaGossip(deltaGossip);
+            }
+        }
+    }
+
+    /**
+     * Enables or disables set reconciliation. A link between two nodes which
+     * both return a {@link Node#reconciliationSet() reconciliation set} may
+     * then carry invertible Bloom filters of the sender's set instead of its
+     * proposals, and the follower only receives the transactions it doesn't
+     * know yet.
+     */
+    public void setReconciliation(boolean reconciliation) {
+        this.reconciliation = reconciliation;
+    }
+
+    /**
+     * @return the estimated bytes sent over all links so far
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * @return the number of reconciliation filters which were too small to
+     * decode the difference
+     */
+    public long getReconciliationFailures() {
+        return reconciliationFailures.sum();
+    }
+
+    /**
+     * Enables or disables recording a {@link RoundMetrics} for every round.
+     * Measuring adds a small overhead to every node callback.
+     */
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     * @return the metrics of the rounds run with metrics enabled
+     */
+    public List<RoundMetrics> getRoundMetrics() {
+        return roundMetrics;
+    }
+
+    /**
+     * @return the resources used by all compliant nodes in the rounds run
+     * with metrics enabled
+     */
+    public ResourceUsage getCompliantUsage() {
+        return compliantUsage;
+    }
+
+    /**
+     * @return the resources used by all malicious nodes in the rounds run
+     * with metrics enabled
+     */
+    public ResourceUsage getMaliciousUsage() {
+        return maliciousUsage;
+    }
+
+    /**
+     * Enables convergence detection. A compliant node is stable once the
+     * set of transactions it proposes didn't change for {@code
+     * stabilityWindow} consecutive rounds while the node reported itself
+     * {@link Node#isQuiescent() quiescent}. The network has converged in the
+     * first round all compliant nodes are stable.
+     *
+     * @param stabilityWindow number of unchanged rounds, 0 disables the
+     *                        detection
+     * @param stopWhenStable  if true, {@link #run()} stops as soon as the
+     *                        network has converged
+     */
+    public void setConvergenceDetection(int stabilityWindow,
+                                        boolean stopWhenStable) {
+        this.stabilityWindow = stabilityWindow;
+        this.stopWhenStable = stopWhenStable && stabilityWindow > 0;
+        fingerprints = stabilityWindow > 0 ? new long[nodes.length] : null;
+        stableRounds = stabilityWindow > 0 ? new int[nodes.length] : null;
+    }
+
+    /**
+     * @return the round in which all compliant nodes became stable, -1 if
+     * they haven't or detection is disabled
+     */
+    public int getConvergedRound() {
+        return convergedRound;
+    }
+
+    /**
+     * @return the number of rounds run so far
+     */
+    public int getRoundsRun() {
+        return round;
+    }
+
+    public int getNumNodes() {
+        return nodes.length;
+    }
+
+    public int getNumRounds() {
+        return numRounds;
+    }
+
+    public int getNumValidTxs() {
+        return validTxIds.size();
+    }
+
+    Node getNode(int i) {
+        return nodes[i];
+    }
+
+    boolean isValidTx(int id) {
+        return validTxIds.contains(id);
+    }
+
+    public FollowGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return true if node {@code i} follows the rules
+     */
+    public boolean isCompliant(int i) {
+        return compliant[i];
+    }
+
+    public int getNumCompliantNodes() {
+        int count = 0;
+        for (boolean c : compliant) {
+            if (c) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Counts the compliant nodes which agree with the most common set of
+     * transactions among compliant nodes. Comparing against all the valid
+     * transactions would miss transactions which were never given to a
+     * compliant node in the first place.
+     *
+     * @return the number of compliant nodes which reached consensus
+     */
+    public int countConsensus(List<Set<Transaction>> results) {
+        Map<Set<Transaction>, Integer> counts = new HashMap<>();
+        int consensus = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (compliant[i]) {
+                int count = counts.merge(results.get(i), 1, Integer::sum);
+                consensus = Math.max(consensus, count);
+            }
+        }
+
+        return consensus;
+    }
+
+    /**
+     * Runs all rounds of the simulation.
+     *
+     * @return the transactions each node believes consensus has been reached
+     * upon, indexed by node
+     */
+    public List<Set<Transaction>> run() {
+        while (round < numRounds
+                && !(stopWhenStable && convergedRound >= 0)) {
+            runRound();
+        }
+
+        List<Set<Transaction>> results = new ArrayList<>(nodes.length);
+        for (Node node : nodes) {
+            results.add(node.getConsensus());
+        }
+
+        return results;
+    }
+
+    /**
+     * Runs a single round: gathers the valid proposals of every node and
+     * delivers them to the node's followers.
+     */
+    public void runRound() {
+        int numNodes = nodes.length;
+        long start = System.nanoTime();
+        long[] sendNanos = metricsEnabled ? new long[numNodes] : null;
+        long[] receiveNanos = metricsEnabled ? new long[numNodes] : null;
+        long[] allocatedBytes = metricsEnabled ? new long[numNodes] : null;
+        long[] delivered = metricsEnabled ? new long[numNodes] : null;
+        long[] messages = metricsEnabled ? new long[numNodes] : null;
+        long[] bytesReceived = new long[numNodes];
+
+        int[] sentLengths = new int[numNodes];
+        int[][] proposals = new int[numNodes][];
+        int[][] sets = new int[numNodes][];
+        int[][] minHashes = new int[numNodes][];
+        nodeRange().forEach(i -> {
+            int[] sent;
+            int[] set = null;
+            if (metricsEnabled) {
+                long bytes = allocatedBytes();
+                long time = System.nanoTime();
+                sent = nodes[i].sendTxIdsToFollowers();
+                if (reconciliation) {
+                    set = nodes[i].reconciliationSet();
+                }
+                sendNanos[i] = System.nanoTime() - time;
+                allocatedBytes[i] = allocatedBytes() - bytes;
+            } else {
+                sent = nodes[i].sendTxIdsToFollowers();
+                if (reconciliation) {
+                    set = nodes[i].reconciliationSet();
+                }
+            }
+
+            sentLengths[i] = sent.length;
+            proposals[i] = validTxIds(sent);
+            if (set != null) {
+                sets[i] = validTxIds(set);
+                minHashes[i] = InvertibleBloomFilter.minHashes(sets[i],
+                        NUM_MIN_HASHES);
+            }
+
+            if (stabilityWindow > 0) {
+                // rounds in which the node isn't quiescent don't count
+                // towards its stability
+                long fingerprint = fingerprint(proposals[i]);
+                stableRounds[i] = fingerprint == fingerprints[i]
+                        && nodes[i].isQuiescent() ? stableRounds[i] + 1 : 0;
+                fingerprints[i] = fingerprint;
+            }
+        });
+
+        nodeRange().forEach(j -> {
+            CandidateBuffer candidates = BUFFER.get();
+            candidates.clear();
+            int numFollowees = graph.getNumFollowees(j);
+            InvertibleBloomFilter[] ownSketches = null;
+            long bytes = 0;
+            int numMessages = 0;
+            for (int slot = 0; slot < numFollowees; slot++) {
+                int i = graph.getFollowee(j, slot);
+                if (sets[i] != null && sets[j] != null) {
+                    if (ownSketches == null) {
+                        ownSketches = new InvertibleBloomFilter[32];
+                    }
+                    bytes += reconcile(i, j, proposals[i], sets, minHashes,
+                            ownSketches, candidates);
+                    numMessages++;
+                } else {
+                    // invalid ids are dropped on arrival, but still sent
+                    candidates.addAll(i, proposals[i]);
+                    bytes += HEADER_BYTES + TX_ID_BYTES * sentLengths[i];
+                    numMessages += sentLengths[i] > 0 ? 1 : 0;
+                }
+            }
+            bytesReceived[j] = bytes;
+            if (metricsEnabled) {
+                messages[j] = numMessages;
+            }
+
+            if (candidates.isEmpty()) {
+                return;
+            }
+            if (metricsEnabled) {
+                delivered[j] = candidates.size();
+                long allocated = allocatedBytes();
+                long time = System.nanoTime();
+                nodes[j].receiveFromFollowees(candidates);
+                receiveNanos[j] = System.nanoTime() - time;
+                allocatedBytes[j] += allocatedBytes() - allocated;
+            } else {
+                nodes[j].receiveFromFollowees(candidates);
+            }
+        });
+
+        sketches.clear();
+
+        long roundBytes = 0;
+        for (long bytes : bytesReceived) {
+            roundBytes += bytes;
+        }
+        bytesSent += roundBytes;
+
+        round++;
+        if (stabilityWindow > 0 && convergedRound < 0 && isStable()) {
+            convergedRound = round;
+        }
+        if (metricsEnabled) {
+            roundMetrics.add(newRoundMetrics(proposals, delivered, sendNanos,
+                    receiveNanos, allocatedBytes, roundBytes,
+                    System.nanoTime() - start));
+            for (int i = 0; i < numNodes; i++) {
+                (compliant[i] ? compliantUsage : maliciousUsage).add(
+                        sendNanos[i], receiveNanos[i], allocatedBytes[i],
+                        messages[i], delivered[i], bytesReceived[i]);
+            }
+        }
+    }
+
+    /**
+     * @return {@code sent} without the invalid transaction ids, the array
+     * returned by the node is only copied if it contains invalid ids
+     */
+    private int[] validTxIds(int[] sent) {
+        int[] valid = sent;
+        int numValid = 0;
+        for (int k = 0; k < sent.length; k++) {
+            if (validTxIds.contains(sent[k])) {
+                if (valid != sent) {
+                    valid[numValid] = sent[k];
+                }
+                numValid++;
+            } else if (valid == sent) {
+                valid = Arrays.copyOf(sent, sent.length);
+            }
+        }
+
+        return valid == sent ? sent : Arrays.copyOf(valid, numValid);
+    }
+
+    /**
+     * Delivers the transactions of followee {@code i} to follower {@code
+     * j}, either by pushing the proposals of {@code i} or by reconciling the
+     * sets of both nodes, whichever is expected to be smaller.
+     * <p/>
+     * If pushing is expensive enough, {@code i} first sends the size and
+     * MinHashes of its set, from which {@code j} estimates the size of the
+     * difference. The filter is sized for the estimate and doubled until the
+     * difference decodes, or until it would get larger than the proposals,
+     * which are then pushed instead.
+     *
+     * @return the bytes sent over the link
+     */
+    private long reconcile(int i, int j, int[] proposals, int[][] sets,
+                           int[][] minHashes,
+                           InvertibleBloomFilter[] ownSketches,
+                           CandidateBuffer candidates) {
+        long pushBytes = HEADER_BYTES + TX_ID_BYTES * proposals.length;
+        long estimateBytes = HEADER_BYTES + TX_ID_BYTES
+                * (1 + minHashes[i].length);
+        if (pushBytes < 2 * (estimateBytes + cellBytes(0))) {
+            candidates.addAll(i, proposals);
+            return pushBytes;
+        }
+
+        int[] set = sets[i];
+        int[] own = sets[j];
+        int estimate = InvertibleBloomFilter.estimateDifference(minHashes[i],
+                set.length, minHashes[j], own.length);
+        int level = 0;
+        // leave room for the error of the estimate
+        while (MIN_CELLS << level < estimate * 2 + MIN_CELLS) {
+            level++;
+        }
+
+        long bytes = estimateBytes;
+        while (bytes + cellBytes(level) < pushBytes) {
+            InvertibleBloomFilter sketch = sketch(i, set, level);
+            if (ownSketches[level] == null) {
+                ownSketches[level] =
+                        InvertibleBloomFilter.of(own, MIN_CELLS << level);
+            }
+            bytes += cellBytes(level);
+
+            IntHashSet added = new IntHashSet();
+            if (sketch.subtract(ownSketches[level]).decode(added, null)) {
+                added.forEach(id -> candidates.add(i, id));
+                return bytes;
+            }
+
+            reconciliationFailures.increment();
+            level++;
+        }
+
+        candidates.addAll(i, proposals);
+        return bytes + pushBytes;
+    }
+
+    /**
+     * @return the bytes of a message carrying a filter of size {@code level}
+     */
+    private static long cellBytes(int level) {
+        return HEADER_BYTES
+                + (long) (MIN_CELLS << level) * InvertibleBloomFilter.CELL_BYTES;
+    }
+
+    /**
+     * @return the filter of the set of node {@code i} at size {@code
+     * level}, shared by all followers of {@code i} in a round
+     */
+    private InvertibleBloomFilter sketch(int i, int[] set, int level) {
+        return sketches.computeIfAbsent(((long) i << 8) | level,
+                key -> InvertibleBloomFilter.of(set, MIN_CELLS << level));
+    }
+
+    private boolean isStable() {
+        for (int i = 0; i < nodes.length; i++) {
+            if (compliant[i] && stableRounds[i] < stabilityWindow) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return a hash of the set of transaction ids {@code ids} which doesn't
+     * depend on their order
+     */
+    private static long fingerprint(int[] ids) {
+        long hash = ids.length;
+        for (int id : ids) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            hash += h ^ (h >>> 29);
+        }
+
+        return hash;
+    }
+
+    private RoundMetrics newRoundMetrics(int[][] proposals, long[] delivered,
+                                         long[] sendNanos,
+                                         long[] receiveNanos,
+                                         long[] allocatedBytes,
+                                         long bytesSent,
+                                         long wallTimeNanos) {
+        long candidatesDelivered = 0;
+        long totalTxs = 0;
+        int minTxs = Integer.MAX_VALUE;
+        int maxTxs = 0;
+        long totalSendNanos = 0;
+        long totalReceiveNanos = 0;
+        long totalAllocatedBytes = 0;
+        for (int i = 0; i < proposals.length; i++) {
+            int numTxs = proposals[i].length;
+            candidatesDelivered += delivered[i];
+            totalTxs += numTxs;
+            minTxs = Math.min(minTxs, numTxs);
+            maxTxs = Math.max(maxTxs, numTxs);
+            totalSendNanos += sendNanos[i];
+            totalReceiveNanos += receiveNanos[i];
+            totalAllocatedBytes += allocatedBytes[i];
+        }
+
+        if (proposals.length == 0) {
+            minTxs = 0;
+        }
+        double meanTxs = proposals.length == 0
+                ? 0 : (double) totalTxs / proposals.length;
+
+        return new RoundMetrics(round, candidatesDelivered, minTxs, maxTxs,
+                meanTxs, totalSendNanos, totalReceiveNanos,
+                ALLOCATION_COUNTER == null ? -1 : totalAllocatedBytes,
+                bytesSent, wallTimeNanos);
+    }
+
+    /**
+     * @return true if the JVM supports measuring allocated bytes
+     */
+    static boolean isAllocationMeasured() {
+        return ALLOCATION_COUNTER != null;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, 0 if not
+     * supported
+     */
+    private static long allocatedBytes() {
+        return ALLOCATION_COUNTER == null ? 0
+                : ALLOCATION_COUNTER.getThreadAllocatedBytes(
+                Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean =
+                ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter =
+                    (com.sun.management.ThreadMXBean) bean;
+            if (counter.isThreadAllocatedMemorySupported()) {
+                counter.setThreadAllocatedMemoryEnabled(true);
+                return counter;
+            }
+        }
+
+        return null;
+    }
+
+    private IntStream nodeRange() {
+        IntStream range = IntStream.range(0, nodes.length);
+        return parallel ? range.parallel() : range;
+    }
+}
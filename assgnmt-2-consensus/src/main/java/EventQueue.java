@@ -0,0 +1,196 @@
+import java.util.Arrays;
+
+/**
+ * {@code EventQueue} is a binary min-heap of simulation events stored in
+ * parallel primitive arrays, so scheduling an event doesn't allocate.
+ * <p/>
+ * Events are ordered by time, then type, node, sender and sender sequence
+ * number. The order doesn't depend on the order events were scheduled in,
+ * which keeps a simulation deterministic however its events are partitioned.
+ *
+ * @since 10/18/26
+ */
+public class EventQueue {
+
+    private long[] times;
+
+    private int[] types;
+
+    private int[] nodes;
+
+    private int[] senders;
+
+    private int[] sequences;
+
+    private int[][] payloads;
+
+    private int size;
+
+    private long lastTime;
+
+    private int lastType;
+
+    private int lastNode;
+
+    private int lastSender;
+
+    private int lastSequence;
+
+    private int[] lastPayload;
+
+    public EventQueue() {
+        this(64);
+    }
+
+    public EventQueue(int capacity) {
+        times = new long[capacity];
+        types = new int[capacity];
+        nodes = new int[capacity];
+        senders = new int[capacity];
+        sequences = new int[capacity];
+        payloads = new int[capacity][];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return time of the earliest event, {@link Long#MAX_VALUE} if empty
+     */
+    public long peekTime() {
+        return size == 0 ? Long.MAX_VALUE : times[0];
+    }
+
+    public void add(long time, int type, int node, int sender, int sequence,
+                    int[] payload) {
+        if (size == times.length) {
+            int capacity = Math.max(16, size * 2);
+            times = Arrays.copyOf(times, capacity);
+            types = Arrays.copyOf(types, capacity);
+            nodes = Arrays.copyOf(nodes, capacity);
+            senders = Arrays.copyOf(senders, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+        }
+
+        int i = size++;
+        set(i, time, type, node, sender, sequence, payload);
+        siftUp(i);
+    }
+
+    /**
+     * Removes the earliest event. Its fields are available through the
+     * {@code last*} accessors until the next call.
+     */
+    public void poll() {
+        lastTime = times[0];
+        lastType = types[0];
+        lastNode = nodes[0];
+        lastSender = senders[0];
+        lastSequence = sequences[0];
+        lastPayload = payloads[0];
+
+        int last = --size;
+        if (last > 0) {
+            set(0, times[last], types[last], nodes[last], senders[last],
+                    sequences[last], payloads[last]);
+            siftDown(0);
+        }
+        payloads[last] = null;
+    }
+
+    public long lastTime() {
+        return lastTime;
+    }
+
+    public int lastType() {
+        return lastType;
+    }
+
+    public int lastNode() {
+        return lastNode;
+    }
+
+    public int lastSender() {
+        return lastSender;
+    }
+
+    public int lastSequence() {
+        return lastSequence;
+    }
+
+    public int[] lastPayload() {
+        return lastPayload;
+    }
+
+    private void set(int i, long time, int type, int node, int sender,
+                     int sequence, int[] payload) {
+        times[i] = time;
+        types[i] = type;
+        nodes[i] = node;
+        senders[i] = sender;
+        sequences[i] = sequence;
+        payloads[i] = payload;
+    }
+
+    private boolean less(int a, int b) {
+        if (times[a] != times[b]) {
+            return times[a] < times[b];
+        }
+        if (types[a] != types[b]) {
+            return types[a] < types[b];
+        }
+        if (nodes[a] != nodes[b]) {
+            return nodes[a] < nodes[b];
+        }
+        if (senders[a] != senders[b]) {
+            return senders[a] < senders[b];
+        }
+        return sequences[a] < sequences[b];
+    }
+
+    private void swap(int a, int b) {
+        long time = times[a];
+        int type = types[a];
+        int node = nodes[a];
+        int sender = senders[a];
+        int sequence = sequences[a];
+        int[] payload = payloads[a];
+        set(a, times[b], types[b], nodes[b], senders[b], sequences[b],
+                payloads[b]);
+        set(b, time, type, node, sender, sequence, payload);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(i, parent)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(child + 1, child)) {
+                child++;
+            }
+            if (!less(child, i)) {
+                break;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+}
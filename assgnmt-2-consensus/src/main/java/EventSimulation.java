@@ -0,0 +1,444 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * {@code EventSimulation} runs the nodes of a {@link ConsensusSimulator}
+ * network as an asynchronous, discrete-event simulation instead of in
+ * lock-step rounds.
+ * <p/>
+ * Every node has its own round timer. When it fires, the node processes all
+ * candidates which arrived since its previous round, which keeps it busy for
+ * a processing cost proportional to their number, and then sends its
+ * proposals to its followers. Each message is lost with a fixed probability
+ * or delivered after a delay drawn from a {@link LatencyModel}. A node runs
+ * for the configured number of rounds followed by a final receive, just like
+ * in {@link ConsensusSimulator}. All times are in microseconds.
+ * <p/>
+ * Events live in primitive {@link EventQueue}s. With more than one
+ * partition, the nodes are split into contiguous ranges, each with its own
+ * queue, and the partitions are advanced in parallel through time windows
+ * as long as the minimum link latency. A message sent within a window can't
+ * arrive before the window ends, so partitions only exchange messages
+ * between windows. Every node draws from its own random generator, so the
+ * outcome is the same for any number of partitions.
+ * <p/>
+ * Nodes must not share state with each other, as nodes of different
+ * partitions run concurrently. That's why {@link SybilNode}s, which pool
+ * what they hear within their group, are rejected.
+ *
+ * @since 10/18/26
+ */
+public class EventSimulation {
+
+    private static final int ARRIVAL = 0;
+
+    private static final int TICK = 1;
+
+    /**
+     * Size of a message header and a transaction id in bytes, used to
+     * estimate the message volume
+     */
+    private static final int HEADER_BYTES = 8;
+
+    private static final int TX_ID_BYTES = 4;
+
+    private final ConsensusSimulator network;
+
+    private final int numNodes;
+
+    private final SplittableRandom[] randoms;
+
+    private final CandidateBuffer[] inboxes;
+
+    private final int[] rounds;
+
+    private final long[] finishTimes;
+
+    private LatencyModel latencyModel = LatencyModel.constant(50_000);
+
+    private double lossProbability;
+
+    private long roundPeriod = 200_000;
+
+    private long processingCost;
+
+    private long processingCostPerCandidate;
+
+    private int numPartitions = 1;
+
+    private long eventsProcessed;
+
+    private long messagesSent;
+
+    private long messagesLost;
+
+    private long candidatesDelivered;
+
+    private long bytesSent;
+
+    private long wallTimeNanos;
+
+    /**
+     * @param network the nodes, follow graph and transactions to simulate.
+     *                The network must not have been run already and must not
+     *                contain {@link SybilNode}s.
+     * @param seed    seed of the link latencies and message losses
+     * @throws IllegalArgumentException if the network contains a {@link
+     *                                  SybilNode}
+     */
+    public EventSimulation(ConsensusSimulator network, long seed) {
+        this.network = network;
+        numNodes = network.getNumNodes();
+        for (int i = 0; i < numNodes; i++) {
+            if (network.getNode(i) instanceof SybilNode) {
+                throw new IllegalArgumentException("node " + i
+                        + " is a SybilNode, which only runs in rounds");
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        randoms = new SplittableRandom[numNodes];
+        inboxes = new CandidateBuffer[numNodes];
+        for (int i = 0; i < numNodes; i++) {
+            randoms[i] = random.split();
+            inboxes[i] = new CandidateBuffer(0);
+        }
+        rounds = new int[numNodes];
+        finishTimes = new long[numNodes];
+    }
+
+    public void setLatencyModel(LatencyModel latencyModel) {
+        this.latencyModel = latencyModel;
+    }
+
+    public void setLossProbability(double lossProbability) {
+        this.lossProbability = lossProbability;
+    }
+
+    /**
+     * @param roundPeriod time between the start of two rounds of a node
+     */
+    public void setRoundPeriod(long roundPeriod) {
+        this.roundPeriod = roundPeriod;
+    }
+
+    /**
+     * A node is busy for {@code processingCost + processingCostPerCandidate
+     * * candidates} while processing the candidates of a round. A round
+     * doesn't start before the previous one is processed.
+     */
+    public void setProcessingCost(long processingCost,
+                                  long processingCostPerCandidate) {
+        this.processingCost = processingCost;
+        this.processingCostPerCandidate = processingCostPerCandidate;
+    }
+
+    /**
+     * @param numPartitions number of partitions simulated in parallel, more
+     *                      than one requires a positive minimum latency
+     */
+    public void setNumPartitions(int numPartitions) {
+        this.numPartitions = Math.max(1, Math.min(numPartitions, numNodes));
+    }
+
+    /**
+     * Runs the simulation until every node has finished its rounds.
+     *
+     * @return the transactions each node believes consensus has been reached
+     * upon, indexed by node
+     */
+    public List<Set<Transaction>> run() {
+        long lookahead = latencyModel.getMinLatency();
+        if (numPartitions > 1 && lookahead <= 0) {
+            throw new IllegalStateException(
+                    "parallel partitions require a positive minimum latency");
+        }
+
+        long start = System.nanoTime();
+        Partition[] partitions = new Partition[numPartitions];
+        int rangeSize = (numNodes + numPartitions - 1) / numPartitions;
+        for (int p = 0; p < numPartitions; p++) {
+            partitions[p] = new Partition(p * rangeSize,
+                    Math.min(numNodes, (p + 1) * rangeSize));
+        }
+
+        if (numPartitions == 1) {
+            partitions[0].process(Long.MAX_VALUE);
+        } else {
+            while (true) {
+                long windowStart = Long.MAX_VALUE;
+                for (Partition partition : partitions) {
+                    windowStart = Math.min(windowStart,
+                            partition.queue.peekTime());
+                }
+                if (windowStart == Long.MAX_VALUE) {
+                    break;
+                }
+
+                long windowEnd = windowStart + lookahead;
+                IntStream.range(0, numPartitions).parallel()
+                        .forEach(p -> partitions[p].process(windowEnd));
+
+                // hand over the messages between partitions
+                for (Partition partition : partitions) {
+                    EventQueue outbox = partition.outbox;
+                    while (!outbox.isEmpty()) {
+                        outbox.poll();
+                        partitions[outbox.lastNode() / rangeSize].queue.add(
+                                outbox.lastTime(), outbox.lastType(),
+                                outbox.lastNode(), outbox.lastSender(),
+                                outbox.lastSequence(), outbox.lastPayload());
+                    }
+                }
+            }
+        }
+
+        for (Partition partition : partitions) {
+            eventsProcessed += partition.eventsProcessed;
+            messagesSent += partition.messagesSent;
+            messagesLost += partition.messagesLost;
+            candidatesDelivered += partition.candidatesDelivered;
+            bytesSent += partition.bytesSent;
+        }
+
+        List<Set<Transaction>> results = new ArrayList<>(numNodes);
+        for (int i = 0; i < numNodes; i++) {
+            results.add(network.getNode(i).getConsensus());
+        }
+        wallTimeNanos = System.nanoTime() - start;
+
+        return results;
+    }
+
+    /**
+     * @return the simulated time at which the last compliant node finished
+     * its final round. The sets of the compliant nodes don't change
+     * afterwards.
+     */
+    public long getTimeToConsensus() {
+        long time = 0;
+        for (int i = 0; i < numNodes; i++) {
+            if (network.isCompliant(i)) {
+                time = Math.max(time, finishTimes[i]);
+            }
+        }
+
+        return time;
+    }
+
+    public long getEventsProcessed() {
+        return eventsProcessed;
+    }
+
+    /**
+     * @return the number of messages sent, including the lost ones
+     */
+    public long getMessagesSent() {
+        return messagesSent;
+    }
+
+    public long getMessagesLost() {
+        return messagesLost;
+    }
+
+    public long getCandidatesDelivered() {
+        return candidatesDelivered;
+    }
+
+    /**
+     * @return the estimated bytes of all the messages sent
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    /**
+     * {@code Partition} simulates a contiguous range of nodes. Only the
+     * thread advancing the partition touches its nodes and counters.
+     */
+    private class Partition {
+
+        private final int from;
+
+        private final int to;
+
+        private final EventQueue queue = new EventQueue();
+
+        private final EventQueue outbox = new EventQueue();
+
+        private final int[] sequences;
+
+        private long eventsProcessed;
+
+        private long messagesSent;
+
+        private long messagesLost;
+
+        private long candidatesDelivered;
+
+        private long bytesSent;
+
+        Partition(int from, int to) {
+            this.from = from;
+            this.to = to;
+            sequences = new int[to - from];
+
+            // start the nodes at random offsets so they don't run in
+            // lock-step
+            for (int i = from; i < to; i++) {
+                queue.add(randoms[i].nextLong(roundPeriod), TICK, i, i, 0,
+                        null);
+            }
+        }
+
+        /**
+         * Processes all events before {@code windowEnd}
+         */
+        void process(long windowEnd) {
+            while (queue.peekTime() < windowEnd) {
+                queue.poll();
+                eventsProcessed++;
+
+                int node = queue.lastNode();
+                if (queue.lastType() == ARRIVAL) {
+                    int[] payload = queue.lastPayload();
+                    inboxes[node].addAll(queue.lastSender(), payload);
+                    candidatesDelivered += payload.length;
+                } else {
+                    tick(node, queue.lastTime());
+                }
+            }
+        }
+
+        private void tick(int node, long time) {
+            Node n = network.getNode(node);
+            CandidateBuffer inbox = inboxes[node];
+
+            long cost = 0;
+            if (rounds[node] > 0 && !inbox.isEmpty()) {
+                cost = processingCost
+                        + processingCostPerCandidate * inbox.size();
+                n.receiveFromFollowees(inbox);
+            }
+            inbox.clear();
+
+            long departure = time + cost;
+            if (rounds[node] == network.getNumRounds()) {
+                finishTimes[node] = departure;
+                return;
+            }
+            rounds[node]++;
+
+            int[] proposals = validProposals(n.sendTxIdsToFollowers());
+            int sequence = sequences[node - from]++;
+            SplittableRandom random = randoms[node];
+            FollowGraph graph = network.getGraph();
+            for (int k = 0; k < graph.getNumFollowers(node); k++) {
+                int follower = graph.getFollower(node, k);
+                messagesSent++;
+                bytesSent += HEADER_BYTES + TX_ID_BYTES * proposals.length;
+                if (random.nextDouble() < lossProbability) {
+                    messagesLost++;
+                    continue;
+                }
+
+                long arrival = departure
+                        + latencyModel.sample(node, follower, random);
+                EventQueue target = follower >= from && follower < to
+                        ? queue : outbox;
+                target.add(arrival, ARRIVAL, follower, node, sequence,
+                        proposals);
+            }
+
+            queue.add(time + Math.max(roundPeriod, cost), TICK, node, node,
+                    0, null);
+        }
+
+        private int[] validProposals(int[] sent) {
+            int numValid = 0;
+            for (int id : sent) {
+                if (network.isValidTx(id)) {
+                    numValid++;
+                }
+            }
+            if (numValid == sent.length) {
+                return sent;
+            }
+
+            int[] valid = new int[numValid];
+            numValid = 0;
+            for (int id : sent) {
+                if (network.isValidTx(id)) {
+                    valid[numValid++] = id;
+                }
+            }
+
+            return valid;
+        }
+    }
+
+    public static void main(String[] args) {
+        // p_graph, p_malicious, p_txDistribution and numRounds as in
+        // Simulation followed by an optional seed, number of nodes, number of
+        // partitions and topology: "random", "scalefree" or "smallworld",
+        // all with p_graph * (numNodes - 1) followees per node on average
+        double p_graph = Double.parseDouble(args[0]);
+        double p_malicious = Double.parseDouble(args[1]);
+        double p_txDistribution = Double.parseDouble(args[2]);
+        int numRounds = Integer.parseInt(args[3]);
+        long seed = args.length > 4
+                ? Long.parseLong(args[4]) : new Random().nextLong();
+        int numNodes = args.length > 5 ? Integer.parseInt(args[5]) : 100;
+        int numPartitions = args.length > 6 ? Integer.parseInt(args[6]) : 1;
+        String topology = args.length > 7 ? args[7] : "random";
+
+        int numFollowees = (int) Math.round(p_graph * (numNodes - 1));
+        GraphGenerator graphGenerator;
+        if ("scalefree".equals(topology)) {
+            graphGenerator =
+                    GraphGenerator.scaleFree(Math.max(1, numFollowees / 2));
+        } else if ("smallworld".equals(topology)) {
+            graphGenerator = GraphGenerator.smallWorld(
+                    Math.max(2, numFollowees / 2 * 2), 0.1);
+        } else {
+            graphGenerator = GraphGenerator.erdosRenyi(p_graph);
+        }
+
+        ConsensusSimulator network = new ConsensusSimulator(numNodes,
+                ConsensusSimulator.DEFAULT_NUM_TX, graphGenerator, p_malicious,
+                p_txDistribution, numRounds, new Random(seed));
+        EventSimulation simulation = new EventSimulation(network, seed);
+        simulation.setLatencyModel(
+                LatencyModel.shiftedExponential(20_000, 50_000));
+        simulation.setLossProbability(0.01);
+        simulation.setProcessingCost(100, 1);
+        simulation.setNumPartitions(numPartitions);
+        List<Set<Transaction>> results = simulation.run();
+
+        double seconds = simulation.getWallTimeNanos() / 1e9;
+        System.out.println("Seed: " + seed);
+        System.out.println(network.countConsensus(results) + " out of "
+                + network.getNumCompliantNodes()
+                + " of nodes reach consensus");
+        System.out.println(String.format(Locale.ROOT,
+                "time to consensus = %.3f ms, messages = %d (%d lost), "
+                        + "candidates = %d, bytes = %d",
+                simulation.getTimeToConsensus() / 1e3,
+                simulation.getMessagesSent(), simulation.getMessagesLost(),
+                simulation.getCandidatesDelivered(),
+                simulation.getBytesSent()));
+        System.out.println(String.format(Locale.ROOT,
+                "%d events in %.3f s (%.0f events/s)",
+                simulation.getEventsProcessed(), seconds,
+                simulation.getEventsProcessed() / seconds));
+    }
+}
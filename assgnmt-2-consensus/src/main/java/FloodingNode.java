@@ -0,0 +1,44 @@
+import java.util.SplittableRandom;
+
+/**
+ * {@code FloodingNode} floods its followers: after the handshake, every
+ * round it proposes {@code floodSize} random transaction ids followed by
+ * every valid transaction it ever heard of.
+ * <p/>
+ * The random ids are invalid, so they only cost bandwidth before they are
+ * dropped on arrival. The replayed valid ids are delivered over and over and
+ * cost the followers the time to process and discard them.
+ *
+ * @since 10/18/26
+ */
+public class FloodingNode extends AdversaryNode {
+
+    private final int floodSize;
+
+    private final SplittableRandom random;
+
+    /**
+     * @param floodSize       number of random ids proposed per round
+     * @param handshakeRounds number of rounds in which the node proposes a
+     *                        single transaction before flooding
+     * @param seed            seed of the random ids
+     */
+    public FloodingNode(int floodSize, int handshakeRounds, long seed) {
+        super(handshakeRounds);
+        this.floodSize = floodSize;
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    protected int[] attack(int round) {
+        IntHashSet heard = getHeard();
+        int[] ids = new int[floodSize + heard.size()];
+        for (int i = 0; i < floodSize; i++) {
+            ids[i] = random.nextInt();
+        }
+        int[] next = {floodSize};
+        heard.forEach(id -> ids[next[0]++] = id);
+
+        return ids;
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * {@code GraphGenerator} creates the follow graph of a simulated network.
+ * <p/>
+ * All generators run in time linear in the number of nodes and edges, so
+ * setting up networks of millions of nodes isn't dominated by visiting all
+ * node pairs.
+ *
+ * @since 10/18/26
+ */
+public interface GraphGenerator {
+
+    /**
+     * @return a new graph of {@code numNodes} nodes whose randomness is
+     * fully determined by {@code random}
+     */
+    FollowGraph generate(int numNodes, Random random);
+
+    /**
+     * Every node follows every other node with probability {@code p_graph}.
+     * <p/>
+     * Instead of drawing a number for every node pair, the gap to the next
+     * edge of a node is drawn from the geometric distribution, which takes
+     * one draw per edge plus one per node.
+     */
+    static GraphGenerator erdosRenyi(double p_graph) {
+        return (numNodes, random) -> {
+            int[] offsets = new int[numNodes + 1];
+            if (numNodes < 2 || p_graph <= 0) {
+                return new FollowGraph(offsets, new int[0]);
+            }
+
+            double expected = p_graph * numNodes * (numNodes - 1.0);
+            int[] ids = new int[(int) Math.min(Integer.MAX_VALUE - 8,
+                    expected + 4 * Math.sqrt(expected) + 16)];
+            int size = 0;
+            double logQ = Math.log1p(-Math.min(p_graph, 1));
+            for (int i = 0; i < numNodes; i++) {
+                // k enumerates the other nodes, skipping i itself
+                for (long k = -1; ; ) {
+                    k += p_graph >= 1 ? 1 : 1 + (long) Math.floor(
+                            Math.log1p(-random.nextDouble()) / logQ);
+                    if (k >= numNodes - 1) {
+                        break;
+                    }
+                    if (size == ids.length) {
+                        ids = Arrays.copyOf(ids, size + (size >> 1));
+                    }
+                    ids[size++] = k < i ? (int) k : (int) k + 1;
+                }
+                offsets[i + 1] = size;
+            }
+
+            return new FollowGraph(offsets, Arrays.copyOf(ids, size));
+        };
+    }
+
+    /**
+     * Barabasi-Albert preferential attachment: every new node links to
+     * {@code numLinks} distinct existing nodes chosen with probability
+     * proportional to their degree, giving a power law degree distribution
+     * with a few highly connected hubs. Links are followed in both
+     * directions, so the mean number of followees is about {@code 2 *
+     * numLinks}.
+     */
+    static GraphGenerator scaleFree(int numLinks) {
+        if (numLinks < 1) {
+            throw new IllegalArgumentException("numLinks must be positive");
+        }
+
+        return (numNodes, random) -> {
+            int seedNodes = Math.min(numNodes, numLinks + 1);
+            long maxLinks = (long) seedNodes * (seedNodes - 1) / 2
+                    + (long) (numNodes - seedNodes) * numLinks;
+            if (2 * maxLinks > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("too many edges");
+            }
+
+            // every link end is appended to ends, so picking a uniform
+            // entry picks a node proportionally to its degree
+            int[] ends = new int[(int) (2 * maxLinks)];
+            int numEnds = 0;
+            for (int i = 0; i < seedNodes; i++) {
+                for (int j = 0; j < i; j++) {
+                    ends[numEnds++] = i;
+                    ends[numEnds++] = j;
+                }
+            }
+
+            int[] targets = new int[numLinks];
+            for (int i = seedNodes; i < numNodes; i++) {
+                int numTargets = 0;
+                while (numTargets < numLinks) {
+                    int target = ends[random.nextInt(numEnds)];
+                    boolean duplicate = false;
+                    for (int t = 0; t < numTargets; t++) {
+                        duplicate |= targets[t] == target;
+                    }
+                    if (!duplicate) {
+                        targets[numTargets++] = target;
+                    }
+                }
+                for (int t = 0; t < numLinks; t++) {
+                    ends[numEnds++] = i;
+                    ends[numEnds++] = targets[t];
+                }
+            }
+
+            // follow every link in both directions
+            int[] from = new int[numEnds];
+            int[] to = new int[numEnds];
+            for (int e = 0; e < numEnds; e += 2) {
+                from[e] = ends[e];
+                to[e] = ends[e + 1];
+                from[e + 1] = ends[e + 1];
+                to[e + 1] = ends[e];
+            }
+
+            return FollowGraph.fromEdges(numNodes, from, to, numEnds);
+        };
+    }
+
+    /**
+     * Watts-Strogatz small world: every node follows its {@code numFollowees}
+     * nearest neighbours on a ring, half on either side, and each of these
+     * edges is rewired to a uniformly random node with probability {@code
+     * p_rewire}. A little rewiring keeps the high clustering of the ring
+     * while cutting the diameter down to that of a random graph.
+     */
+    static GraphGenerator smallWorld(int numFollowees, double p_rewire) {
+        if (numFollowees < 2 || numFollowees % 2 != 0) {
+            throw new IllegalArgumentException(
+                    "numFollowees must be even and at least 2");
+        }
+
+        return (numNodes, random) -> {
+            if (numFollowees >= numNodes - 1) {
+                throw new IllegalArgumentException(
+                        "numFollowees must be less than numNodes - 1");
+            }
+
+            int[] offsets = new int[numNodes + 1];
+            int[] ids = new int[numNodes * numFollowees];
+            int[] row = new int[numFollowees];
+            for (int i = 0; i < numNodes; i++) {
+                for (int d = 1; d <= numFollowees / 2; d++) {
+                    row[2 * d - 2] = (i + d) % numNodes;
+                    row[2 * d - 1] = (i - d + numNodes) % numNodes;
+                }
+                for (int k = 0; k < numFollowees; k++) {
+                    if (random.nextDouble() >= p_rewire) {
+                        continue;
+                    }
+
+                    // rewire to a node which isn't i or already followed
+                    int target;
+                    boolean taken;
+                    do {
+                        target = random.nextInt(numNodes);
+                        taken = target == i;
+                        for (int f = 0; f < numFollowees; f++) {
+                            taken |= row[f] == target;
+                        }
+                    } while (taken);
+                    row[k] = target;
+                }
+
+                Arrays.sort(row);
+                System.arraycopy(row, 0, ids, i * numFollowees, numFollowees);
+                offsets[i + 1] = (i + 1) * numFollowees;
+            }
+
+            return new FollowGraph(offsets, ids);
+        };
+    }
+}
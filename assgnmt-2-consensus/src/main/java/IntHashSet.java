@@ -0,0 +1,153 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * {@code IntHashSet} is a set of primitive {@code int}s using open addressing
+ * with linear probing. Unlike a {@code HashSet<Integer>} it doesn't box its
+ * elements or allocate an entry per element.
+ * <p/>
+ * Since transaction ids are arbitrary ints, {@code 0} marks an empty slot and
+ * membership of {@code 0} itself is tracked separately.
+ *
+ * @since 10/18/26
+ */
+public class IntHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+
+    private int mask;
+
+    private int size;
+
+    private boolean containsZero;
+
+    public IntHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of elements the set can hold without
+     *                     resizing
+     */
+    public IntHashSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return true if {@code key} wasn't already in the set
+     */
+    public boolean add(int key) {
+        if (key == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        if (++size * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(int key) {
+        if (key == 0) {
+            return containsZero;
+        }
+
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    /**
+     * Calls {@code action} for every element of the set
+     */
+    public void forEach(IntConsumer action) {
+        if (containsZero) {
+            action.accept(0);
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] array = new int[size];
+        int i = 0;
+        if (containsZero) {
+            array[i++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                array[i++] = key;
+            }
+        }
+
+        return array;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        keys = new int[capacity];
+        mask = capacity - 1;
+        for (int key : oldKeys) {
+            if (key != 0) {
+                int slot = mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of {@code key} since sequential ids would otherwise
+     * cluster in neighbouring slots
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,246 @@
+import java.util.Arrays;
+
+/**
+ * {@code InvertibleBloomFilter} is an invertible Bloom lookup table of
+ * transaction ids used to reconcile the transaction sets of two nodes.
+ * <p/>
+ * Both nodes encode their sets into filters of the same size. Subtracting
+ * one filter from the other cancels out the common ids, and if the
+ * remaining difference is small enough compared to the number of cells, it
+ * can be decoded by repeatedly peeling off cells which hold a single id.
+ * The size of a filter only depends on the expected size of the difference,
+ * not on the size of the sets.
+ * <p/>
+ * Every id is stored in {@link #NUM_HASHES} cells, one in each of as many
+ * equally sized partitions of the table. A cell holds a count, the XOR of
+ * its ids and the XOR of their checksums.
+ *
+ * @since 10/18/26
+ */
+public class InvertibleBloomFilter {
+
+    public static final int NUM_HASHES = 3;
+
+    /**
+     * Size of a cell on the wire: count, id sum and checksum sum
+     */
+    public static final int CELL_BYTES = 12;
+
+    private static final int CHECKSUM_SEED = 0x5bd1e995;
+
+    private static final int[] SEEDS = {0x3c6ef372, 0x1b873593, 0x7f4a7c15};
+
+    private static final int MIN_HASH_SEED = 0x27d4eb2f;
+
+    private final int[] counts;
+
+    private final int[] idSums;
+
+    private final int[] checksumSums;
+
+    private final int partitionSize;
+
+    /**
+     * @param numCells number of cells, rounded up to a multiple of {@link
+     *                 #NUM_HASHES}
+     */
+    public InvertibleBloomFilter(int numCells) {
+        partitionSize = Math.max(1, (numCells + NUM_HASHES - 1) / NUM_HASHES);
+        int size = partitionSize * NUM_HASHES;
+        counts = new int[size];
+        idSums = new int[size];
+        checksumSums = new int[size];
+    }
+
+    /**
+     * Creates a filter holding all of {@code ids}
+     */
+    public static InvertibleBloomFilter of(int[] ids, int numCells) {
+        InvertibleBloomFilter filter = new InvertibleBloomFilter(numCells);
+        for (int id : ids) {
+            filter.add(id);
+        }
+
+        return filter;
+    }
+
+    public int getNumCells() {
+        return counts.length;
+    }
+
+    /**
+     * @return the size of the filter on the wire
+     */
+    public int getNumBytes() {
+        return counts.length * CELL_BYTES;
+    }
+
+    public void add(int id) {
+        update(id, 1);
+    }
+
+    public void remove(int id) {
+        update(id, -1);
+    }
+
+    private void update(int id, int count) {
+        int checksum = hash(id, CHECKSUM_SEED);
+        for (int k = 0; k < NUM_HASHES; k++) {
+            int cell = cell(id, k);
+            counts[cell] += count;
+            idSums[cell] ^= id;
+            checksumSums[cell] ^= checksum;
+        }
+    }
+
+    /**
+     * @return a new filter holding the ids of this filter minus the ids of
+     * {@code other}, which must be of the same size
+     */
+    public InvertibleBloomFilter subtract(InvertibleBloomFilter other) {
+        if (other.counts.length != counts.length) {
+            throw new IllegalArgumentException("filter sizes differ");
+        }
+
+        InvertibleBloomFilter difference =
+                new InvertibleBloomFilter(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            difference.counts[i] = counts[i] - other.counts[i];
+            difference.idSums[i] = idSums[i] ^ other.idSums[i];
+            difference.checksumSums[i] =
+                    checksumSums[i] ^ other.checksumSums[i];
+        }
+
+        return difference;
+    }
+
+    /**
+     * Decodes a difference filter, emptying it in the process.
+     *
+     * @param added   receives the ids only present in the minuend
+     * @param removed receives the ids only present in the subtrahend, may be
+     *                null
+     * @return true if the difference was decoded completely, false if the
+     * filter is too small for it
+     */
+    public boolean decode(IntHashSet added, IntHashSet removed) {
+        int[] queue = new int[counts.length];
+        int queueSize = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (isPure(i)) {
+                queue[queueSize++] = i;
+            }
+        }
+
+        while (queueSize > 0) {
+            int cell = queue[--queueSize];
+            if (!isPure(cell)) {
+                continue;
+            }
+
+            int id = idSums[cell];
+            int count = counts[cell];
+            if (count == 1) {
+                added.add(id);
+            } else if (removed != null) {
+                removed.add(id);
+            }
+
+            int checksum = hash(id, CHECKSUM_SEED);
+            for (int k = 0; k < NUM_HASHES; k++) {
+                int other = cell(id, k);
+                counts[other] -= count;
+                idSums[other] ^= id;
+                checksumSums[other] ^= checksum;
+                if (isPure(other)) {
+                    if (queueSize == queue.length) {
+                        queue = Arrays.copyOf(queue, queueSize * 2);
+                    }
+                    queue[queueSize++] = other;
+                }
+            }
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0 || idSums[i] != 0 || checksumSums[i] != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes the bottom-{@code k} MinHash signature of a set, which lets
+     * two nodes estimate the size of their difference before choosing the
+     * size of their filters. The signature takes {@code 4 * k} bytes on the
+     * wire.
+     *
+     * @return the up to {@code k} smallest hashes of {@code ids}, sorted
+     */
+    public static int[] minHashes(int[] ids, int k) {
+        int[] hashes = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            // flip the sign bit so that signed order is unsigned order
+            hashes[i] = hash(ids[i], MIN_HASH_SEED) ^ Integer.MIN_VALUE;
+        }
+        Arrays.sort(hashes);
+
+        return hashes.length > k ? Arrays.copyOf(hashes, k) : hashes;
+    }
+
+    /**
+     * Estimates the size of the symmetric difference of two sets from their
+     * sizes and {@link #minHashes(int[], int) MinHash signatures}.
+     */
+    public static int estimateDifference(int[] minHashes, int size,
+                                         int[] otherMinHashes, int otherSize) {
+        int k = Math.max(minHashes.length, otherMinHashes.length);
+        int a = 0;
+        int b = 0;
+        int common = 0;
+        int union = 0;
+        // walk the k smallest hashes of the union
+        while (union < k && (a < minHashes.length
+                || b < otherMinHashes.length)) {
+            if (b == otherMinHashes.length || a < minHashes.length
+                    && minHashes[a] < otherMinHashes[b]) {
+                a++;
+            } else if (a == minHashes.length
+                    || otherMinHashes[b] < minHashes[a]) {
+                b++;
+            } else {
+                a++;
+                b++;
+                common++;
+            }
+            union++;
+        }
+        if (union == 0) {
+            return 0;
+        }
+
+        // |A ^ B| = (|A| + |B|) (1 - J) / (1 + J) for the Jaccard index J
+        double jaccard = (double) common / union;
+        return (int) Math.ceil((size + otherSize)
+                * (1 - jaccard) / (1 + jaccard));
+    }
+
+    private boolean isPure(int cell) {
+        return (counts[cell] == 1 || counts[cell] == -1)
+                && checksumSums[cell] == hash(idSums[cell], CHECKSUM_SEED);
+    }
+
+    private int cell(int id, int k) {
+        return k * partitionSize
+                + ((hash(id, SEEDS[k]) & Integer.MAX_VALUE) % partitionSize);
+    }
+
+    private static int hash(int id, int seed) {
+        int h = (id ^ seed) * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.SplittableRandom;
+
+/**
+ * {@code LatencyModel} draws the delay of a message on a link of the
+ * simulated network. All times are in microseconds.
+ *
+ * @since 10/18/26
+ */
+public interface LatencyModel {
+
+    /**
+     * @return the delay of a message sent by node {@code from} to node {@code
+     * to}, never less than {@link #getMinLatency()}
+     */
+    long sample(int from, int to, SplittableRandom random);
+
+    /**
+     * @return the lower bound of every sampled delay
+     */
+    long getMinLatency();
+
+    /**
+     * Every message takes {@code latency} microseconds
+     */
+    static LatencyModel constant(long latency) {
+        return new LatencyModel() {
+            public long sample(int from, int to, SplittableRandom random) {
+                return latency;
+            }
+
+            public long getMinLatency() {
+                return latency;
+            }
+        };
+    }
+
+    /**
+     * Delays are uniformly distributed between {@code min} inclusive and
+     * {@code max} exclusive
+     */
+    static LatencyModel uniform(long min, long max) {
+        if (max <= min) {
+            throw new IllegalArgumentException("max must be greater than min");
+        }
+
+        return new LatencyModel() {
+            public long sample(int from, int to, SplittableRandom random) {
+                return random.nextLong(min, max);
+            }
+
+            public long getMinLatency() {
+                return min;
+            }
+        };
+    }
+
+    /**
+     * Delays are {@code min} plus an exponentially distributed queueing
+     * delay, so that the mean delay is {@code mean}. This gives the long
+     * tail of real networks.
+     */
+    static LatencyModel shiftedExponential(long min, long mean) {
+        if (mean < min) {
+            throw new IllegalArgumentException("mean must be at least min");
+        }
+
+        return new LatencyModel() {
+            public long sample(int from, int to, SplittableRandom random) {
+                return min + (long) (-Math.log(1 - random.nextDouble())
+                        * (mean - min));
+            }
+
+            public long getMinLatency() {
+                return min;
+            }
+        };
+    }
+}
@@ -21,4 +21,19 @@ public class MaliciousNode implements Node {
     public void receiveFromFollowees(Set<Candidate> candidates) {
         return;
     }
+
+    @Override
+    public void setFollowees(int[] followees, int numNodes) {
+        return;
+    }
+
+    @Override
+    public int[] sendTxIdsToFollowers() {
+        return new int[0];
+    }
+
+    @Override
+    public void receiveFromFollowees(CandidateBuffer candidates) {
+        return;
+    }
 }
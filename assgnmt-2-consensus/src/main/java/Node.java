@@ -1,3 +1,4 @@
+import java.util.HashSet;
 import java.util.Set;
 
 public interface Node {
@@ -30,4 +31,80 @@ public interface Node {
      * receive candidates from other nodes.
      */
     void receiveFromFollowees(Set<Candidate> candidates);
-}
\ No newline at end of file
+
+    /**
+     * Sparse form of {@link #setFollowees(boolean[])}.
+     *
+     * @param followees sorted ids of the nodes this node follows, the array
+     *                  is shared and must not be modified
+     * @param numNodes  the number of nodes in the network
+     */
+    default void setFollowees(int[] followees, int numNodes) {
+        boolean[] mask = new boolean[numNodes];
+        for (int i : followees) {
+            mask[i] = true;
+        }
+        setFollowees(mask);
+    }
+
+    /**
+     * @return the transactions upon which this node believes consensus has
+     * been reached. Called by the simulators once the rounds are over,
+     * defaults to {@link #sendToFollowers()}.
+     */
+    default Set<Transaction> getConsensus() {
+        return sendToFollowers();
+    }
+
+    /**
+     * @return true if this node doesn't expect its proposals to change any
+     * more, e.g. once it's past a handshake during which it deliberately
+     * proposes the same transactions. The simulator only considers a node
+     * stable if it's quiescent.
+     */
+    default boolean isQuiescent() {
+        return true;
+    }
+
+    /**
+     * Opts this node into set reconciliation for the present round. Called
+     * after {@link #sendTxIdsToFollowers()}; on links to followers which
+     * opted in as well, the simulator may reconcile the whole sets of both
+     * nodes instead of pushing the proposals. Defaults to null.
+     *
+     * @return ids of all the transactions this node knows of, or null to
+     * send proposals as usual
+     */
+    default int[] reconciliationSet() {
+        return null;
+    }
+
+    /**
+     * Bulk form of {@link #sendToFollowers()}.
+     *
+     * @return ids of the transactions to send to my followers
+     */
+    default int[] sendTxIdsToFollowers() {
+        Set<Transaction> transactions = sendToFollowers();
+        int[] ids = new int[transactions.size()];
+        int i = 0;
+        for (Transaction tx : transactions) {
+            ids[i++] = tx.id;
+        }
+
+        return ids;
+    }
+
+    /**
+     * Bulk form of {@link #receiveFromFollowees(Set)}. The buffer is only
+     * valid for the duration of the call.
+     */
+    default void receiveFromFollowees(CandidateBuffer candidates) {
+        Set<Candidate> set = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            set.add(new Candidate(new Transaction(candidates.getTxId(i)),
+                    candidates.getSender(i)));
+        }
+        receiveFromFollowees(set);
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.Locale;
+
+/**
+ * {@code ResourceUsage} sums the cost of the callbacks of a class of nodes,
+ * such as all compliant nodes, over a whole simulation as recorded by
+ * {@link ConsensusSimulator} when metrics are enabled.
+ * <p/>
+ * Received bytes count the raw proposals of the senders including invalid
+ * transaction ids, which the simulator drops before delivering them.
+ *
+ * @since 10/18/26
+ */
+public class ResourceUsage {
+
+    private long sendNanos;
+
+    private long receiveNanos;
+
+    private long allocatedBytes;
+
+    private long messagesReceived;
+
+    private long candidatesReceived;
+
+    private long bytesReceived;
+
+    void add(long sendNanos, long receiveNanos, long allocatedBytes,
+             long messagesReceived, long candidatesReceived,
+             long bytesReceived) {
+        this.sendNanos += sendNanos;
+        this.receiveNanos += receiveNanos;
+        this.allocatedBytes += allocatedBytes;
+        this.messagesReceived += messagesReceived;
+        this.candidatesReceived += candidatesReceived;
+        this.bytesReceived += bytesReceived;
+    }
+
+    /**
+     * @return the time spent in {@code sendTxIdsToFollowers}
+     */
+    public long getSendNanos() {
+        return sendNanos;
+    }
+
+    /**
+     * @return the time spent in {@code receiveFromFollowees}
+     */
+    public long getReceiveNanos() {
+        return receiveNanos;
+    }
+
+    /**
+     * @return the heap bytes allocated by the node callbacks, {@code -1} if
+     * not supported
+     */
+    public long getAllocatedBytes() {
+        return ConsensusSimulator.isAllocationMeasured() ? allocatedBytes : -1;
+    }
+
+    /**
+     * @return the number of non-empty messages received from followees
+     */
+    public long getMessagesReceived() {
+        return messagesReceived;
+    }
+
+    /**
+     * @return the number of valid (sender, transaction) candidates delivered
+     */
+    public long getCandidatesReceived() {
+        return candidatesReceived;
+    }
+
+    /**
+     * @return the estimated bytes received over all links
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "send = %.3f ms, receive = %.3f ms, allocated = %d bytes, "
+                        + "messages = %d, candidates = %d, received = %d bytes",
+                sendNanos / 1e6, receiveNanos / 1e6, getAllocatedBytes(),
+                messagesReceived, candidatesReceived, bytesReceived);
+    }
+}
@@ -0,0 +1,131 @@
+import java.util.Locale;
+
+/**
+ * {@code RoundMetrics} holds the measurements of a single simulation round
+ * as recorded by {@link ConsensusSimulator}.
+ * <p/>
+ * Callback times and allocated bytes are summed over all nodes. Allocated
+ * bytes are only measured if the JVM supports thread allocation counters,
+ * otherwise they are reported as {@code -1}.
+ *
+ * @since 10/18/26
+ */
+public class RoundMetrics {
+
+    private final int round;
+
+    private final long candidatesDelivered;
+
+    private final int minTxsProposed;
+
+    private final int maxTxsProposed;
+
+    private final double meanTxsProposed;
+
+    private final long sendNanos;
+
+    private final long receiveNanos;
+
+    private final long allocatedBytes;
+
+    private final long bytesSent;
+
+    private final long wallTimeNanos;
+
+    public RoundMetrics(int round, long candidatesDelivered,
+                        int minTxsProposed, int maxTxsProposed,
+                        double meanTxsProposed, long sendNanos,
+                        long receiveNanos, long allocatedBytes,
+                        long bytesSent, long wallTimeNanos) {
+        this.round = round;
+        this.candidatesDelivered = candidatesDelivered;
+        this.minTxsProposed = minTxsProposed;
+        this.maxTxsProposed = maxTxsProposed;
+        this.meanTxsProposed = meanTxsProposed;
+        this.sendNanos = sendNanos;
+        this.receiveNanos = receiveNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.bytesSent = bytesSent;
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * @return the number of (sender, transaction) candidates delivered to
+     * all the nodes
+     */
+    public long getCandidatesDelivered() {
+        return candidatesDelivered;
+    }
+
+    /**
+     * @return the least number of unique valid transactions proposed by a
+     * node
+     */
+    public int getMinTxsProposed() {
+        return minTxsProposed;
+    }
+
+    /**
+     * @return the largest number of unique valid transactions proposed by a
+     * node
+     */
+    public int getMaxTxsProposed() {
+        return maxTxsProposed;
+    }
+
+    /**
+     * @return the mean number of unique valid transactions proposed per node
+     */
+    public double getMeanTxsProposed() {
+        return meanTxsProposed;
+    }
+
+    /**
+     * @return the time spent in {@code sendTxIdsToFollowers} by all nodes
+     */
+    public long getSendNanos() {
+        return sendNanos;
+    }
+
+    /**
+     * @return the time spent in {@code receiveFromFollowees} by all nodes
+     */
+    public long getReceiveNanos() {
+        return receiveNanos;
+    }
+
+    /**
+     * @return the heap bytes allocated by the node callbacks, {@code -1} if
+     * not supported
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return the estimated bytes sent over all links
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "round %d: candidates = %d, txs proposed = %d/%.1f/%d "
+                        + "(min/mean/max), send = %.3f ms, "
+                        + "receive = %.3f ms, allocated = %d bytes, "
+                        + "sent = %d bytes, wall time = %.3f ms",
+                round, candidatesDelivered, minTxsProposed,
+                meanTxsProposed, maxTxsProposed, sendNanos / 1e6,
+                receiveNanos / 1e6, allocatedBytes, bytesSent,
+                wallTimeNanos / 1e6);
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * {@code RunningStats} accumulates the mean and variance of a series of
+ * samples in a single pass using Welford's algorithm.
+ *
+ * @since 10/18/26
+ */
+public class RunningStats {
+
+    /**
+     * Two-sided 95% critical values of Student's t distribution for 1 to 30
+     * degrees of freedom
+     */
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262,
+            2.228, 2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101,
+            2.093, 2.086, 2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052,
+            2.048, 2.045, 2.042};
+
+    private static final double Z_95 = 1.960;
+
+    private long count;
+
+    private double mean;
+
+    private double sumOfSquares;
+
+    public void add(double sample) {
+        count++;
+        double delta = sample - mean;
+        mean += delta / count;
+        sumOfSquares += delta * (sample - mean);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return the sample variance, 0 for less than two samples
+     */
+    public double getVariance() {
+        return count < 2 ? 0 : sumOfSquares / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return half width of the 95% confidence interval of the mean
+     */
+    public double getConfidenceInterval95() {
+        if (count < 2) {
+            return 0;
+        }
+
+        long df = count - 1;
+        double t = df <= T_95.length ? T_95[(int) df - 1] : Z_95;
+        return t * getStandardDeviation() / Math.sqrt(count);
+    }
+}
@@ -0,0 +1,71 @@
+import java.util.Arrays;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * {@code SelectiveForwardingNode} looks like a compliant node but forwards
+ * only some of the transactions it hears of. Each new transaction is
+ * forwarded once with probability {@code p_forward} and withheld for good
+ * otherwise, so {@code p_forward = 0} gives a black hole which gained the
+ * trust of its followers and then stays silent.
+ *
+ * @since 10/18/26
+ */
+public class SelectiveForwardingNode extends AdversaryNode {
+
+    private final double p_forward;
+
+    private final SplittableRandom random;
+
+    private final IntHashSet decided = new IntHashSet();
+
+    private int[] forward = new int[16];
+
+    private int numForward;
+
+    /**
+     * @param p_forward       probability that a transaction is forwarded
+     * @param handshakeRounds number of rounds in which the node proposes a
+     *                        single transaction before forwarding
+     * @param seed            seed of the forwarding decisions
+     */
+    public SelectiveForwardingNode(double p_forward, int handshakeRounds,
+                                   long seed) {
+        super(handshakeRounds);
+        this.p_forward = p_forward;
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * The initial transactions are decided on like received ones
+     */
+    @Override
+    public void setPendingTransaction(Set<Transaction> pendingTransactions) {
+        super.setPendingTransaction(pendingTransactions);
+        for (Transaction tx : pendingTransactions) {
+            decide(tx.id);
+        }
+    }
+
+    @Override
+    protected int[] attack(int round) {
+        int[] ids = Arrays.copyOf(forward, numForward);
+        numForward = 0;
+        return ids;
+    }
+
+    @Override
+    protected void hear(int sender, int txId) {
+        super.hear(sender, txId);
+        decide(txId);
+    }
+
+    private void decide(int txId) {
+        if (decided.add(txId) && random.nextDouble() < p_forward) {
+            if (numForward == forward.length) {
+                forward = Arrays.copyOf(forward, numForward * 2);
+            }
+            forward[numForward++] = txId;
+        }
+    }
+}
@@ -4,8 +4,7 @@
 // test your nodes. You will want to try creating some deviant nodes and
 // mixing them in the network to fully test.
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
@@ -16,7 +15,10 @@ public class Simulation {
         // There are four required command line arguments: p_graph (.1, .2, .3),
         // p_malicious (.15, .30, .45), p_txDistribution (.01, .05, .10),
         // and numRounds (10, 20). You should try to test your CompliantNode
-        // code for all 3x3x3x2 = 54 combinations.
+        // code for all 3x3x3x2 = 54 combinations. An optional fifth argument
+        // seeds the simulation so that a run can be reproduced, an optional
+        // sixth argument "delta" enables delta gossip on compliant nodes, and
+        // "reconcile" additionally reconciles their sets with IBLTs.
 
         int numNodes = 100;
         double p_graph = Double.parseDouble(
@@ -28,103 +30,24 @@ public class Simulation {
         int numRounds = Integer.parseInt(
                 args[3]); // number of simulation rounds your nodes will run for
 
-        // pick which nodes are malicious and which are compliant
-        Node[] nodes = new Node[numNodes];
-        for (int i = 0; i < numNodes; i++) {
-            if (Math.random() < p_malicious)
-                // When you are ready to try testing with malicious nodes, replace the
-                // instantiation below with an instantiation of a MaliciousNode
-                nodes[i] =
-                        new MaliciousNode(p_graph, p_malicious, p_txDistribution,
-                                numRounds);
-            else
-                nodes[i] = new CompliantNode(p_graph, p_malicious,
-                        p_txDistribution, numRounds);
-        }
-
-
-        // initialize random follow graph
-        boolean[][] followees =
-                new boolean[numNodes][numNodes]; // followees[i][j] is true iff i follows j
-        for (int i = 0; i < numNodes; i++) {
-            for (int j = 0; j < numNodes; j++) {
-                if (i == j) continue;
-                if (Math.random() < p_graph) { // p_graph is .1, .2, or .3
-                    followees[i][j] = true;
-                }
-            }
-        }
-
-        // notify all nodes of their followees
-        for (int i = 0; i < numNodes; i++)
-            nodes[i].setFollowees(followees[i]);
-
-        // initialize a set of 500 valid Transactions with random ids
-        int numTx = 500;
-        HashSet<Integer> validTxIds = new HashSet<Integer>();
-        Random random = new Random();
-        for (int i = 0; i < numTx; i++) {
-            int r = random.nextInt();
-            validTxIds.add(r);
-        }
-
-
-        // distribute the 500 Transactions throughout the nodes, to initialize
-        // the starting state of Transactions each node has heard. The distribution
-        // is random with probability p_txDistribution for each Transaction-Node pair.
-        for (int i = 0; i < numNodes; i++) {
-            HashSet<Transaction> pendingTransactions =
-                    new HashSet<Transaction>();
-            for (Integer txID : validTxIds) {
-                if (Math.random() < p_txDistribution) // p_txDistribution is .01, .05, or .10.
-                    pendingTransactions.add(new Transaction(txID));
-            }
-            nodes[i].setPendingTransaction(pendingTransactions);
-        }
-
-
-        // Simulate for numRounds times
-        for (int round =
-             0; round < numRounds; round++) { // numRounds is either 10 or 20
-
-            // gather all the proposals into a map. The key is the index of the node receiving
-            // proposals. The value is an ArrayList containing 1x2 Integer arrays. The first
-            // element of each array is the id of the transaction being proposed and the second
-            // element is the index # of the node proposing the transaction.
-            HashMap<Integer, Set<Candidate>> allProposals = new HashMap<>();
-
-            for (int i = 0; i < numNodes; i++) {
-                Set<Transaction> proposals = nodes[i].sendToFollowers();
-                for (Transaction tx : proposals) {
-                    if (!validTxIds.contains(tx.id))
-                        continue; // ensure that each tx is actually valid
-
-                    for (int j = 0; j < numNodes; j++) {
-                        if (!followees[j][i])
-                            continue; // tx only matters if j follows i
-
-                        if (!allProposals.containsKey(j)) {
-                            Set<Candidate> candidates = new HashSet<>();
-                            allProposals.put(j, candidates);
-                        }
-
-                        Candidate candidate = new Candidate(tx, i);
-                        allProposals.get(j).add(candidate);
-                    }
-
-                }
-            }
-
-            // Distribute the Proposals to their intended recipients as Candidates
-            for (int i = 0; i < numNodes; i++) {
-                if (allProposals.containsKey(i))
-                    nodes[i].receiveFromFollowees(allProposals.get(i));
-            }
-        }
+        long seed = args.length > 4
+                ? Long.parseLong(args[4]) : new Random().nextLong();
+        System.out.println("Seed: " + seed);
+
+        ConsensusSimulator simulator = new ConsensusSimulator(numNodes,
+                p_graph, p_malicious, p_txDistribution, numRounds,
+                new Random(seed));
+        String gossip = args.length > 5 ? args[5] : "";
+        simulator.setDeltaGossip(
+                "delta".equals(gossip) || "reconcile".equals(gossip));
+        simulator.setReconciliation("reconcile".equals(gossip));
+        simulator.setMetricsEnabled(true);
+        simulator.setConvergenceDetection(2, false);
+        List<Set<Transaction>> results = simulator.run();
 
         // print results
         for (int i = 0; i < numNodes; i++) {
-            Set<Transaction> transactions = nodes[i].sendToFollowers();
+            Set<Transaction> transactions = results.get(i);
             System.out.println(
                     "Transaction ids that Node " + i + " believes consensus on:");
             for (Transaction tx : transactions)
@@ -133,6 +56,15 @@ public class Simulation {
             System.out.println();
         }
 
+        // print per-round metrics
+        for (RoundMetrics metrics : simulator.getRoundMetrics()) {
+            System.out.println(metrics);
+        }
+        System.out.println("Compliant nodes stable since round: "
+                + simulator.getConvergedRound());
+        System.out.println("Bytes sent: " + simulator.getBytesSent()
+                + ", failed reconciliations: "
+                + simulator.getReconciliationFailures());
     }
 }
 
@@ -0,0 +1,101 @@
+import java.util.Random;
+
+/**
+ * {@code SimulationConfig} holds the parameters of a single consensus
+ * simulation.
+ *
+ * @since 10/18/26
+ */
+public class SimulationConfig {
+
+    private final int numNodes;
+
+    private final double p_graph;
+
+    private final double p_malicious;
+
+    private final double p_txDistribution;
+
+    private final int numRounds;
+
+    /**
+     * @param numNodes         number of nodes in the network
+     * @param p_graph          prob. that an edge will exist
+     * @param p_malicious      prob. that a node will be set to be malicious
+     * @param p_txDistribution probability of assigning an initial transaction
+     *                         to each node
+     * @param numRounds        number of simulation rounds the nodes will run
+     *                         for
+     */
+    public SimulationConfig(int numNodes, double p_graph, double p_malicious,
+                            double p_txDistribution, int numRounds) {
+        this.numNodes = numNodes;
+        this.p_graph = p_graph;
+        this.p_malicious = p_malicious;
+        this.p_txDistribution = p_txDistribution;
+        this.numRounds = numRounds;
+    }
+
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    public double getGraphProbability() {
+        return p_graph;
+    }
+
+    public double getMaliciousProbability() {
+        return p_malicious;
+    }
+
+    public double getTxDistributionProbability() {
+        return p_txDistribution;
+    }
+
+    public int getNumRounds() {
+        return numRounds;
+    }
+
+    /**
+     * Creates a simulator for this configuration whose randomness is fully
+     * determined by {@code seed}
+     */
+    public ConsensusSimulator newSimulator(long seed) {
+        return new ConsensusSimulator(numNodes, p_graph, p_malicious,
+                p_txDistribution, numRounds, new Random(seed));
+    }
+
+    public boolean equals(Object other) {
+        if (other == null) {
+            return false;
+        }
+        if (getClass() != other.getClass()) {
+            return false;
+        }
+
+        SimulationConfig config = (SimulationConfig) other;
+        return numNodes == config.numNodes
+                && Double.compare(p_graph, config.p_graph) == 0
+                && Double.compare(p_malicious, config.p_malicious) == 0
+                && Double.compare(p_txDistribution,
+                config.p_txDistribution) == 0
+                && numRounds == config.numRounds;
+    }
+
+    public int hashCode() {
+        int hash = numNodes;
+        hash = 31 * hash + Double.hashCode(p_graph);
+        hash = 31 * hash + Double.hashCode(p_malicious);
+        hash = 31 * hash + Double.hashCode(p_txDistribution);
+        hash = 31 * hash + numRounds;
+        return hash;
+    }
+
+    public String toString() {
+        return "numNodes = " + numNodes
+                + ", p_graph = " + p_graph
+                + ", p_malicious = " + p_malicious
+                + ", p_txDistribution = " + p_txDistribution
+                + ", numRounds = " + numRounds;
+    }
+}
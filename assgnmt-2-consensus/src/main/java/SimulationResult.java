@@ -0,0 +1,81 @@
+/**
+ * {@code SimulationResult} is the outcome of a single consensus simulation.
+ * A compliant node reaches consensus if it ends up with all the valid
+ * transactions.
+ *
+ * @since 10/18/26
+ */
+public class SimulationResult {
+
+    private final SimulationConfig config;
+
+    private final long seed;
+
+    private final int numCompliantNodes;
+
+    private final int numConsensusNodes;
+
+    private final int convergedRound;
+
+    private final int roundsRun;
+
+    private final long wallTimeNanos;
+
+    public SimulationResult(SimulationConfig config, long seed,
+                            int numCompliantNodes, int numConsensusNodes,
+                            int convergedRound, int roundsRun,
+                            long wallTimeNanos) {
+        this.config = config;
+        this.seed = seed;
+        this.numCompliantNodes = numCompliantNodes;
+        this.numConsensusNodes = numConsensusNodes;
+        this.convergedRound = convergedRound;
+        this.roundsRun = roundsRun;
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    public SimulationConfig getConfig() {
+        return config;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getNumCompliantNodes() {
+        return numCompliantNodes;
+    }
+
+    public int getNumConsensusNodes() {
+        return numConsensusNodes;
+    }
+
+    /**
+     * @return the fraction of compliant nodes which reached consensus, 1 if
+     * there are no compliant nodes
+     */
+    public double getConsensusRate() {
+        return numCompliantNodes == 0
+                ? 1 : (double) numConsensusNodes / numCompliantNodes;
+    }
+
+    /**
+     * @return the round in which all compliant nodes became stable, -1 if
+     * they never did
+     */
+    public int getConvergedRound() {
+        return convergedRound;
+    }
+
+    /**
+     * @return the number of rounds actually run, less than configured if
+     * the simulation stopped early
+     */
+    public int getRoundsRun() {
+        return roundsRun;
+    }
+
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+}
@@ -0,0 +1,180 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@code SweepRunner} runs every combination of the simulation parameters
+ * for a number of seeds on a bounded thread pool.
+ * <p/>
+ * Each finished run is appended to a CSV file as soon as it completes. Once
+ * all runs are done, the mean, variance and 95% confidence interval of the
+ * consensus rate and wall time of every configuration are printed. All
+ * configurations are run with the same seeds, so differences between them
+ * aren't caused by different random graphs alone.
+ * <p/>
+ * Usage: {@code SweepRunner [numSeeds] [numThreads] [csvFile] [firstSeed]}
+ *
+ * @since 10/18/26
+ */
+public class SweepRunner {
+
+    private static final int NUM_NODES = 100;
+
+    private static final double[] P_GRAPH = {.1, .2, .3};
+
+    private static final double[] P_MALICIOUS = {.15, .30, .45};
+
+    private static final double[] P_TX_DISTRIBUTION = {.01, .05, .10};
+
+    private static final int[] NUM_ROUNDS = {10, 20};
+
+    private final int numThreads;
+
+    private final Map<SimulationConfig, RunningStats> consensusRates =
+            new LinkedHashMap<>();
+
+    private final Map<SimulationConfig, RunningStats> wallTimes =
+            new LinkedHashMap<>();
+
+    public SweepRunner(int numThreads) {
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * @return all 3x3x3x2 = 54 combinations of the assignment's parameters
+     */
+    public static List<SimulationConfig> defaultConfigs() {
+        List<SimulationConfig> configs = new ArrayList<>();
+        for (double p_graph : P_GRAPH) {
+            for (double p_malicious : P_MALICIOUS) {
+                for (double p_txDistribution : P_TX_DISTRIBUTION) {
+                    for (int numRounds : NUM_ROUNDS) {
+                        configs.add(new SimulationConfig(NUM_NODES, p_graph,
+                                p_malicious, p_txDistribution, numRounds));
+                    }
+                }
+            }
+        }
+
+        return configs;
+    }
+
+    /**
+     * Runs every configuration once for each of the seeds {@code firstSeed}
+     * to {@code firstSeed + numSeeds - 1} and writes the results to {@code
+     * csv} in order of completion, flushing each one. At most twice as many
+     * runs as there are threads are in flight at any time.
+     *
+     * @throws IllegalStateException if a run fails or {@code csv} can't be
+     *                               written
+     */
+    public void run(List<SimulationConfig> configs, long firstSeed,
+                    int numSeeds, PrintWriter csv)
+            throws InterruptedException {
+        for (SimulationConfig config : configs) {
+            consensusRates.put(config, new RunningStats());
+            wallTimes.put(config, new RunningStats());
+        }
+
+        csv.println("numNodes,p_graph,p_malicious,p_txDistribution,numRounds,"
+                + "seed,compliantNodes,consensusNodes,consensusRate,"
+                + "convergedRound,roundsRun,wallTimeMillis");
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            CompletionService<SimulationResult> completion =
+                    new ExecutorCompletionService<>(executor);
+            int numRuns = configs.size() * numSeeds;
+            int submitted = 0;
+            int maxInFlight = numThreads * 2;
+
+            for (int completed = 0; completed < numRuns; completed++) {
+                while (submitted < numRuns
+                        && submitted - completed < maxInFlight) {
+                    SimulationConfig config =
+                            configs.get(submitted / numSeeds);
+                    long seed = firstSeed + submitted % numSeeds;
+                    completion.submit(() -> Simulation2.run(config, seed));
+                    submitted++;
+                }
+
+                record(completion.take().get(), csv);
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void record(SimulationResult result, PrintWriter csv) {
+        SimulationConfig config = result.getConfig();
+        double wallTimeMillis = result.getWallTimeNanos() / 1e6;
+        consensusRates.get(config).add(result.getConsensusRate());
+        wallTimes.get(config).add(wallTimeMillis);
+
+        csv.println(String.format(Locale.ROOT,
+                "%d,%s,%s,%s,%d,%d,%d,%d,%.4f,%d,%d,%.3f",
+                config.getNumNodes(), config.getGraphProbability(),
+                config.getMaliciousProbability(),
+                config.getTxDistributionProbability(),
+                config.getNumRounds(), result.getSeed(),
+                result.getNumCompliantNodes(), result.getNumConsensusNodes(),
+                result.getConsensusRate(), result.getConvergedRound(),
+                result.getRoundsRun(), wallTimeMillis));
+
+        // flushes the run, so it isn't lost if the sweep is interrupted
+        if (csv.checkError()) {
+            throw new IllegalStateException("failed to write the CSV file");
+        }
+    }
+
+    /**
+     * Prints the statistics of every configuration
+     */
+    public void printSummary() {
+        for (Map.Entry<SimulationConfig, RunningStats> entry :
+                consensusRates.entrySet()) {
+            RunningStats rate = entry.getValue();
+            RunningStats time = wallTimes.get(entry.getKey());
+            System.out.println(entry.getKey());
+            System.out.println(String.format(Locale.ROOT,
+                    "  consensus rate: mean = %.4f, variance = %.6f, "
+                            + "95%% CI = +/- %.4f (n = %d)",
+                    rate.getMean(), rate.getVariance(),
+                    rate.getConfidenceInterval95(), rate.getCount()));
+            System.out.println(String.format(Locale.ROOT,
+                    "  wall time ms:   mean = %.3f, variance = %.3f, "
+                            + "95%% CI = +/- %.3f",
+                    time.getMean(), time.getVariance(),
+                    time.getConfidenceInterval95()));
+        }
+    }
+
+    public static void main(String[] args)
+            throws IOException, InterruptedException {
+        int numSeeds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int numThreads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        String csvFile = args.length > 2 ? args[2] : "sweep.csv";
+        long firstSeed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        SweepRunner runner = new SweepRunner(numThreads);
+        try (PrintWriter csv = new PrintWriter(
+                new BufferedWriter(new FileWriter(csvFile)))) {
+            runner.run(defaultConfigs(), firstSeed, numSeeds, csv);
+        }
+        runner.printSummary();
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * {@code SybilNode} is a member of a colluding group of identities. All
+ * members pass the handshake and then stay silent while pooling every
+ * transaction any of them hears of. In the release round all members
+ * propose the whole pool at once.
+ * <p/>
+ * Releasing in the last round splits the compliant nodes: followers of a
+ * member learn transactions which they can't forward any more, so they end
+ * up with different sets than the rest.
+ * <p/>
+ * The members read and write the group in every round, so they're only
+ * meant for {@link ConsensusSimulator}, whose rounds separate the sending
+ * from the receiving of all nodes. {@link EventSimulation} rejects them.
+ *
+ * @since 10/18/26
+ */
+public class SybilNode extends AdversaryNode {
+
+    /**
+     * {@code Group} holds the transactions pooled by the members of a Sybil
+     * group. Members are called concurrently, so access is synchronized.
+     */
+    public static class Group {
+
+        private final int releaseRound;
+
+        private final IntHashSet pool = new IntHashSet();
+
+        /**
+         * @param releaseRound round in which the members propose the pool
+         */
+        public Group(int releaseRound) {
+            this.releaseRound = releaseRound;
+        }
+
+        public int getReleaseRound() {
+            return releaseRound;
+        }
+
+        synchronized void add(int txId) {
+            pool.add(txId);
+        }
+
+        synchronized void addAll(IntHashSet txIds) {
+            txIds.forEach(pool::add);
+        }
+
+        /**
+         * @return the pooled transactions, sorted so that the order doesn't
+         * depend on the order in which the members added them
+         */
+        synchronized int[] toArray() {
+            int[] txIds = pool.toArray();
+            Arrays.sort(txIds);
+            return txIds;
+        }
+    }
+
+    private final Group group;
+
+    /**
+     * @param group           the group the node colludes with
+     * @param handshakeRounds number of rounds in which the node proposes a
+     *                        single transaction
+     */
+    public SybilNode(Group group, int handshakeRounds) {
+        super(handshakeRounds);
+        this.group = group;
+    }
+
+    @Override
+    public void setPendingTransaction(Set<Transaction> pendingTransactions) {
+        super.setPendingTransaction(pendingTransactions);
+        group.addAll(getHeard());
+    }
+
+    @Override
+    protected int[] attack(int round) {
+        return round == group.getReleaseRound()
+                ? group.toArray() : new int[0];
+    }
+
+    @Override
+    protected void hear(int sender, int txId) {
+        super.hear(sender, txId);
+        group.add(txId);
+    }
+}
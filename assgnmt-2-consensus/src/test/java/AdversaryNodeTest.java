@@ -0,0 +1,91 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code AdversaryNodeTest} represents an unit test for {@code
+ * AdversaryNode} and its subclasses.
+ *
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:S1220"})
+public class AdversaryNodeTest {
+
+    @Test
+    public void testFloodingNode() {
+        FloodingNode node = new FloodingNode(5, 2, 1);
+        node.setPendingTransaction(transactions(10, 20));
+
+        // the handshake proposes the first initial transaction only
+        assertArrayEquals(new int[]{10}, node.sendTxIdsToFollowers());
+        assertArrayEquals(new int[]{10}, node.sendTxIdsToFollowers());
+
+        CandidateBuffer candidates = new CandidateBuffer();
+        candidates.add(3, 30);
+        node.receiveFromFollowees(candidates);
+        int[] flood = node.sendTxIdsToFollowers();
+        assertEquals(5 + 3, flood.length);
+        int[] replayed = Arrays.copyOfRange(flood, 5, flood.length);
+        Arrays.sort(replayed);
+        assertArrayEquals(new int[]{10, 20, 30}, replayed);
+        assertTrue(node.getConsensus().isEmpty());
+    }
+
+    @Test
+    public void testSelectiveForwardingNode() {
+        SelectiveForwardingNode blackHole =
+                new SelectiveForwardingNode(0, 0, 1);
+        blackHole.setPendingTransaction(transactions(10, 20));
+        assertEquals(0, blackHole.sendTxIdsToFollowers().length);
+
+        // every new transaction is forwarded exactly once
+        SelectiveForwardingNode relay = new SelectiveForwardingNode(1, 0, 1);
+        relay.setPendingTransaction(transactions(10));
+        assertArrayEquals(new int[]{10}, relay.sendTxIdsToFollowers());
+        CandidateBuffer candidates = new CandidateBuffer();
+        candidates.add(3, 10);
+        candidates.add(3, 30);
+        relay.receiveFromFollowees(candidates);
+        assertArrayEquals(new int[]{30}, relay.sendTxIdsToFollowers());
+        assertEquals(0, relay.sendTxIdsToFollowers().length);
+    }
+
+    @Test
+    public void testSybilNode() {
+        SybilNode.Group group = new SybilNode.Group(3);
+        SybilNode a = new SybilNode(group, 1);
+        SybilNode b = new SybilNode(group, 1);
+        a.setPendingTransaction(transactions(10));
+        b.setPendingTransaction(transactions(40));
+        CandidateBuffer candidates = new CandidateBuffer();
+        candidates.add(5, 30);
+        b.receiveFromFollowees(candidates);
+
+        // the members stay silent after the handshake until the release
+        // round, in which both propose the whole pool
+        assertArrayEquals(new int[]{10}, a.sendTxIdsToFollowers());
+        assertArrayEquals(new int[]{40}, b.sendTxIdsToFollowers());
+        assertEquals(0, a.sendTxIdsToFollowers().length);
+        assertEquals(0, b.sendTxIdsToFollowers().length);
+        assertArrayEquals(new int[]{10, 30, 40}, a.sendTxIdsToFollowers());
+        assertArrayEquals(new int[]{10, 30, 40}, b.sendTxIdsToFollowers());
+        assertEquals(0, a.sendTxIdsToFollowers().length);
+    }
+
+    /**
+     * The first initial transaction becomes the handshake marker, so the
+     * order of {@code ids} is kept
+     */
+    private static Set<Transaction> transactions(int... ids) {
+        Set<Transaction> transactions = new LinkedHashSet<>();
+        for (int id : ids) {
+            transactions.add(new Transaction(id));
+        }
+
+        return transactions;
+    }
+}
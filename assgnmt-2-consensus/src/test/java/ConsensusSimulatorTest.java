@@ -0,0 +1,38 @@
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code ConsensusSimulatorTest} represents an unit test for {@code
+ * ConsensusSimulator}.
+ *
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:S1220"})
+public class ConsensusSimulatorTest {
+
+    private static final long SEED = 17;
+
+    @Test
+    public void testParallelRounds() {
+        ConsensusSimulator sequential = newSimulator();
+        sequential.setParallel(false);
+        List<Set<Transaction>> expected = sequential.run();
+        assertTrue(sequential.countConsensus(expected) > 0);
+
+        ConsensusSimulator parallel = newSimulator();
+        parallel.setParallel(true);
+        assertEquals(expected, parallel.run());
+        assertEquals(sequential.getBytesSent(), parallel.getBytesSent());
+        assertEquals(sequential.getRoundsRun(), parallel.getRoundsRun());
+    }
+
+    private static ConsensusSimulator newSimulator() {
+        return new ConsensusSimulator(200, .1, .3, .05, 10,
+                new Random(SEED));
+    }
+}
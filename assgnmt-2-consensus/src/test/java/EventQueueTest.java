@@ -0,0 +1,62 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code EventQueueTest} represents an unit test for {@code EventQueue}.
+ *
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:S1220"})
+public class EventQueueTest {
+
+    @Test
+    public void testOrder() {
+        EventQueue queue = new EventQueue();
+        int[] payload = {1, 2};
+        queue.add(5, 1, 0, 0, 0, null);
+        queue.add(5, 0, 3, 2, 1, payload);
+        queue.add(5, 0, 3, 2, 0, null);
+        queue.add(5, 0, 3, 1, 7, null);
+        queue.add(2, 1, 9, 9, 0, null);
+        assertEquals(5, queue.size());
+        assertEquals(2, queue.peekTime());
+
+        // by time, then type, node, sender and sequence number
+        long[][] expected = {{2, 1, 9, 9, 0}, {5, 0, 3, 1, 7},
+                {5, 0, 3, 2, 0}, {5, 0, 3, 2, 1}, {5, 1, 0, 0, 0}};
+        for (long[] event : expected) {
+            queue.poll();
+            assertEquals(event[0], queue.lastTime());
+            assertEquals(event[1], queue.lastType());
+            assertEquals(event[2], queue.lastNode());
+            assertEquals(event[3], queue.lastSender());
+            assertEquals(event[4], queue.lastSequence());
+            if (event[4] == 1) {
+                assertSame(payload, queue.lastPayload());
+            }
+        }
+        assertTrue(queue.isEmpty());
+        assertEquals(Long.MAX_VALUE, queue.peekTime());
+    }
+
+    @Test
+    public void testGrowth() {
+        // a queue created without capacity grows on the first event
+        EventQueue queue = new EventQueue(0);
+        Random random = new Random(11);
+        for (int i = 0; i < 1000; i++) {
+            queue.add(random.nextInt(100), 0, i, 0, 0, null);
+        }
+
+        assertEquals(1000, queue.size());
+        long time = -1;
+        while (!queue.isEmpty()) {
+            queue.poll();
+            assertTrue(queue.lastTime() >= time);
+            time = queue.lastTime();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code EventSimulationTest} represents an unit test for {@code
+ * EventSimulation}.
+ *
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:S1220"})
+public class EventSimulationTest {
+
+    private static final long SEED = 42;
+
+    @Test
+    public void testSameOutcomeForAnyPartitionCount() {
+        EventSimulation sequential = newSimulation(1);
+        List<Set<Transaction>> expected = sequential.run();
+        assertTrue(sequential.getMessagesLost() > 0);
+
+        for (int numPartitions : new int[]{2, 7}) {
+            EventSimulation partitioned = newSimulation(numPartitions);
+            assertEquals(expected, partitioned.run());
+            assertEquals(sequential.getEventsProcessed(),
+                    partitioned.getEventsProcessed());
+            assertEquals(sequential.getMessagesSent(),
+                    partitioned.getMessagesSent());
+            assertEquals(sequential.getMessagesLost(),
+                    partitioned.getMessagesLost());
+            assertEquals(sequential.getCandidatesDelivered(),
+                    partitioned.getCandidatesDelivered());
+            assertEquals(sequential.getBytesSent(), partitioned.getBytesSent());
+            assertEquals(sequential.getTimeToConsensus(),
+                    partitioned.getTimeToConsensus());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPartitionsWithoutLatency() {
+        EventSimulation simulation = newSimulation(2);
+        simulation.setLatencyModel(LatencyModel.constant(0));
+        simulation.run();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSybilNodesRejected() {
+        SybilNode.Group group = new SybilNode.Group(10);
+        ConsensusSimulator network = new ConsensusSimulator(60, 100,
+                GraphGenerator.erdosRenyi(.2), .3, .05, 10,
+                id -> new SybilNode(group, AdversaryNode.TRUST_ROUNDS),
+                new Random(SEED));
+        new EventSimulation(network, SEED);
+    }
+
+    private static EventSimulation newSimulation(int numPartitions) {
+        ConsensusSimulator network = new ConsensusSimulator(60, 100, .2, .3,
+                .05, 10, new Random(SEED));
+        EventSimulation simulation = new EventSimulation(network, SEED);
+        simulation.setLatencyModel(
+                LatencyModel.shiftedExponential(20_000, 50_000));
+        simulation.setLossProbability(0.05);
+        simulation.setProcessingCost(100, 1);
+        simulation.setNumPartitions(numPartitions);
+        return simulation;
+    }
+}
@@ -0,0 +1,54 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code FollowGraphTest} represents an unit test for {@code FollowGraph}.
+ *
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:S1220"})
+public class FollowGraphTest {
+
+    @Test
+    public void testFromEdges() {
+        // node 0 follows 2 twice and 1, node 2 follows 0, node 3 nobody
+        int[] from = {0, 2, 0, 0, 1};
+        int[] to = {2, 0, 1, 2, 3};
+        FollowGraph graph = FollowGraph.fromEdges(4, from, to, from.length);
+
+        assertEquals(4, graph.getNumNodes());
+        assertEquals(4, graph.getNumEdges());
+        assertEquals(4.0 / 12, graph.getDensity(), 1e-12);
+        assertArrayEquals(new int[]{1, 2}, graph.getFollowees(0));
+        assertArrayEquals(new int[]{3}, graph.getFollowees(1));
+        assertArrayEquals(new int[]{0}, graph.getFollowees(2));
+        assertArrayEquals(new int[0], graph.getFollowees(3));
+
+        assertArrayEquals(new int[]{2}, graph.getFollowers(0));
+        assertArrayEquals(new int[]{0}, graph.getFollowers(1));
+        assertArrayEquals(new int[]{0}, graph.getFollowers(2));
+        assertArrayEquals(new int[]{1}, graph.getFollowers(3));
+        assertEquals(1, graph.getNumFollowers(3));
+        assertEquals(1, graph.getFollower(3, 0));
+        assertEquals(2, graph.getFollowee(0, 1));
+    }
+
+    @Test
+    public void testFollowersMirrorFollowees() {
+        FollowGraph graph = FollowGraph.random(50, .2, new Random(3));
+        int numFollowers = 0;
+        for (int i = 0; i < graph.getNumNodes(); i++) {
+            numFollowers += graph.getNumFollowers(i);
+            for (int k = 0; k < graph.getNumFollowers(i); k++) {
+                int follower = graph.getFollower(i, k);
+                assertTrue(Arrays.binarySearch(
+                        graph.getFollowees(follower), i) >= 0);
+            }
+        }
+        assertEquals(graph.getNumEdges(), numFollowers);
+    }
+}
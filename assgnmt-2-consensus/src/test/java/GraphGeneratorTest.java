@@ -0,0 +1,145 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code GraphGeneratorTest} represents an unit test for {@code
+ * GraphGenerator}.
+ *
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:S1220"})
+public class GraphGeneratorTest {
+
+    private static final long SEED = 23;
+
+    @Test
+    public void testErdosRenyi() {
+        int numNodes = 1000;
+        double p_graph = .01;
+        FollowGraph graph = generate(GraphGenerator.erdosRenyi(p_graph),
+                numNodes);
+        assertValid(graph);
+
+        // the edge count is binomial with a standard deviation of about 100
+        double expected = p_graph * numNodes * (numNodes - 1);
+        assertEquals(expected, graph.getNumEdges(), 500);
+        assertEquals(p_graph, graph.getDensity(), .0005);
+        assertSameGraph(graph,
+                generate(GraphGenerator.erdosRenyi(p_graph), numNodes));
+
+        assertEquals(0, generate(GraphGenerator.erdosRenyi(0), 50)
+                .getNumEdges());
+        FollowGraph complete = generate(GraphGenerator.erdosRenyi(1), 50);
+        assertValid(complete);
+        assertEquals(50 * 49, complete.getNumEdges());
+    }
+
+    @Test
+    public void testScaleFree() {
+        int numNodes = 2000;
+        int numLinks = 3;
+        FollowGraph graph = generate(GraphGenerator.scaleFree(numLinks),
+                numNodes);
+        assertValid(graph);
+
+        // a clique of numLinks + 1 seed nodes, then numLinks distinct links
+        // per node, each followed in both directions
+        int seedNodes = numLinks + 1;
+        int numLinksTotal = seedNodes * (seedNodes - 1) / 2
+                + (numNodes - seedNodes) * numLinks;
+        assertEquals(2 * numLinksTotal, graph.getNumEdges());
+
+        int maxDegree = 0;
+        for (int i = 0; i < numNodes; i++) {
+            assertTrue(graph.getNumFollowees(i) >= numLinks);
+            assertArrayEquals(graph.getFollowees(i), graph.getFollowers(i));
+            maxDegree = Math.max(maxDegree, graph.getNumFollowees(i));
+        }
+
+        // preferential attachment grows hubs far above the mean degree
+        assertTrue("max degree " + maxDegree, maxDegree > 10 * 2 * numLinks);
+        assertSameGraph(graph,
+                generate(GraphGenerator.scaleFree(numLinks), numNodes));
+    }
+
+    @Test
+    public void testSmallWorld() {
+        int numNodes = 1000;
+        int numFollowees = 4;
+
+        // without rewiring every node follows its ring neighbours
+        FollowGraph ring = generate(GraphGenerator.smallWorld(numFollowees, 0),
+                numNodes);
+        assertValid(ring);
+        assertArrayEquals(new int[]{1, 2, 998, 999}, ring.getFollowees(0));
+        assertArrayEquals(new int[]{3, 4, 6, 7}, ring.getFollowees(5));
+
+        FollowGraph graph = generate(
+                GraphGenerator.smallWorld(numFollowees, .1), numNodes);
+        assertValid(graph);
+        assertEquals(numNodes * numFollowees, graph.getNumEdges());
+        int rewired = 0;
+        for (int i = 0; i < numNodes; i++) {
+            assertEquals(numFollowees, graph.getNumFollowees(i));
+            for (int j : graph.getFollowees(i)) {
+                int distance = Math.abs(i - j);
+                if (Math.min(distance, numNodes - distance)
+                        > numFollowees / 2) {
+                    rewired++;
+                }
+            }
+        }
+
+        // about 10% of the edges are rewired, a few of them back onto the
+        // ring
+        assertEquals(.1, (double) rewired / graph.getNumEdges(), .03);
+        assertSameGraph(graph, generate(
+                GraphGenerator.smallWorld(numFollowees, .1), numNodes));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSmallWorldOddFollowees() {
+        GraphGenerator.smallWorld(3, .1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testScaleFreeWithoutLinks() {
+        GraphGenerator.scaleFree(0);
+    }
+
+    private static FollowGraph generate(GraphGenerator generator,
+                                        int numNodes) {
+        FollowGraph graph = generator.generate(numNodes, new Random(SEED));
+        assertEquals(numNodes, graph.getNumNodes());
+        return graph;
+    }
+
+    /**
+     * Checks that the followees of every node are sorted, distinct and
+     * don't include the node itself
+     */
+    private static void assertValid(FollowGraph graph) {
+        for (int i = 0; i < graph.getNumNodes(); i++) {
+            int[] followees = graph.getFollowees(i);
+            for (int k = 0; k < followees.length; k++) {
+                assertNotEquals(i, followees[k]);
+                assertTrue(followees[k] >= 0
+                        && followees[k] < graph.getNumNodes());
+                if (k > 0) {
+                    assertTrue(followees[k - 1] < followees[k]);
+                }
+            }
+        }
+    }
+
+    private static void assertSameGraph(FollowGraph expected,
+                                        FollowGraph actual) {
+        assertEquals(expected.getNumEdges(), actual.getNumEdges());
+        for (int i = 0; i < expected.getNumNodes(); i++) {
+            assertArrayEquals(expected.getFollowees(i), actual.getFollowees(i));
+        }
+    }
+}
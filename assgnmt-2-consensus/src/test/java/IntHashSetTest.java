@@ -0,0 +1,74 @@
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code IntHashSetTest} represents an unit test for {@code IntHashSet}.
+ *
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:S1220"})
+public class IntHashSetTest {
+
+    @Test
+    public void testAddAndContains() {
+        IntHashSet set = new IntHashSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(7));
+        assertFalse(set.add(7));
+        assertTrue(set.add(-7));
+
+        // 0 marks an empty slot, so it's tracked apart from the other keys
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+
+        assertEquals(3, set.size());
+        assertTrue(set.contains(7));
+        assertTrue(set.contains(-7));
+        assertFalse(set.contains(8));
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(7));
+        assertEquals(0, set.toArray().length);
+    }
+
+    @Test
+    public void testGrowth() {
+        // sequential ids as well as random ones, starting with the smallest
+        // capacity
+        Random random = new Random(31);
+        IntHashSet set = new IntHashSet(1);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            int key = i % 2 == 0 ? i / 2 : random.nextInt();
+            assertEquals(expected.add(key), set.add(key));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (int key : expected) {
+            assertTrue(set.contains(key));
+        }
+        for (int i = 0; i < 1000; i++) {
+            int key = random.nextInt();
+            assertEquals(expected.contains(key), set.contains(key));
+        }
+
+        Set<Integer> actual = new HashSet<>();
+        for (int key : set.toArray()) {
+            assertTrue(actual.add(key));
+        }
+        assertEquals(expected, actual);
+
+        Set<Integer> visited = new HashSet<>();
+        set.forEach(visited::add);
+        assertEquals(expected, visited);
+    }
+}
@@ -0,0 +1,132 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code InvertibleBloomFilterTest} represents an unit test for {@code
+ * InvertibleBloomFilter}.
+ *
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:S1220"})
+public class InvertibleBloomFilterTest {
+
+    @Test
+    public void testSubtractAndDecode() {
+        Random random = new Random(5);
+        IntHashSet common = randomIds(random, 1000);
+        IntHashSet onlyA = randomIds(random, 10);
+        IntHashSet onlyB = randomIds(random, 15);
+        onlyA.add(0);
+
+        InvertibleBloomFilter a = new InvertibleBloomFilter(80);
+        InvertibleBloomFilter b = new InvertibleBloomFilter(80);
+        common.forEach(id -> {
+            a.add(id);
+            b.add(id);
+        });
+        onlyA.forEach(a::add);
+        onlyB.forEach(b::add);
+        assertEquals(81, a.getNumCells());
+        assertEquals(81 * InvertibleBloomFilter.CELL_BYTES, a.getNumBytes());
+
+        IntHashSet added = new IntHashSet();
+        IntHashSet removed = new IntHashSet();
+        assertTrue(a.subtract(b).decode(added, removed));
+        assertSameIds(onlyA, added);
+        assertSameIds(onlyB, removed);
+
+        // the filters themselves are left as they were
+        added.clear();
+        assertTrue(b.subtract(a).decode(added, null));
+        assertSameIds(onlyB, added);
+    }
+
+    @Test
+    public void testRemove() {
+        InvertibleBloomFilter filter =
+                InvertibleBloomFilter.of(new int[]{1, 2, 3}, 12);
+        filter.remove(2);
+        filter.remove(4);
+
+        IntHashSet added = new IntHashSet();
+        IntHashSet removed = new IntHashSet();
+        assertTrue(filter.decode(added, removed));
+        assertArrayEquals(new int[]{1, 3}, sorted(added));
+        assertArrayEquals(new int[]{4}, sorted(removed));
+    }
+
+    @Test
+    public void testDecodeFailure() {
+        Random random = new Random(9);
+        IntHashSet ids = randomIds(random, 200);
+        InvertibleBloomFilter filter =
+                InvertibleBloomFilter.of(ids.toArray(), 30);
+
+        IntHashSet added = new IntHashSet();
+        assertFalse(filter.subtract(new InvertibleBloomFilter(30))
+                .decode(added, null));
+        assertTrue(added.size() < ids.size());
+        added.forEach(id -> assertTrue(ids.contains(id)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubtractDifferentSizes() {
+        new InvertibleBloomFilter(12).subtract(new InvertibleBloomFilter(24));
+    }
+
+    @Test
+    public void testEstimateDifference() {
+        Random random = new Random(13);
+        int[] common = randomIds(random, 2000).toArray();
+        int[] a = concat(common, randomIds(random, 100).toArray());
+        int[] b = concat(common, randomIds(random, 100).toArray());
+        int[] disjoint = randomIds(random, 300).toArray();
+
+        int[] hashesA = InvertibleBloomFilter.minHashes(a, 64);
+        int[] hashesB = InvertibleBloomFilter.minHashes(b, 64);
+        int[] hashesDisjoint = InvertibleBloomFilter.minHashes(disjoint, 64);
+        assertEquals(64, hashesA.length);
+        assertEquals(3, InvertibleBloomFilter.minHashes(
+                new int[]{7, 8, 9}, 64).length);
+
+        assertEquals(0, InvertibleBloomFilter.estimateDifference(
+                hashesA, a.length, hashesA, a.length));
+        assertEquals(a.length + disjoint.length,
+                InvertibleBloomFilter.estimateDifference(hashesA, a.length,
+                        hashesDisjoint, disjoint.length));
+        int estimate = InvertibleBloomFilter.estimateDifference(hashesA,
+                a.length, hashesB, b.length);
+        assertTrue("estimate " + estimate, estimate > 50 && estimate < 600);
+        assertEquals(0, InvertibleBloomFilter.estimateDifference(
+                new int[0], 0, new int[0], 0));
+    }
+
+    private static IntHashSet randomIds(Random random, int count) {
+        IntHashSet ids = new IntHashSet(count);
+        while (ids.size() < count) {
+            ids.add(random.nextInt());
+        }
+
+        return ids;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] ids = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, ids, a.length, b.length);
+        return ids;
+    }
+
+    private static int[] sorted(IntHashSet ids) {
+        int[] array = ids.toArray();
+        Arrays.sort(array);
+        return array;
+    }
+
+    private static void assertSameIds(IntHashSet expected, IntHashSet actual) {
+        assertArrayEquals(sorted(expected), sorted(actual));
+    }
+}
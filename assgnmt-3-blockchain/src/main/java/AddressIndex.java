@@ -0,0 +1,110 @@
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code AddressIndex} is the secondary index of a {@link UTXOPool} from an
+ * address, i.e., the public key of a recipient, to the UTXOs paying to it
+ * and their total amount. With the index, the balance of an address is
+ * answered in constant time and its UTXOs in time linear in their number,
+ * instead of scanning the whole pool.
+ * <p/>
+ * The index is built from the pool when it's first queried and from then
+ * on kept up to date as UTXOs are added to and removed from the pool, so
+ * pools which are never queried, e.g., the copies validating transactions,
+ * don't pay for it.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class AddressIndex {
+
+    private Map<PublicKey, Entry> entries;
+
+    /**
+     * The UTXOs paying to an address and their total amount
+     */
+    private static class Entry {
+        private final Set<UTXO> utxos = new HashSet<>();
+
+        private long balance;
+    }
+
+    /**
+     * @return true once the index has been built
+     */
+    boolean isBuilt() {
+        return entries != null;
+    }
+
+    /**
+     * Builds the index from the UTXOs of a pool
+     */
+    void build(Map<UTXO, Transaction.Output> utxos) {
+        entries = new HashMap<>();
+        for (Map.Entry<UTXO, Transaction.Output> utxo : utxos.entrySet()) {
+            add(utxo.getKey(), utxo.getValue());
+        }
+    }
+
+    /**
+     * Records that {@code utxo} pays {@code output}, if the index is built
+     */
+    void add(UTXO utxo, Transaction.Output output) {
+        if (entries != null) {
+            Entry entry = entries.get(output.address);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(output.address, entry);
+            }
+            if (entry.utxos.add(utxo)) {
+                entry.balance += output.amount;
+            }
+        }
+    }
+
+    /**
+     * Records that {@code utxo}, which paid {@code output}, is gone, if the
+     * index is built
+     */
+    void remove(UTXO utxo, Transaction.Output output) {
+        if (entries != null) {
+            Entry entry = entries.get(output.address);
+            if (entry != null && entry.utxos.remove(utxo)) {
+                entry.balance -= output.amount;
+                if (entry.utxos.isEmpty()) {
+                    entries.remove(output.address);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the total amount of the UTXOs paying to {@code address}, in
+     * base units
+     */
+    long getBalance(PublicKey address) {
+        Entry entry = entries.get(address);
+        return entry == null ? 0 : entry.balance;
+    }
+
+    /**
+     * @return the UTXOs paying to {@code address}
+     */
+    ArrayList<UTXO> getUTXOs(PublicKey address) {
+        Entry entry = entries.get(address);
+        return entry == null ? new ArrayList<UTXO>()
+                : new ArrayList<UTXO>(entry.utxos);
+    }
+
+    /**
+     * @return the number of addresses with at least one UTXO
+     */
+    int getNumAddresses() {
+        return entries == null ? 0 : entries.size();
+    }
+}
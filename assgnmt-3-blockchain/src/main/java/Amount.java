@@ -0,0 +1,47 @@
+/**
+ * {@code Amount} converts between coin values and the integer base units in
+ * which transaction output values are kept.
+ * <p/>
+ * Amounts are exact {@code long} counts of base units, so summing inputs,
+ * outputs and fees is free of floating point rounding. The {@code double}
+ * coin values of the original API are rounded to the nearest base unit.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public final class Amount {
+
+    /**
+     * number of base units in one coin
+     */
+    public static final long COIN = 100_000_000L;
+
+    /**
+     * largest number of coins which can be represented in base units
+     */
+    public static final double MAX_COINS = (double) Long.MAX_VALUE / COIN;
+
+    private Amount() {
+    }
+
+    /**
+     * @return {@code coins} in base units, rounded to the nearest base unit
+     * @throws IllegalArgumentException if {@code coins} can't be represented
+     *                                  in base units
+     */
+    public static long fromCoins(double coins) {
+        if (Double.isNaN(coins) || Math.abs(coins) >= MAX_COINS) {
+            throw new IllegalArgumentException("invalid coin value: " + coins);
+        }
+
+        return Math.round(coins * COIN);
+    }
+
+    /**
+     * @return {@code amount} base units in coins
+     */
+    public static double toCoins(long amount) {
+        return (double) amount / COIN;
+    }
+}
@@ -1,3 +1,4 @@
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
@@ -5,8 +6,16 @@ import java.util.ArrayList;
 
 public class Block {
 
+    /**
+     * coinbase value in coins, see {@link #COINBASE_AMOUNT}
+     */
     public static final double COINBASE = 25;
 
+    /**
+     * coinbase value in base units
+     */
+    public static final long COINBASE_AMOUNT = 25 * Amount.COIN;
+
     private byte[] hash;
     private byte[] prevBlockHash;
     private Transaction coinbase;
@@ -17,7 +26,7 @@ public class Block {
      */
     public Block(byte[] prevHash, PublicKey address) {
         prevBlockHash = prevHash;
-        coinbase = new Transaction(COINBASE, address);
+        coinbase = Transaction.newCoinbase(COINBASE_AMOUNT, address);
         txs = new ArrayList<Transaction>();
     }
 
@@ -46,26 +55,28 @@ public class Block {
     }
 
     public byte[] getRawBlock() {
-        ArrayList<Byte> rawBlock = new ArrayList<Byte>();
-        if (prevBlockHash != null)
-            for (int i = 0; i < prevBlockHash.length; i++)
-                rawBlock.add(prevBlockHash[i]);
-        for (int i = 0; i < txs.size(); i++) {
-            byte[] rawTx = txs.get(i).getRawTx();
-            for (int j = 0; j < rawTx.length; j++) {
-                rawBlock.add(rawTx[j]);
-            }
+        byte[][] rawTxs = new byte[txs.size()][];
+        int size = prevBlockHash == null ? 0 : prevBlockHash.length;
+        for (int i = 0; i < rawTxs.length; i++) {
+            rawTxs[i] = txs.get(i).getRawTx();
+            size += rawTxs[i].length;
         }
-        byte[] raw = new byte[rawBlock.size()];
-        for (int i = 0; i < raw.length; i++)
-            raw[i] = rawBlock.get(i);
-        return raw;
+        ByteBuffer rawBlock = ByteBuffer.allocate(size);
+        if (prevBlockHash != null)
+            rawBlock.put(prevBlockHash);
+        for (byte[] rawTx : rawTxs)
+            rawBlock.put(rawTx);
+        return rawBlock.array();
     }
 
     public void finalize() {
         try {
+            // same digest as over getRawBlock(), without concatenating
             MessageDigest md = MessageDigest.getInstance("SHA-256");
-            md.update(getRawBlock());
+            if (prevBlockHash != null)
+                md.update(prevBlockHash);
+            for (int i = 0; i < txs.size(); i++)
+                md.update(txs.get(i).getRawTx());
             hash = md.digest();
         } catch (NoSuchAlgorithmException x) {
             x.printStackTrace(System.err);
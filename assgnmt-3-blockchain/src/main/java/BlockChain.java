@@ -2,10 +2,17 @@
 // You should not have all the blocks added to the block chain in memory 
 // as it would cause a memory overflow.
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Score: 100/100
@@ -108,12 +115,85 @@ import java.util.Map;
 public class BlockChain {
     public static final int CUT_OFF_AGE = 10;
 
+    /**
+     * The number of blocks refused for the memory limit which are kept, so
+     * that a refused branch can still be connected once it's longer than
+     * the main chain
+     */
+    public static final int MAX_REFUSED_BLOCKS = 2 * CUT_OFF_AGE;
+
+    private static final LatencyHistogram ADD_BLOCK_LATENCY =
+            MetricsRegistry.getDefault().histogram("blockchain.addBlock");
+
+    private static final Counter BLOCKS_ACCEPTED =
+            MetricsRegistry.getDefault().counter("blockchain.blocks.accepted");
+
+    private static final Counter BLOCKS_REJECTED =
+            MetricsRegistry.getDefault().counter("blockchain.blocks.rejected");
+
+    private static final Counter FORKS_REFUSED =
+            MetricsRegistry.getDefault().counter("blockchain.forks.refused");
+
+    private static final Gauge MEMORY =
+            MetricsRegistry.getDefault().gauge("blockchain.memory.bytes");
+
     private Map<ByteArrayWrapper, BlockNode> nodeMap;
 
     private TransactionPool txPool;
 
     private BlockNode currentMaxHeightNode;
 
+    /**
+     * The nodes of the main chain, i.e., from the oldest node up to the max
+     * height node, indexed by {@code height - mainChainBase}
+     */
+    private List<BlockNode> mainChain;
+
+    private int mainChainBase;
+
+    /**
+     * The single live UTXO set, which is the UTXO pool of {@code
+     * utxoSetNode}. Between calls it's the pool of the max height node.
+     */
+    private UTXOPool utxoSet;
+
+    private BlockNode utxoSetNode;
+
+    private BlockJournal journal;
+
+    private TxIndex txIndex;
+
+    /**
+     * The estimated memory held by the block nodes without the live UTXO
+     * set, see {@link MemoryEstimator}
+     */
+    private long estimatedBytes;
+
+    /**
+     * The nodes which aren't on the main chain and can still be extended
+     */
+    private Set<BlockNode> forkNodes = new HashSet<>();
+
+    /**
+     * The estimated memory held by {@code forkNodes}, which the memory
+     * limit applies to
+     */
+    private long forkBytes;
+
+    /**
+     * The blocks refused for the memory limit and the blocks built on
+     * them, oldest first
+     */
+    private Map<ByteArrayWrapper, Block> refusedBlocks =
+            new LinkedHashMap<>();
+
+    private long refusedBytes;
+
+    private long memoryLimit = Long.MAX_VALUE;
+
+    private final BlockValidationLog validationLog =
+            new BlockValidationLog(BlockValidationLog.DEFAULT_CAPACITY);
+
     /**
      * create an empty block chain with just a genesis block.
      * Assume {@code genesisBlock} is a valid block
@@ -122,12 +202,51 @@ public class BlockChain {
         nodeMap = new HashMap<>();
         txPool = new TransactionPool();
 
-        UTXOPool utxoPool = new UTXOPool();
-        addCoinbaseTransaction(genesisBlock, utxoPool);
+        utxoSet = new UTXOPool();
+        BlockUndo undo = new BlockUndo();
+        addCoinbaseTransaction(genesisBlock, undo);
+        txPool.addTransaction(genesisBlock.getCoinbase());
         BlockNode genesisNode =
-                new BlockNode(genesisBlock, null, utxoPool);
+                new BlockNode(genesisBlock, null, utxoSet.getSetHash(), undo);
         nodeMap.put(new ByteArrayWrapper(genesisBlock.getHash()), genesisNode);
         currentMaxHeightNode = genesisNode;
+        mainChain = new ArrayList<>();
+        mainChainBase = genesisNode.height;
+        updateMainChain(genesisNode);
+        utxoSetNode = genesisNode;
+        estimatedBytes = nodeBytes(genesisBlock, undo);
+        MEMORY.set(getEstimatedBytes());
+    }
+
+    /**
+     * Re-creates a block chain from previously persisted block nodes. The
+     * {@code nodes} must be ordered so that a parent always precedes its
+     * children, and {@code utxoSet} must be the UTXO pool of {@code
+     * maxHeightNode}.
+     *
+     * @see BlockChainSnapshot
+     */
+    BlockChain(List<BlockNode> nodes, BlockNode maxHeightNode,
+               UTXOPool utxoSet, TransactionPool txPool) {
+        nodeMap = new HashMap<>();
+        this.txPool = txPool;
+        for (BlockNode node : nodes) {
+            nodeMap.put(new ByteArrayWrapper(node.block.getHash()), node);
+            estimatedBytes += nodeBytes(node.block, node.undo);
+        }
+        currentMaxHeightNode = maxHeightNode;
+        mainChain = new ArrayList<>();
+        mainChainBase = nodes.get(0).height;
+        updateMainChain(maxHeightNode);
+        for (BlockNode node : nodes) {
+            if (!isOnMainChain(node)) {
+                forkNodes.add(node);
+                forkBytes += nodeBytes(node.block, node.undo);
+            }
+        }
+        this.utxoSet = utxoSet;
+        utxoSetNode = maxHeightNode;
+        MEMORY.set(getEstimatedBytes());
     }
 
     /**
@@ -138,10 +257,52 @@ public class BlockChain {
     }
 
     /**
-     * Get the UTXOPool for mining a new block on top of max height block
+     * Get the UTXOPool for mining a new block on top of max height block.
+     * The pool is a read-only view of the live UTXO set, which changes as
+     * blocks are added; copy it with {@link UTXOPool#UTXOPool(UTXOPool)} to
+     * keep or change it.
      */
     public UTXOPool getMaxHeightUTXOPool() {
-        return currentMaxHeightNode.getUtxoPool();
+        return UTXOPool.readOnlyView(utxoSet);
+    }
+
+    /**
+     * Get the set hash of the UTXOPool on top of max height block
+     */
+    public UTXOSetHash getMaxHeightUTXOSetHash() {
+        return currentMaxHeightNode.getSetHash();
+    }
+
+    /**
+     * Returns the block at {@code height} on the main chain, i.e., the
+     * ancestor of the max height block at {@code height}, in constant time.
+     *
+     * @return null if there is no block at {@code height} or it's older
+     * than the oldest block held by the chain
+     */
+    public Block getBlockByHeight(int height) {
+        int index = height - mainChainBase;
+        if (index < 0 || index >= mainChain.size()) {
+            return null;
+        }
+
+        return mainChain.get(index).block;
+    }
+
+    /**
+     * Returns true if the block with hash {@code blockHash} is on the main
+     * chain, i.e., it's the max height block or one of its ancestors. The
+     * check takes constant time.
+     */
+    public boolean isOnMainChain(byte[] blockHash) {
+        BlockNode node = nodeMap.get(ByteArrayWrapper.wrap(blockHash));
+        return node != null && isOnMainChain(node);
+    }
+
+    private boolean isOnMainChain(BlockNode node) {
+        int index = node.height - mainChainBase;
+        return index >= 0 && index < mainChain.size()
+                && mainChain.get(index) == node;
     }
 
     /**
@@ -160,106 +321,695 @@ public class BlockChain {
      * block chain height is {@code <=
      * CUT_OFF_AGE + 1}. As soon as {@code height > CUT_OFF_AGE + 1}, you cannot create a new block
      * at height 2.
+     * <p>
+     * Either way, a {@link BlockValidationReport} of the call is added to
+     * the {@link #getValidationLog() validation log}.
      *
      * @return true if block is successfully added
      */
     public boolean addBlock(Block block) {
+        return addBlock(block, true);
+    }
+
+    /**
+     * @param refusable false to add {@code block} even if its branch is over
+     *                  the memory limit
+     */
+    private boolean addBlock(Block block, boolean refusable) {
+        long start = System.nanoTime();
+        BlockValidationEvent event = new BlockValidationEvent();
+        event.begin();
+        BlockValidationReport report = new BlockValidationReport(block);
+        boolean added = tryAddBlock(block, report, refusable);
+        report.finish(added);
+        ADD_BLOCK_LATENCY.recordSince(start);
+        (added ? BLOCKS_ACCEPTED : BLOCKS_REJECTED).increment();
+        event.height = report.getHeight();
+        event.commit(block, added);
+        validationLog.add(report);
+
+        return added;
+    }
+
+    private boolean tryAddBlock(Block block, BlockValidationReport report,
+                                boolean refusable) {
         if (block == null) {
-            return false;
+            return report.reject(BlockValidationReport.NULL_BLOCK, null);
         }
 
         // return false if it is a genesis block
         if (block.getPrevBlockHash() == null) {
-            return false;
+            return report.reject(BlockValidationReport.GENESIS_BLOCK, null);
+        }
+
+        // check if the block already exists, a refused block isn't part of
+        // the chain and is validated again
+        ByteArrayWrapper blockId = new ByteArrayWrapper(block.getHash());
+        if (nodeMap.containsKey(blockId)) {
+            return report.reject(BlockValidationReport.DUPLICATE, null);
         }
 
         //check if parent exists
+        report.startPhase(BlockStageEvent.PARENT_LOOKUP);
         ByteArrayWrapper parentBlockId =
-                new ByteArrayWrapper(block.getPrevBlockHash());
+                ByteArrayWrapper.wrap(block.getPrevBlockHash());
         BlockNode parentNode = nodeMap.get(parentBlockId);
+        report.endPhase(0);
+        if (parentNode == null && refusedBlocks.containsKey(parentBlockId)) {
+            if (!connectRefusedBranch(block)) {
+                refuse(block);
+                return report.reject(BlockValidationReport.MEMORY_LIMIT,
+                        "parent refused, limit " + memoryLimit + " bytes");
+            }
+            parentNode = nodeMap.get(parentBlockId);
+        }
         if (parentNode == null) {
-            return false;
+            return report.reject(BlockValidationReport.UNKNOWN_PARENT,
+                    "parent " + BlockValidationEvent.toHex(
+                            block.getPrevBlockHash()));
         }
 
         // check if the new height will exceed max height
         int height = parentNode.height + 1;
+        report.setHeight(height);
 
         if (height <= currentMaxHeightNode.height - CUT_OFF_AGE) {
-            return false;
+            return report.reject(BlockValidationReport.TOO_OLD,
+                    "max height " + currentMaxHeightNode.height);
         }
 
-        // check if the block already exists
-        ByteArrayWrapper blockId = new ByteArrayWrapper(block.getHash());
+        // check if the block is valid against the UTXO set of its parent,
+        // recording its changes so that they can be undone. Until the block
+        // is accepted, any way out, including an exception, reverts the
+        // live UTXO set to the max height node.
+        BlockUndo undo = new BlockUndo();
+        long bytes;
+        boolean applied = false;
+        try {
+            report.startPhase(BlockStageEvent.UTXO_VIEW);
+            moveUtxoSet(parentNode);
+            TxHandler handler = new TxHandler(utxoSet, undo);
+            report.endPhase(0);
+
+            report.startPhase(BlockStageEvent.TX_VALIDATION);
+            Transaction[] txs =
+                    block.getTransactions().toArray(new Transaction[0]);
+            Transaction[] validTxs;
+            try {
+                validTxs = handler.handleTxs(txs);
+            } catch (RuntimeException e) {
+                // e.g., a transaction without a signature
+                report.endPhase(txs.length);
+                report.setValidationWork(handler);
+                return report.reject(BlockValidationReport.INVALID_TX,
+                        "malformed transaction: " + e);
+            }
+            report.endPhase(txs.length);
+            report.setValidationWork(handler);
+            if (validTxs.length != txs.length) {
+                return report.reject(BlockValidationReport.INVALID_TX,
+                        handler.getFirstRejection());
+            }
 
-        // check if the block is valid
-        UTXOPool utxoPool = parentNode.getUtxoPool();
-        TxHandler handler = new TxHandler(utxoPool);
-        Transaction[] txs = block.getTransactions().toArray(new Transaction[0]);
+            report.startPhase(BlockStageEvent.COINBASE);
+            addCoinbaseTransaction(block, undo);
+            undo.trim();
+            report.endPhase(1);
+
+            // once the forks are over the memory limit, only blocks which
+            // extend or tie the longest branch are added
+            bytes = nodeBytes(block, undo);
+            if (refusable && forkBytes + bytes > memoryLimit
+                    && height < currentMaxHeightNode.height) {
+                refuse(block);
+                return report.reject(BlockValidationReport.MEMORY_LIMIT,
+                        "limit " + memoryLimit + " bytes");
+            }
 
-        Transaction[] validTxs = handler.handleTxs(txs);
-        if (validTxs.length != txs.length) {
-            return false;
+            // the block is journaled before it's applied, so a failed write
+            // leaves the chain as it was
+            if (journal != null) {
+                report.startPhase(BlockStageEvent.JOURNAL);
+                try {
+                    journal.appendBlock(block);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                report.endPhase(0);
+            }
+            applied = true;
+        } finally {
+            if (!applied) {
+                revert(undo);
+            }
+        }
+        txPool.addTransaction(block.getCoinbase());
+
+        report.startPhase(BlockStageEvent.NODE_INSERTION);
+        BlockNode node = new BlockNode(block, parentNode, utxoSet.getSetHash(),
+                undo);
+        utxoSetNode = node;
+        Block refused = refusedBlocks.remove(blockId);
+        if (refused != null) {
+            refusedBytes -= refusedBytes(refused);
         }
-
-        utxoPool = handler.getUTXOPool();
-        addCoinbaseTransaction(block, utxoPool);
-
-        BlockNode node = new BlockNode(block, parentNode, utxoPool);
         nodeMap.put(blockId, node);
+        estimatedBytes += bytes;
+        report.endPhase(0);
 
+        // a block on a shorter branch is disconnected again
+        report.startPhase(BlockStageEvent.TIP_UPDATE);
         if (node.height > currentMaxHeightNode.height) {
             currentMaxHeightNode = node;
+            updateMainChain(node);
+            pruneForks();
+        } else {
+            forkNodes.add(node);
+            forkBytes += bytes;
+            moveUtxoSet(currentMaxHeightNode);
         }
+        MEMORY.set(getEstimatedBytes());
+        report.endPhase(0);
 
         return true;
     }
 
     /**
-     * Add a transaction to the transaction pool
+     * Add a transaction to the transaction pool. The transaction is
+     * journaled first, so it isn't added if the journal can't be written.
      */
     public void addTransaction(Transaction tx) {
+        if (journal != null) {
+            try {
+                journal.appendTransaction(tx);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
         txPool.addTransaction(tx);
     }
 
-    private void addCoinbaseTransaction(Block block, UTXOPool utxoPool) {
+    /**
+     * Sets the journal where every accepted block and transaction is
+     * recorded, or {@code null} to stop journaling.
+     */
+    public void setJournal(BlockJournal journal) {
+        this.journal = journal;
+    }
+
+    public BlockJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Sets the index where the transactions of the main chain are looked
+     * up by hash, or {@code null} to stop indexing. The index is filled with
+     * the blocks on the main chain right away and then kept up to date as
+     * blocks are added; blocks older than the oldest block held by the
+     * chain, e.g., after a restore from a snapshot, aren't indexed.
+     */
+    public void setTxIndex(TxIndex txIndex) {
+        this.txIndex = txIndex;
+        if (txIndex != null) {
+            try {
+                for (BlockNode node : mainChain) {
+                    txIndex.connect(node.block);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public TxIndex getTxIndex() {
+        return txIndex;
+    }
+
+    /**
+     * @return the log holding the validation reports of the latest blocks
+     */
+    public BlockValidationLog getValidationLog() {
+        return validationLog;
+    }
+
+    /**
+     * @return the estimated memory held by the block nodes, i.e., the
+     * blocks and their undo records, by the live UTXO set and by the
+     * refused blocks, in bytes. The transaction pool accounts for its
+     * memory itself.
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes + utxoSet.getEstimatedBytes()
+                + MemoryEstimator.list(mainChain.size()) + refusedBytes;
+    }
+
+    /**
+     * @return the estimated memory held by the nodes which aren't on the
+     * main chain and can still be extended, in bytes
+     */
+    public long getEstimatedForkBytes() {
+        return forkBytes;
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    /**
+     * Limits the estimated memory held by the forks, see {@link
+     * #getEstimatedForkBytes()}, to {@code bytes}. The main chain doesn't
+     * count against the limit, and fork nodes which can no longer be
+     * extended are dropped. Once the limit is reached, a valid block which
+     * would start or extend a fork below the height of the longest branch
+     * is refused; blocks which extend or tie the longest branch are always
+     * added.
+     * <p/>
+     * The last {@link #MAX_REFUSED_BLOCKS} refused blocks, and the blocks
+     * built on them, are kept. As soon as such a branch would tie or
+     * overtake the longest branch, its blocks are validated and added
+     * regardless of the limit. The chain is unlimited by default.
+     */
+    public void setMemoryLimit(long bytes) {
+        memoryLimit = bytes;
+    }
+
+    /**
+     * Returns the block nodes which can still be extended, i.e., the nodes
+     * at {@code height >= maxHeight - CUT_OFF_AGE}, along with their
+     * ancestors down to a common ancestor, so that the live UTXO set can be
+     * moved between any two of the nodes. The nodes are ordered by height
+     * so that a parent always precedes its children.
+     */
+    List<BlockNode> getRecentNodes() {
+        int minHeight = currentMaxHeightNode.height - CUT_OFF_AGE;
+        Set<BlockNode> nodes = new HashSet<>();
+        Set<BlockNode> roots = new HashSet<>();
+        for (BlockNode node : nodeMap.values()) {
+            if (node.height >= minHeight) {
+                nodes.add(node);
+                if (node.parent == null || node.parent.height < minHeight) {
+                    roots.add(node);
+                }
+            }
+        }
+
+        BlockNode common = null;
+        for (BlockNode root : roots) {
+            common = common == null ? root : commonAncestor(common, root);
+        }
+        for (BlockNode root : roots) {
+            for (BlockNode node = root; node != common; node = node.parent) {
+                nodes.add(node.parent);
+            }
+        }
+
+        List<BlockNode> sorted = new ArrayList<>(nodes);
+        sorted.sort(Comparator.comparingInt(BlockNode::getHeight));
+
+        return sorted;
+    }
+
+    BlockNode getMaxHeightNode() {
+        return currentMaxHeightNode;
+    }
+
+    /**
+     * Moves the live UTXO set through the {@link #getRecentNodes() recent
+     * nodes}, comparing it with the set hash of each of them, and back to
+     * the max height node.
+     *
+     * @return false if the set differs from the set hash of any node
+     */
+    boolean verifySetHashes() {
+        boolean verified = true;
+        for (BlockNode node : getRecentNodes()) {
+            moveUtxoSet(node);
+            verified &= utxoSet.getSetHash().equals(node.setHash);
+        }
+        moveUtxoSet(currentMaxHeightNode);
+
+        return verified && utxoSet.getSetHash().equals(
+                currentMaxHeightNode.setHash);
+    }
+
+    /**
+     * Makes {@code tip} the top of the main chain index. Only the nodes of
+     * the new branch above the fork point are written, so extending the
+     * main chain by a block takes constant time and a reorganization time
+     * linear in its depth. The transaction index, if any, and the fork
+     * nodes follow the blocks which leave and join the main chain.
+     */
+    private void updateMainChain(BlockNode tip) {
+        int size = tip.height - mainChainBase + 1;
+        while (mainChain.size() > size) {
+            leaveMainChain(mainChain.remove(mainChain.size() - 1));
+        }
+        while (mainChain.size() < size) {
+            mainChain.add(null);
+        }
+
+        int forkIndex = size;
+        for (BlockNode node = tip; node != null; node = node.parent) {
+            int index = node.height - mainChainBase;
+            if (mainChain.get(index) == node) {
+                break;
+            }
+            leaveMainChain(mainChain.set(index, node));
+            if (forkNodes.remove(node)) {
+                forkBytes -= nodeBytes(node.block, node.undo);
+            }
+            forkIndex = index;
+        }
+
+        if (txIndex != null) {
+            try {
+                for (int i = forkIndex; i < size; i++) {
+                    txIndex.connect(mainChain.get(i).block);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void leaveMainChain(BlockNode node) {
+        if (node != null) {
+            if (txIndex != null) {
+                txIndex.disconnect(node.block);
+            }
+            forkNodes.add(node);
+            forkBytes += nodeBytes(node.block, node.undo);
+        }
+    }
+
+    /**
+     * Drops the fork nodes which can no longer be extended, i.e., the ones
+     * below {@code maxHeight - CUT_OFF_AGE}
+     */
+    private void pruneForks() {
+        int minHeight = currentMaxHeightNode.height - CUT_OFF_AGE;
+        for (Iterator<BlockNode> it = forkNodes.iterator(); it.hasNext(); ) {
+            BlockNode node = it.next();
+            if (node.height < minHeight) {
+                it.remove();
+                long bytes = nodeBytes(node.block, node.undo);
+                forkBytes -= bytes;
+                estimatedBytes -= bytes;
+                nodeMap.remove(ByteArrayWrapper.wrap(node.block.getHash()));
+                if (node.parent != null) {
+                    node.parent.children.remove(node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps {@code block}, which was refused for the memory limit or is
+     * built on a refused block, for {@link #connectRefusedBranch(Block)}
+     */
+    private void refuse(Block block) {
+        FORKS_REFUSED.increment();
+        ByteArrayWrapper blockId = new ByteArrayWrapper(block.getHash());
+        Block previous = refusedBlocks.remove(blockId);
+        if (previous != null) {
+            refusedBytes -= refusedBytes(previous);
+        }
+        refusedBlocks.put(blockId, block);
+        refusedBytes += refusedBytes(block);
+        if (refusedBlocks.size() > MAX_REFUSED_BLOCKS) {
+            Iterator<Block> eldest = refusedBlocks.values().iterator();
+            refusedBytes -= refusedBytes(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Adds the refused ancestors of {@code block} if the branch ending with
+     * {@code block} would tie or overtake the longest branch.
+     *
+     * @return false if the branch is still too short or one of its blocks
+     * can't be added
+     */
+    private boolean connectRefusedBranch(Block block) {
+        List<Block> branch = new ArrayList<>();
+        Block ancestor = refusedBlocks.get(
+                ByteArrayWrapper.wrap(block.getPrevBlockHash()));
+        while (ancestor != null) {
+            branch.add(ancestor);
+            ancestor = refusedBlocks.get(
+                    ByteArrayWrapper.wrap(ancestor.getPrevBlockHash()));
+        }
+
+        Block oldest = branch.get(branch.size() - 1);
+        BlockNode base = nodeMap.get(
+                ByteArrayWrapper.wrap(oldest.getPrevBlockHash()));
+        if (base == null
+                || base.height + branch.size() + 1
+                < currentMaxHeightNode.height) {
+            return false;
+        }
+
+        for (int i = branch.size() - 1; i >= 0; i--) {
+            Block refused = branch.get(i);
+            refusedBlocks.remove(ByteArrayWrapper.wrap(refused.getHash()));
+            refusedBytes -= refusedBytes(refused);
+            if (!addBlock(refused, false)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long refusedBytes(Block block) {
+        return MemoryEstimator.HASH_KEYED_ENTRY + MemoryEstimator.block(block);
+    }
+
+    private static long nodeBytes(Block block, BlockUndo undo) {
+        return MemoryEstimator.HASH_KEYED_ENTRY
+                + MemoryEstimator.blockNode(block, undo);
+    }
+
+    private void addCoinbaseTransaction(Block block, BlockUndo undo) {
         Transaction coinbase = block.getCoinbase();
-        txPool.addTransaction(coinbase);
+        byte[] txHash = coinbase.getHash().clone();
         for (int i = 0; i < coinbase.numOutputs(); i++) {
             Transaction.Output out = coinbase.getOutput(i);
-            UTXO utxo = new UTXO(coinbase.getHash(), i);
-            utxoPool.addUTXO(utxo, out);
+            undo.create(utxoSet, UTXO.wrap(txHash, i), out);
+        }
+    }
+
+    /**
+     * Reverts the changes of a block which isn't added after all, which
+     * leaves the live UTXO set at the parent of the block, and moves the
+     * set back to the max height node
+     */
+    private void revert(BlockUndo undo) {
+        undo.disconnect(utxoSet);
+        moveUtxoSet(currentMaxHeightNode);
+    }
+
+    /**
+     * Turns the live UTXO set into the UTXO pool of {@code target} by
+     * disconnecting the blocks from the current node down to the common
+     * ancestor and connecting the blocks from there up to {@code target}.
+     * {@code utxoSetNode} follows every step, so it names the pool of the
+     * set even if the move is cut short.
+     */
+    private void moveUtxoSet(BlockNode target) {
+        BlockNode common = commonAncestor(utxoSetNode, target);
+        while (utxoSetNode != common) {
+            utxoSetNode.undo.disconnect(utxoSet);
+            utxoSetNode = utxoSetNode.parent;
+        }
+
+        BlockNode[] connect = new BlockNode[target.height - common.height];
+        for (BlockNode node = target; node != common; node = node.parent) {
+            connect[node.height - common.height - 1] = node;
+        }
+        for (BlockNode node : connect) {
+            node.undo.connect(utxoSet);
+            utxoSetNode = node;
+        }
+    }
+
+    /**
+     * Returns the lowest common ancestor of {@code a} and {@code b}, which
+     * may be one of them, in {@code O(log n)} steps.
+     *
+     * @throws IllegalStateException if the nodes have no common ancestor
+     */
+    static BlockNode commonAncestor(BlockNode a, BlockNode b) {
+        if (a.height > b.height) {
+            a = a.getAncestor(b.height);
+        } else if (b.height > a.height) {
+            b = b.getAncestor(a.height);
+        }
+
+        // the nodes are at the same height, so their skip pointers are too
+        while (a != b && a != null && b != null) {
+            if (a.skip != b.skip && a.skip != null && b.skip != null) {
+                a = a.skip;
+                b = b.skip;
+            } else {
+                a = a.parent;
+                b = b.parent;
+            }
+        }
+        if (a == null || b == null) {
+            throw new IllegalStateException(
+                    "block node without a common ancestor");
         }
+
+        return a;
     }
 
-    private class BlockNode {
+    /**
+     * A block in the tree of blocks. A node doesn't hold its UTXO pool, only
+     * the set hash of the pool and the undo record of the block, which take
+     * the live UTXO set from the pool of its parent to its own pool and
+     * back.
+     * <p/>
+     * Besides its parent, every node points to an ancestor further down the
+     * chain, at a height given by {@link #skipHeight(int)}. Following these
+     * skip pointers reaches the ancestor at any height in {@code O(log n)}
+     * steps while every node holds just one more reference.
+     */
+    static class BlockNode {
         private Block block;
 
         private BlockNode parent;
 
-        private UTXOPool utxoPool;
+        /**
+         * The ancestor at {@code skipHeight(height)}, null if the ancestor
+         * is no longer available, e.g., below the oldest node restored from
+         * a snapshot
+         */
+        private BlockNode skip;
+
+        private UTXOSetHash setHash;
+
+        private BlockUndo undo;
 
         private List<BlockNode> children;
 
         private int height = 1;
 
-        public BlockNode(Block block, BlockNode parent, UTXOPool utxoPool) {
+        BlockNode(Block block, BlockNode parent, UTXOSetHash setHash,
+                  BlockUndo undo) {
+            this(block, parent, setHash, undo,
+                    parent == null ? 1 : parent.height + 1);
+        }
+
+        /**
+         * Creates a node whose parent is no longer available, e.g., the
+         * oldest node restored from a snapshot.
+         */
+        BlockNode(Block block, BlockNode parent, UTXOSetHash setHash,
+                  BlockUndo undo, int height) {
             this.block = block;
             this.parent = parent;
-            this.utxoPool = utxoPool;
+            this.setHash = setHash;
+            this.undo = undo;
             this.children = new ArrayList<>();
+            this.height = height;
 
             if (parent != null) {
-                height = parent.height + 1;
+                skip = parent.getAncestor(skipHeight(height));
                 parent.addChild(this);
             }
         }
 
-        public UTXOPool getUtxoPool() {
-            return new UTXOPool(utxoPool);
+        /**
+         * Returns the ancestor of this node at {@code height}, this node
+         * itself if it's at {@code height}.
+         *
+         * @return null if {@code height} is above this node or below the
+         * oldest available ancestor
+         */
+        BlockNode getAncestor(int height) {
+            if (height > this.height || height < 1) {
+                return null;
+            }
+
+            BlockNode node = this;
+            while (node != null && node.height > height) {
+                int nodeSkipHeight = skipHeight(node.height);
+                int parentSkipHeight = skipHeight(node.height - 1);
+                // skip unless the parent skips lower without overshooting
+                if (node.skip != null && (nodeSkipHeight == height
+                        || (nodeSkipHeight > height
+                        && !(parentSkipHeight < nodeSkipHeight - 2
+                        && parentSkipHeight >= height)))) {
+                    node = node.skip;
+                } else {
+                    node = node.parent;
+                }
+            }
+
+            return node;
+        }
+
+        /**
+         * @return true if this node is {@code node} or one of its
+         * ancestors
+         */
+        boolean isAncestorOf(BlockNode node) {
+            return node.getAncestor(height) == this;
+        }
+
+        /**
+         * Returns the height the skip pointer of a node at {@code height}
+         * points to. Clearing the lowest set bits of the height makes the
+         * skip pointers of neighbouring nodes reach down to very different
+         * heights, so that a walk which combines them and parent pointers
+         * needs {@code O(log n)} steps.
+         */
+        static int skipHeight(int height) {
+            if (height < 3) {
+                return 1;
+            }
+
+            // heights start at 1 and the lowest set bit is taken from the
+            // zero based height
+            int n = height - 1;
+            int skip = (n & 1) == 0 ? n & (n - 1)
+                    : clearLowestBit(clearLowestBit(n - 1)) + 1;
+
+            return skip + 1;
+        }
+
+        private static int clearLowestBit(int n) {
+            return n & (n - 1);
+        }
+
+        /**
+         * Returns the set hash of the UTXO pool of this node, which allows
+         * comparing the UTXO pools of two nodes in constant time.
+         */
+        public UTXOSetHash getSetHash() {
+            return new UTXOSetHash(setHash);
+        }
+
+        BlockUndo getUndo() {
+            return undo;
+        }
+
+        Block getBlock() {
+            return block;
+        }
+
+        BlockNode getParent() {
+            return parent;
+        }
+
+        int getHeight() {
+            return height;
         }
 
         public void addChild(BlockNode child) {
             children.add(child);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,646 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * {@code BlockChainSnapshot} writes the recent state of a {@link BlockChain}
+ * to a compact binary file and restores a block chain from it without
+ * replaying every block since the genesis block.
+ * <p/>
+ * A snapshot contains the block nodes which can still be extended, i.e., the
+ * last {@link BlockChain#CUT_OFF_AGE} blocks of every branch down to their
+ * common ancestor, along with the live UTXO set of the chain, the undo
+ * record of every node and the transaction pool. Every distinct UTXO is
+ * written only once into an entry table, which starts with the live UTXO
+ * set, and the undo records refer to the table by index.
+ * <p/>
+ * The file is a sequence of chunks, each guarded by a CRC32 checksum. The
+ * address and entry tables as well as the blocks are split across chunks
+ * which are verified and decoded in parallel when the snapshot is read.
+ * Every node also carries the {@link UTXOSetHash} of its pool. Once the
+ * chain is rebuilt, the live UTXO set is moved through all nodes and
+ * verified against each of them.
+ * <p/>
+ * If the chain has a {@link BlockJournal}, the snapshot records the
+ * sequence number of the last journal record it covers and the journal is
+ * truncated once the snapshot is in place.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class BlockChainSnapshot {
+
+    private static final int MAGIC = 0x424c4b53;
+
+    private static final int VERSION = 5;
+
+    private static final int ADDRESSES_PER_CHUNK = 1024;
+
+    private static final int ENTRIES_PER_CHUNK = 16384;
+
+    /**
+     * the largest chunk written or read, in bytes
+     */
+    static final int MAX_CHUNK_SIZE = 1 << 28;
+
+    private BlockChainSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of {@code chain} to {@code file}. The snapshot is
+     * first written to a temporary file which then replaces {@code file}, so
+     * an existing snapshot is never left half written. The chain must not be
+     * modified while the snapshot is being written.
+     */
+    public static void write(BlockChain chain, File file) throws IOException {
+        List<BlockChain.BlockNode> nodes = chain.getRecentNodes();
+
+        BlockJournal journal = chain.getJournal();
+        long journalSequence = 0;
+        if (journal != null) {
+            journal.sync();
+            journalSequence = journal.getLastSequence();
+        }
+
+        // the oldest node is never disconnected, so its undo record isn't
+        // written
+        BlockChain.BlockNode root = nodes.get(0);
+        Map<PublicKey, Integer> addressIds = new LinkedHashMap<>();
+        Map<UTXO, Integer> entryIds = new LinkedHashMap<>();
+        List<Transaction.Output> entryOutputs = new ArrayList<>();
+        UTXOPool utxoSet = chain.getMaxHeightUTXOPool();
+        for (UTXO utxo : utxoSet.getAllUTXO()) {
+            addEntry(utxo, utxoSet.getTxOutput(utxo), entryIds, entryOutputs,
+                    addressIds);
+        }
+        int numLiveEntries = entryIds.size();
+        for (BlockChain.BlockNode node : nodes) {
+            BlockUndo undo = node.getUndo();
+            for (int i = 0; node != root && i < undo.size(); i++) {
+                addEntry(undo.getUtxo(i), undo.getOutput(i), entryIds,
+                        entryOutputs, addressIds);
+            }
+        }
+
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            int numAddressChunks =
+                    numChunks(addressIds.size(), ADDRESSES_PER_CHUNK);
+            int numEntryChunks = numChunks(entryIds.size(), ENTRIES_PER_CHUNK);
+
+            ChunkWriter header = new ChunkWriter();
+            header.data.writeLong(journalSequence);
+            header.data.writeInt(numAddressChunks);
+            header.data.writeInt(numEntryChunks);
+            header.data.writeInt(nodes.size());
+            header.data.writeInt(numLiveEntries);
+            BlockCodec.writeBytes(header.data,
+                    chain.getMaxHeightBlock().getHash());
+            header.writeTo(out);
+
+            List<PublicKey> addresses = new ArrayList<>(addressIds.keySet());
+            for (int c = 0; c < numAddressChunks; c++) {
+                int from = c * ADDRESSES_PER_CHUNK;
+                int to = Math.min(from + ADDRESSES_PER_CHUNK, addresses.size());
+                ChunkWriter chunk = new ChunkWriter();
+                chunk.data.writeInt(to - from);
+                for (int i = from; i < to; i++) {
+                    BlockCodec.writeAddress(chunk.data, addresses.get(i));
+                }
+                chunk.writeTo(out);
+            }
+
+            List<UTXO> entries = new ArrayList<>(entryIds.keySet());
+            for (int c = 0; c < numEntryChunks; c++) {
+                int from = c * ENTRIES_PER_CHUNK;
+                int to = Math.min(from + ENTRIES_PER_CHUNK, entries.size());
+                ChunkWriter chunk = new ChunkWriter();
+                chunk.data.writeInt(to - from);
+                for (int i = from; i < to; i++) {
+                    UTXO utxo = entries.get(i);
+                    Transaction.Output output = entryOutputs.get(i);
+                    BlockCodec.writeBytes(chunk.data, utxo.getTxHash());
+                    chunk.data.writeInt(utxo.getIndex());
+                    chunk.data.writeLong(output.amount);
+                    writeVarInt(chunk.data, addressIds.get(output.address));
+                }
+                chunk.writeTo(out);
+            }
+
+            for (BlockChain.BlockNode node : nodes) {
+                ChunkWriter chunk = new ChunkWriter();
+                BlockCodec.writeBlock(chunk.data, node.getBlock());
+                chunk.data.writeInt(node.getHeight());
+                BlockCodec.writeBytes(chunk.data,
+                        node.getSetHash().toByteArray());
+                writeUndo(chunk.data,
+                        node == root ? new BlockUndo(0) : node.getUndo(),
+                        entryIds);
+                chunk.writeTo(out);
+            }
+
+            ChunkWriter txChunk = new ChunkWriter();
+            List<Transaction> txs = chain.getTransactionPool().getTransactions();
+            txChunk.data.writeInt(txs.size());
+            for (Transaction tx : txs) {
+                BlockCodec.writeTransaction(txChunk.data, tx);
+            }
+            txChunk.writeTo(out);
+        }
+
+        Files.move(tmpFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        if (journal != null) {
+            journal.truncate();
+        }
+    }
+
+    /**
+     * Reads the sequence number of the last {@link BlockJournal} record
+     * covered by the snapshot in {@code file}.
+     */
+    public static long readJournalSequence(File file) throws IOException {
+        try (SnapshotInputStream in = new SnapshotInputStream(file)) {
+            return readHeader(in).readLong();
+        }
+    }
+
+    /**
+     * Restores a block chain from a snapshot in {@code file}, decoding the
+     * snapshot with as many threads as there are available processors.
+     */
+    public static BlockChain read(File file) throws IOException {
+        return read(file, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Restores a block chain from a snapshot in {@code file}, decoding the
+     * snapshot with {@code parallelism} threads.
+     *
+     * @throws IOException if the file can't be read, isn't a snapshot or
+     *                     fails checksum verification
+     */
+    public static BlockChain read(File file, int parallelism)
+            throws IOException {
+        byte[][] addressChunks;
+        byte[][] entryChunks;
+        byte[][] nodeChunks;
+        byte[] txChunk;
+        byte[] tipHash;
+        int numLiveEntries;
+
+        try (SnapshotInputStream in = new SnapshotInputStream(file)) {
+            DataInputStream header = readHeader(in);
+            header.readLong();
+            addressChunks = new byte[header.readInt()][];
+            entryChunks = new byte[header.readInt()][];
+            nodeChunks = new byte[header.readInt()][];
+            numLiveEntries = header.readInt();
+            tipHash = BlockCodec.readBytes(header);
+
+            // the chunks are only read here, checksums are verified
+            // by the decoding tasks
+            for (int i = 0; i < addressChunks.length; i++) {
+                addressChunks[i] = readRawChunk(in);
+            }
+            for (int i = 0; i < entryChunks.length; i++) {
+                entryChunks[i] = readRawChunk(in);
+            }
+            for (int i = 0; i < nodeChunks.length; i++) {
+                nodeChunks[i] = readRawChunk(in);
+            }
+            txChunk = readRawChunk(in);
+        }
+
+        ExecutorService executor =
+                Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            List<Future<PublicKey[]>> addressFutures = new ArrayList<>();
+            for (byte[] chunk : addressChunks) {
+                addressFutures.add(executor.submit(() -> decodeAddresses(chunk)));
+            }
+            List<PublicKey> addresses = new ArrayList<>();
+            for (Future<PublicKey[]> future : addressFutures) {
+                addresses.addAll(Arrays.asList(get(future)));
+            }
+
+            List<Future<DecodedEntries>> entryFutures = new ArrayList<>();
+            for (byte[] chunk : entryChunks) {
+                entryFutures.add(executor.submit(
+                        () -> decodeEntries(chunk, addresses)));
+            }
+            List<Future<DecodedNode>> nodeFutures = new ArrayList<>();
+            for (byte[] chunk : nodeChunks) {
+                nodeFutures.add(executor.submit(() -> decodeNode(chunk)));
+            }
+            Future<TransactionPool> txPoolFuture =
+                    executor.submit(() -> decodeTransactionPool(txChunk));
+
+            List<UTXO> entries = new ArrayList<>();
+            List<Transaction.Output> entryOutputs = new ArrayList<>();
+            for (Future<DecodedEntries> future : entryFutures) {
+                DecodedEntries decoded = get(future);
+                entries.addAll(Arrays.asList(decoded.utxos));
+                entryOutputs.addAll(Arrays.asList(decoded.outputs));
+            }
+
+            if (numLiveEntries < 0 || numLiveEntries > entries.size()) {
+                throw new IOException("invalid number of live entries");
+            }
+            UTXOPool utxoSet = new UTXOPool();
+            for (int i = 0; i < numLiveEntries; i++) {
+                utxoSet.addUTXO(entries.get(i), entryOutputs.get(i));
+            }
+
+            List<BlockChain.BlockNode> nodes = new ArrayList<>();
+            Map<ByteArrayWrapper, BlockChain.BlockNode> nodeMap =
+                    new HashMap<>();
+            for (Future<DecodedNode> future : nodeFutures) {
+                DecodedNode decoded = get(future);
+                Block block = decoded.block;
+                BlockChain.BlockNode parent = null;
+                if (block.getPrevBlockHash() != null) {
+                    parent = nodeMap.get(
+                            new ByteArrayWrapper(block.getPrevBlockHash()));
+                }
+                if (parent == null && !nodes.isEmpty()) {
+                    throw new IOException("block node without a parent");
+                }
+
+                UTXOSetHash setHash;
+                try {
+                    setHash = UTXOSetHash.fromByteArray(decoded.setHash);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("invalid UTXO set hash", e);
+                }
+                BlockUndo undo = decoded.toUndo(entries, entryOutputs);
+                BlockChain.BlockNode node;
+                if (parent == null) {
+                    node = new BlockChain.BlockNode(block, null, setHash,
+                            undo, decoded.height);
+                } else {
+                    if (parent.getHeight() + 1 != decoded.height) {
+                        throw new IOException("inconsistent block height");
+                    }
+                    node = new BlockChain.BlockNode(block, parent, setHash,
+                            undo);
+                }
+
+                nodes.add(node);
+                nodeMap.put(new ByteArrayWrapper(block.getHash()), node);
+            }
+
+            BlockChain.BlockNode tip = nodeMap.get(new ByteArrayWrapper(tipHash));
+            if (tip == null) {
+                throw new IOException("max height block missing in snapshot");
+            }
+
+            BlockChain chain = new BlockChain(nodes, tip, utxoSet,
+                    get(txPoolFuture));
+            if (!chain.verifySetHashes()) {
+                throw new IOException("UTXO set hash mismatch");
+            }
+
+            return chain;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static DataInputStream readHeader(SnapshotInputStream in)
+            throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a block chain snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported snapshot version: " + version);
+        }
+
+        return new DataInputStream(new ByteArrayInputStream(readChunk(in)));
+    }
+
+    private static PublicKey[] decodeAddresses(byte[] chunk)
+            throws IOException {
+        DataInputStream in = verifyChunk(chunk);
+        KeyFactory keyFactory = BlockCodec.newKeyFactory();
+        PublicKey[] addresses = new PublicKey[in.readInt()];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = BlockCodec.readAddress(in, keyFactory);
+        }
+
+        return addresses;
+    }
+
+    private static DecodedEntries decodeEntries(byte[] chunk,
+                                                List<PublicKey> addresses)
+            throws IOException {
+        DataInputStream in = verifyChunk(chunk);
+        // outputs have to be created within a transaction
+        Transaction holder = new Transaction();
+        int count = in.readInt();
+        DecodedEntries entries = new DecodedEntries(count);
+        for (int i = 0; i < count; i++) {
+            byte[] txHash = BlockCodec.readBytes(in);
+            int index = in.readInt();
+            long amount = in.readLong();
+            int addressId = readVarInt(in);
+            if (addressId >= addresses.size()) {
+                throw new IOException("invalid address reference");
+            }
+            entries.utxos[i] = new UTXO(txHash, index);
+            entries.outputs[i] =
+                    holder.new Output(addresses.get(addressId), amount);
+        }
+
+        return entries;
+    }
+
+    private static DecodedNode decodeNode(byte[] chunk) throws IOException {
+        DataInputStream in = verifyChunk(chunk);
+        DecodedNode node = new DecodedNode();
+        node.block = BlockCodec.readBlock(in, BlockCodec.newKeyFactory());
+        node.height = in.readInt();
+        node.setHash = BlockCodec.readBytes(in);
+        node.changes = new int[readVarInt(in)];
+        for (int i = 0; i < node.changes.length; i++) {
+            node.changes[i] = readVarInt(in);
+        }
+
+        return node;
+    }
+
+    private static TransactionPool decodeTransactionPool(byte[] chunk)
+            throws IOException {
+        DataInputStream in = verifyChunk(chunk);
+        KeyFactory keyFactory = BlockCodec.newKeyFactory();
+        TransactionPool txPool = new TransactionPool();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            txPool.addTransaction(BlockCodec.readTransaction(in, keyFactory));
+        }
+
+        return txPool;
+    }
+
+    private static void addEntry(UTXO utxo, Transaction.Output output,
+                                 Map<UTXO, Integer> entryIds,
+                                 List<Transaction.Output> entryOutputs,
+                                 Map<PublicKey, Integer> addressIds) {
+        if (!entryIds.containsKey(utxo)) {
+            entryIds.put(utxo, entryIds.size());
+            entryOutputs.add(output);
+            if (!addressIds.containsKey(output.address)) {
+                addressIds.put(output.address, addressIds.size());
+            }
+        }
+    }
+
+    /**
+     * Writes the changes of {@code undo} in order, each as the entry id and
+     * the type of the change packed into a variable length integer.
+     */
+    private static void writeUndo(DataOutput out, BlockUndo undo,
+                                  Map<UTXO, Integer> entryIds)
+            throws IOException {
+        writeVarInt(out, undo.size());
+        for (int i = 0; i < undo.size(); i++) {
+            writeVarInt(out,
+                    entryIds.get(undo.getUtxo(i)) << 2 | undo.getType(i));
+        }
+    }
+
+    private static void writeVarInt(DataOutput out, int value)
+            throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed variable length integer");
+    }
+
+    private static int numChunks(int count, int chunkSize) {
+        return (count + chunkSize - 1) / chunkSize;
+    }
+
+    /**
+     * Reads a chunk including its length and checksum without verifying it.
+     * The length is checked against the bytes left in the file before the
+     * chunk is allocated.
+     */
+    private static byte[] readRawChunk(SnapshotInputStream in)
+            throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_CHUNK_SIZE
+                || length + 4L > in.getRemaining()) {
+            throw new IOException("corrupt snapshot chunk");
+        }
+
+        byte[] chunk = new byte[length + 4];
+        in.readFully(chunk);
+        return chunk;
+    }
+
+    private static byte[] readChunk(SnapshotInputStream in)
+            throws IOException {
+        byte[] chunk = readRawChunk(in);
+        verifyChunk(chunk);
+        return Arrays.copyOfRange(chunk, 4, chunk.length);
+    }
+
+    /**
+     * Verifies the checksum of a raw chunk and returns a stream over its
+     * data.
+     */
+    private static DataInputStream verifyChunk(byte[] chunk)
+            throws IOException {
+        int expected = ((chunk[0] & 0xFF) << 24) | ((chunk[1] & 0xFF) << 16)
+                | ((chunk[2] & 0xFF) << 8) | (chunk[3] & 0xFF);
+        CRC32 crc = new CRC32();
+        crc.update(chunk, 4, chunk.length - 4);
+        if ((int) crc.getValue() != expected) {
+            throw new IOException("snapshot checksum mismatch");
+        }
+
+        return new DataInputStream(
+                new ByteArrayInputStream(chunk, 4, chunk.length - 4));
+    }
+
+    private static <T> T get(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while reading snapshot", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("failed to read snapshot", e.getCause());
+        }
+    }
+
+    /**
+     * Buffers the data of a chunk until it's written along with its length
+     * and checksum.
+     */
+    private static class ChunkWriter {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream data = new DataOutputStream(bytes);
+
+        void writeTo(DataOutputStream out) throws IOException {
+            data.flush();
+            byte[] payload = bytes.toByteArray();
+            if (payload.length > MAX_CHUNK_SIZE) {
+                throw new IOException("snapshot chunk too large: "
+                        + payload.length + " bytes");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            out.writeInt(payload.length);
+            out.writeInt((int) crc.getValue());
+            out.write(payload);
+        }
+    }
+
+    /**
+     * The stream of a snapshot file which keeps track of the bytes left in
+     * the file.
+     */
+    private static class SnapshotInputStream extends DataInputStream {
+        SnapshotInputStream(File file) throws IOException {
+            super(new CountingInputStream(file));
+        }
+
+        long getRemaining() {
+            return ((CountingInputStream) in).remaining;
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long remaining;
+
+        CountingInputStream(File file) throws IOException {
+            super(new BufferedInputStream(new FileInputStream(file)));
+            remaining = file.length();
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * A block node as read from a snapshot, before it's linked to its
+     * parent.
+     */
+    private static class DecodedNode {
+        private Block block;
+
+        private int height;
+
+        private byte[] setHash;
+
+        private int[] changes;
+
+        BlockUndo toUndo(List<UTXO> entries,
+                         List<Transaction.Output> outputs) throws IOException {
+            BlockUndo undo = new BlockUndo(changes.length);
+            for (int change : changes) {
+                int id = change >>> 2;
+                byte type = (byte) (change & 3);
+                if (id >= entries.size() || type > BlockUndo.REPLACE) {
+                    throw new IOException("invalid undo record");
+                }
+                undo.add(type, entries.get(id), outputs.get(id));
+            }
+
+            return undo;
+        }
+    }
+
+    /**
+     * A chunk of the entry table as read from a snapshot.
+     */
+    private static class DecodedEntries {
+        private final UTXO[] utxos;
+
+        private final Transaction.Output[] outputs;
+
+        DecodedEntries(int count) {
+            utxos = new UTXO[count];
+            outputs = new Transaction.Output[count];
+        }
+    }
+}
@@ -0,0 +1,176 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+
+/**
+ * {@code BlockCodec} reads and writes blocks, transactions and addresses in
+ * a compact binary form.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class BlockCodec {
+
+    private BlockCodec() {
+    }
+
+    /**
+     * Creates a key factory for decoding RSA addresses. A key factory isn't
+     * thread safe, every reading thread should create its own.
+     */
+    public static KeyFactory newKeyFactory() {
+        try {
+            return KeyFactory.getInstance("RSA");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void writeBytes(DataOutput out, byte[] bytes)
+            throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    public static byte[] readBytes(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    public static void writeAddress(DataOutput out, PublicKey address)
+            throws IOException {
+        writeBytes(out, address.getEncoded());
+    }
+
+    public static PublicKey readAddress(DataInput in, KeyFactory keyFactory)
+            throws IOException {
+        byte[] encoded = readBytes(in);
+        if (encoded == null) {
+            throw new IOException("missing address");
+        }
+
+        try {
+            return keyFactory.generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (InvalidKeySpecException e) {
+            throw new IOException("invalid address", e);
+        }
+    }
+
+    public static void writeTransaction(DataOutput out, Transaction tx)
+            throws IOException {
+        out.writeBoolean(tx.isCoinbase());
+        writeBytes(out, tx.getHash());
+
+        out.writeInt(tx.numInputs());
+        for (Transaction.Input input : tx.getInputs()) {
+            writeBytes(out, input.prevTxHash);
+            out.writeInt(input.outputIndex);
+            writeBytes(out, input.signature);
+        }
+
+        out.writeInt(tx.numOutputs());
+        for (Transaction.Output output : tx.getOutputs()) {
+            out.writeLong(output.amount);
+            writeAddress(out, output.address);
+        }
+    }
+
+    public static Transaction readTransaction(DataInput in,
+                                              KeyFactory keyFactory)
+            throws IOException {
+        boolean coinbase = in.readBoolean();
+        byte[] hash = readBytes(in);
+
+        int numInputs = in.readInt();
+        Transaction tx = new Transaction();
+        for (int i = 0; i < numInputs; i++) {
+            tx.addInput(readBytes(in), in.readInt());
+            tx.addSignature(readBytes(in), i);
+        }
+
+        int numOutputs = in.readInt();
+        for (int i = 0; i < numOutputs; i++) {
+            tx.addOutputAmount(in.readLong(), readAddress(in, keyFactory));
+        }
+
+        if (coinbase) {
+            if (numInputs != 0 || numOutputs != 1) {
+                throw new IOException("malformed coinbase transaction");
+            }
+            Transaction.Output output = tx.getOutput(0);
+            tx = Transaction.newCoinbase(output.amount, output.address);
+            if (!Arrays.equals(hash, tx.getHash())) {
+                throw new IOException("coinbase transaction hash mismatch");
+            }
+        } else {
+            tx.setHash(hash);
+        }
+
+        return tx;
+    }
+
+    /**
+     * Writes a finalized {@code block}. The coinbase is written with its
+     * address only since its value is always {@link Block#COINBASE_AMOUNT}.
+     */
+    public static void writeBlock(DataOutput out, Block block)
+            throws IOException {
+        writeBytes(out, block.getPrevBlockHash());
+        writeBytes(out, block.getHash());
+
+        Transaction coinbase = block.getCoinbase();
+        writeAddress(out, coinbase.getOutput(0).address);
+        writeBytes(out, coinbase.getHash());
+
+        out.writeInt(block.getTransactions().size());
+        for (Transaction tx : block.getTransactions()) {
+            writeTransaction(out, tx);
+        }
+    }
+
+    /**
+     * Reads a block written by {@link #writeBlock(DataOutput, Block)}. The
+     * block is finalized again and its hash as well as its coinbase hash are
+     * verified against the written ones.
+     */
+    public static Block readBlock(DataInput in, KeyFactory keyFactory)
+            throws IOException {
+        byte[] prevHash = readBytes(in);
+        byte[] hash = readBytes(in);
+
+        Block block = new Block(prevHash, readAddress(in, keyFactory));
+        byte[] coinbaseHash = readBytes(in);
+        if (!Arrays.equals(coinbaseHash, block.getCoinbase().getHash())) {
+            throw new IOException("coinbase transaction hash mismatch");
+        }
+
+        int numTxs = in.readInt();
+        for (int i = 0; i < numTxs; i++) {
+            block.addTransaction(readTransaction(in, keyFactory));
+        }
+
+        block.finalize();
+        if (!Arrays.equals(hash, block.getHash())) {
+            throw new IOException("block hash mismatch");
+        }
+
+        return block;
+    }
+}
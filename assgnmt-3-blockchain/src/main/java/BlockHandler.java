@@ -1,6 +1,10 @@
 import java.security.PublicKey;
 
 public class BlockHandler {
+
+    private static final LatencyHistogram CREATE_BLOCK_LATENCY =
+            MetricsRegistry.getDefault().histogram("blockhandler.createBlock");
+
     private BlockChain blockChain;
 
     /**
@@ -25,6 +29,7 @@ public class BlockHandler {
      * create a new {@code block} over the max height {@code block}
      */
     public Block createBlock(PublicKey myAddress) {
+        long start = System.nanoTime();
         Block parent = blockChain.getMaxHeightBlock();
         byte[] parentHash = parent.getHash();
         Block current = new Block(parentHash, myAddress);
@@ -37,7 +42,9 @@ public class BlockHandler {
             current.addTransaction(rTxs[i]);
 
         current.finalize();
-        if (blockChain.addBlock(current))
+        boolean added = blockChain.addBlock(current);
+        CREATE_BLOCK_LATENCY.recordSince(start);
+        if (added)
             return current;
         else
             return null;
@@ -0,0 +1,369 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.KeyFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * {@code BlockJournal} is an append-only, write-ahead journal of the blocks
+ * and transactions accepted by a {@link BlockChain}.
+ * <p/>
+ * Every record carries a sequence number and a CRC32 checksum. Records are
+ * buffered and the journal is synced to disk in groups, either once {@code
+ * batchSize} records are pending or at the latest {@code maxSyncDelayMillis}
+ * after the first pending record, so the cost of an fsync is shared by many
+ * records. A torn record at the end of the journal, as left by a crash, is
+ * discarded when the journal is reopened.
+ * <p/>
+ * On startup, {@link #recover(File, File, Block)} restores the latest
+ * {@link BlockChainSnapshot} and replays the journal records written after
+ * it.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class BlockJournal implements Closeable {
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    public static final long DEFAULT_MAX_SYNC_DELAY_MILLIS = 50;
+
+    private static final byte BLOCK_RECORD = 1;
+
+    private static final byte TRANSACTION_RECORD = 2;
+
+    private static final byte CHECKPOINT_RECORD = 3;
+
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final File file;
+
+    private final int batchSize;
+
+    private final long maxSyncDelayMillis;
+
+    private final ScheduledExecutorService syncer;
+
+    private FileOutputStream fileOut;
+
+    private DataOutputStream out;
+
+    private long lastSequence;
+
+    private int pendingRecords;
+
+    private ScheduledFuture<?> pendingSync;
+
+    /**
+     * Opens the journal in {@code file} with the default group commit
+     * settings, creating the file if it doesn't exist.
+     */
+    public BlockJournal(File file) throws IOException {
+        this(file, DEFAULT_BATCH_SIZE, DEFAULT_MAX_SYNC_DELAY_MILLIS);
+    }
+
+    /**
+     * Opens the journal in {@code file}, creating the file if it doesn't
+     * exist. Any torn or corrupted records at the end of the journal are
+     * truncated.
+     *
+     * @param batchSize          the number of pending records which forces a
+     *                           sync
+     * @param maxSyncDelayMillis the maximum time a record stays pending
+     *                           before it's synced
+     */
+    public BlockJournal(File file, int batchSize, long maxSyncDelayMillis)
+            throws IOException {
+        this(file, batchSize, maxSyncDelayMillis, 0);
+    }
+
+    /**
+     * Opens the journal in {@code file} like {@link #BlockJournal(File, int,
+     * long)}, numbering new records after {@code minSequence} at least, e.g.,
+     * the journal sequence of the snapshot the chain was restored from.
+     * Otherwise a journal which lost its records would number them from 1
+     * again, and replay would skip them as covered by the snapshot.
+     */
+    public BlockJournal(File file, int batchSize, long maxSyncDelayMillis,
+                        long minSequence) throws IOException {
+        this.file = file;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxSyncDelayMillis = maxSyncDelayMillis;
+
+        ScanResult scan = scan(file, Long.MAX_VALUE, null);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() > scan.validLength) {
+                raf.setLength(scan.validLength);
+            }
+        }
+        lastSequence = Math.max(scan.lastSequence, minSequence);
+
+        open();
+        syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "block-journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Appends an accepted {@code block} to the journal.
+     *
+     * @return the sequence number of the record
+     */
+    public long appendBlock(Block block) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeByte(BLOCK_RECORD);
+        BlockCodec.writeBlock(data, block);
+        return append(bytes.toByteArray());
+    }
+
+    /**
+     * Appends a transaction added to the transaction pool to the journal.
+     *
+     * @return the sequence number of the record
+     */
+    public long appendTransaction(Transaction tx) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeByte(TRANSACTION_RECORD);
+        BlockCodec.writeTransaction(data, tx);
+        return append(bytes.toByteArray());
+    }
+
+    /**
+     * Writes all pending records to disk and waits until they are durable.
+     */
+    public synchronized void sync() throws IOException {
+        if (pendingSync != null) {
+            pendingSync.cancel(false);
+            pendingSync = null;
+        }
+        if (pendingRecords > 0) {
+            out.flush();
+            fileOut.getChannel().force(false);
+            pendingRecords = 0;
+        }
+    }
+
+    /**
+     * Discards all records once they are covered by a snapshot. The journal
+     * then starts with a checkpoint record carrying the last sequence
+     * number, so sequence numbers keep increasing across truncations.
+     * <p/>
+     * The checkpoint is written and synced to a temporary file, which then
+     * replaces the journal in an atomic rename, so a crash leaves either
+     * the old journal or the checkpoint, never an empty journal.
+     */
+    public synchronized void truncate() throws IOException {
+        sync();
+
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try (FileOutputStream tmpOut = new FileOutputStream(tmpFile)) {
+            DataOutputStream tmpData = new DataOutputStream(tmpOut);
+            writeRecord(tmpData, lastSequence,
+                    new byte[]{CHECKPOINT_RECORD});
+            tmpData.flush();
+            tmpOut.getChannel().force(true);
+        }
+
+        out.close();
+        try {
+            Files.move(tmpFile.toPath(), file.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            open();
+        }
+    }
+
+    /**
+     * @return the sequence number of the last record appended to the journal
+     */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public void close() throws IOException {
+        syncer.shutdownNow();
+        synchronized (this) {
+            sync();
+            out.close();
+        }
+    }
+
+    private synchronized long append(byte[] payload) throws IOException {
+        long sequence = lastSequence + 1;
+        writeRecord(out, sequence, payload);
+        lastSequence = sequence;
+
+        pendingRecords++;
+        if (pendingRecords >= batchSize) {
+            sync();
+        } else if (pendingSync == null) {
+            pendingSync = syncer.schedule(this::syncQuietly,
+                    maxSyncDelayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        return sequence;
+    }
+
+    private static void writeRecord(DataOutputStream out, long sequence,
+                                    byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(longToBytes(sequence));
+        crc.update(payload);
+
+        out.writeInt(payload.length + 8);
+        out.writeInt((int) crc.getValue());
+        out.writeLong(sequence);
+        out.write(payload);
+    }
+
+    private void syncQuietly() {
+        try {
+            synchronized (this) {
+                pendingSync = null;
+                sync();
+            }
+        } catch (IOException e) {
+            e.printStackTrace(System.err);
+        }
+    }
+
+    private void open() throws IOException {
+        fileOut = new FileOutputStream(file, true);
+        out = new DataOutputStream(new BufferedOutputStream(fileOut, 65536));
+    }
+
+    /**
+     * Replays the records of the journal in {@code file} with a sequence
+     * number greater than {@code afterSequence} onto {@code chain}. Replay
+     * stops at the first torn or corrupted record.
+     *
+     * @return the sequence number of the last valid record in the journal
+     */
+    public static long replay(File file, long afterSequence, BlockChain chain)
+            throws IOException {
+        return scan(file, afterSequence, chain).lastSequence;
+    }
+
+    /**
+     * Recovers a block chain after a restart. The chain is restored from
+     * {@code snapshotFile} if it exists, otherwise it starts with {@code
+     * genesisBlock}. The journal records written after the snapshot are
+     * then replayed and the journal is attached to the recovered chain.
+     */
+    public static BlockChain recover(File snapshotFile, File journalFile,
+                                     Block genesisBlock) throws IOException {
+        BlockChain chain;
+        long snapshotSequence = 0;
+        if (snapshotFile.exists()) {
+            chain = BlockChainSnapshot.read(snapshotFile);
+            snapshotSequence =
+                    BlockChainSnapshot.readJournalSequence(snapshotFile);
+        } else {
+            chain = new BlockChain(genesisBlock);
+        }
+
+        replay(journalFile, snapshotSequence, chain);
+        chain.setJournal(new BlockJournal(journalFile, DEFAULT_BATCH_SIZE,
+                DEFAULT_MAX_SYNC_DELAY_MILLIS, snapshotSequence));
+
+        return chain;
+    }
+
+    /**
+     * Reads the valid records of a journal and applies the ones after
+     * {@code afterSequence} to {@code chain} if it isn't {@code null}.
+     */
+    private static ScanResult scan(File file, long afterSequence,
+                                   BlockChain chain) throws IOException {
+        ScanResult result = new ScanResult();
+        if (!file.exists()) {
+            return result;
+        }
+
+        KeyFactory keyFactory = BlockCodec.newKeyFactory();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                byte[] record;
+                int expectedCrc;
+                try {
+                    int length = in.readInt();
+                    expectedCrc = in.readInt();
+                    if (length < 9 || length > file.length()) {
+                        break;
+                    }
+                    record = new byte[length];
+                    in.readFully(record);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(record);
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+
+                DataInputStream data =
+                        new DataInputStream(new ByteArrayInputStream(record));
+                long sequence = data.readLong();
+                if (chain != null && sequence > afterSequence) {
+                    byte type = data.readByte();
+                    if (type == BLOCK_RECORD) {
+                        chain.addBlock(BlockCodec.readBlock(data, keyFactory));
+                    } else if (type == TRANSACTION_RECORD) {
+                        chain.addTransaction(
+                                BlockCodec.readTransaction(data, keyFactory));
+                    } else if (type != CHECKPOINT_RECORD) {
+                        throw new IOException(
+                                "unknown journal record type: " + type);
+                    }
+                }
+
+                result.lastSequence = sequence;
+                result.validLength += RECORD_HEADER_SIZE + record.length;
+            }
+        }
+
+        return result;
+    }
+
+    private static byte[] longToBytes(long value) {
+        byte[] bytes = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+
+        return bytes;
+    }
+
+    private static class ScanResult {
+        private long lastSequence;
+
+        private long validLength;
+    }
+}
@@ -0,0 +1,69 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * {@code BlockStageEvent} is a Java Flight Recorder event spanning one stage
+ * of {@link BlockChain#addBlock(Block)}, nested in a {@link
+ * BlockValidationEvent}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@Name("blockchain.BlockStage")
+@Label("Block Stage")
+@Category({"Block Chain", "Validation"})
+@Description("A stage of adding a block to the block chain")
+@StackTrace(false)
+public class BlockStageEvent extends jdk.jfr.Event {
+
+    public static final String PARENT_LOOKUP = "parent lookup";
+
+    public static final String UTXO_VIEW = "utxo view";
+
+    public static final String TX_VALIDATION = "transaction validation";
+
+    public static final String COINBASE = "coinbase insertion";
+
+    public static final String NODE_INSERTION = "node insertion";
+
+    public static final String TIP_UPDATE = "tip update";
+
+    public static final String JOURNAL = "journal append";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Block Hash")
+    String blockHash;
+
+    @Label("Transactions")
+    @Description("Number of transactions handled in the stage")
+    int numTxs;
+
+    /**
+     * @return a new event for {@code stage}, started now
+     */
+    static BlockStageEvent start(String stage) {
+        BlockStageEvent event = new BlockStageEvent();
+        event.stage = stage;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the stage of {@code block} and commits the event if it's enabled
+     * and took long enough
+     */
+    void finish(Block block, int numTxs) {
+        end();
+        if (shouldCommit()) {
+            blockHash = BlockValidationEvent.toHex(block.getHash());
+            this.numTxs = numTxs;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+import java.util.Arrays;
+
+/**
+ * {@code BlockUndo} records the changes a block makes to the live UTXO set
+ * of a {@link BlockChain}: the UTXOs its transactions spend, along with the
+ * spent outputs, and the UTXOs they create. With the record the block can be
+ * disconnected from the UTXO set, restoring the set of its parent, and
+ * connected again without validating it a second time.
+ * <p/>
+ * The changes are kept in the order they were made, so that undoing them in
+ * reverse order is correct even when a transaction spends an output created
+ * earlier in the same block. A UTXO which is created while it's already in
+ * the set, e.g., the coinbase of a miner who mined before, is recorded as a
+ * replacement and stays in the set when the block is disconnected.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class BlockUndo {
+
+    static final byte SPEND = 0;
+
+    static final byte CREATE = 1;
+
+    static final byte REPLACE = 2;
+
+    private UTXO[] utxos;
+
+    private Transaction.Output[] outputs;
+
+    private byte[] types;
+
+    private int size;
+
+    public BlockUndo() {
+        this(4);
+    }
+
+    BlockUndo(int capacity) {
+        utxos = new UTXO[capacity];
+        outputs = new Transaction.Output[capacity];
+        types = new byte[capacity];
+    }
+
+    /**
+     * Removes {@code utxo} from {@code pool} and records it along with its
+     * output, if it's in the pool
+     */
+    void spend(UTXOPool pool, UTXO utxo) {
+        Transaction.Output output = pool.getTxOutput(utxo);
+        if (output != null) {
+            pool.removeUTXO(utxo);
+            add(SPEND, utxo, output);
+        }
+    }
+
+    /**
+     * Adds {@code utxo} to {@code pool} and records it
+     */
+    void create(UTXOPool pool, UTXO utxo, Transaction.Output output) {
+        byte type = pool.contains(utxo) ? REPLACE : CREATE;
+        pool.addUTXO(utxo, output);
+        add(type, utxo, output);
+    }
+
+    /**
+     * Re-applies the recorded changes to {@code pool}, which must be the
+     * UTXO set of the parent of the block
+     */
+    void connect(UTXOPool pool) {
+        for (int i = 0; i < size; i++) {
+            if (types[i] == SPEND) {
+                pool.removeUTXO(utxos[i]);
+            } else {
+                pool.addUTXO(utxos[i], outputs[i]);
+            }
+        }
+    }
+
+    /**
+     * Reverts the recorded changes in {@code pool}, which must be the UTXO
+     * set of the block, restoring the set of the parent of the block
+     */
+    void disconnect(UTXOPool pool) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (types[i] == CREATE) {
+                pool.removeUTXO(utxos[i]);
+            } else {
+                pool.addUTXO(utxos[i], outputs[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the number of recorded changes
+     */
+    public int size() {
+        return size;
+    }
+
+    UTXO getUtxo(int i) {
+        return utxos[i];
+    }
+
+    Transaction.Output getOutput(int i) {
+        return outputs[i];
+    }
+
+    /**
+     * @return {@link #SPEND}, {@link #CREATE} or {@link #REPLACE}
+     */
+    byte getType(int i) {
+        return types[i];
+    }
+
+    /**
+     * Records a change without applying it, e.g., as read from a snapshot
+     */
+    void add(byte type, UTXO utxo, Transaction.Output output) {
+        if (size == types.length) {
+            int capacity = Math.max(4, size * 2);
+            utxos = Arrays.copyOf(utxos, capacity);
+            outputs = Arrays.copyOf(outputs, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        utxos[size] = utxo;
+        outputs[size] = output;
+        types[size] = type;
+        size++;
+    }
+
+    /**
+     * Releases the spare capacity once the block is complete
+     */
+    void trim() {
+        if (size < types.length) {
+            utxos = Arrays.copyOf(utxos, size);
+            outputs = Arrays.copyOf(outputs, size);
+            types = Arrays.copyOf(types, size);
+        }
+    }
+}
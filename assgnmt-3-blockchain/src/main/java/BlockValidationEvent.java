@@ -0,0 +1,79 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * {@code BlockValidationEvent} is a Java Flight Recorder event spanning a
+ * whole {@link BlockChain#addBlock(Block)} call. The stages of the call are
+ * recorded as nested {@link BlockStageEvent}s, the transactions and
+ * signatures checked as {@link TxValidationEvent}s and {@link
+ * SignatureVerificationEvent}s.
+ * <p/>
+ * The events are enabled with the standard JFR settings, e.g., {@code
+ * -XX:StartFlightRecording}. While they are disabled, emitting one costs
+ * next to nothing and the fields are never computed.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@Name("blockchain.BlockValidation")
+@Label("Block Validation")
+@Category({"Block Chain", "Validation"})
+@Description("Validation and insertion of a block")
+@StackTrace(false)
+public class BlockValidationEvent extends jdk.jfr.Event {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Label("Block Hash")
+    String blockHash;
+
+    @Label("Height")
+    @Description("Height of the block, 0 if its parent is unknown")
+    int height;
+
+    @Label("Transactions")
+    int numTxs;
+
+    @Label("Block Size")
+    @DataAmount
+    long blockSize;
+
+    @Label("Accepted")
+    boolean accepted;
+
+    /**
+     * Sets the fields of the event and commits it if it's enabled and took
+     * long enough
+     */
+    void commit(Block block, boolean accepted) {
+        end();
+        if (shouldCommit()) {
+            if (block != null) {
+                blockHash = toHex(block.getHash());
+                numTxs = block.getTransactions().size();
+                blockSize = block.getRawBlock().length;
+            }
+            this.accepted = accepted;
+            commit();
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+
+        return new String(hex);
+    }
+}
@@ -0,0 +1,116 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code BlockValidationLog} keeps the {@link BlockValidationReport}s of the
+ * latest blocks added to a {@link BlockChain} in a ring buffer, and appends
+ * the reports of slow blocks to a log file.
+ * <p/>
+ * The log can be read from another thread while the chain adds blocks.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class BlockValidationLog {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final Counter SLOW_BLOCKS =
+            MetricsRegistry.getDefault().counter("blockchain.blocks.slow");
+
+    private final BlockValidationReport[] reports;
+
+    private long numReports;
+
+    private File slowBlockFile;
+
+    private long slowThresholdNanos = Long.MAX_VALUE;
+
+    public BlockValidationLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(
+                    "capacity must be positive: " + capacity);
+        }
+        reports = new BlockValidationReport[capacity];
+    }
+
+    /**
+     * Keeps {@code report}, replacing the oldest report once the buffer is
+     * full, and appends it to the slow block log if the validation took at
+     * least the threshold. A failure to write the slow block log doesn't
+     * affect the block.
+     */
+    public synchronized void add(BlockValidationReport report) {
+        reports[(int) (numReports++ % reports.length)] = report;
+
+        if (report.getTotalNanos() >= slowThresholdNanos) {
+            SLOW_BLOCKS.increment();
+            if (slowBlockFile != null) {
+                try {
+                    Files.write(slowBlockFile.toPath(),
+                            Collections.singletonList(report.toString()),
+                            StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.APPEND);
+                } catch (IOException e) {
+                    // the report stays in the buffer
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the kept reports, oldest first
+     */
+    public synchronized List<BlockValidationReport> getReports() {
+        int size = (int) Math.min(numReports, reports.length);
+        List<BlockValidationReport> recent = new ArrayList<>(size);
+        for (long i = numReports - size; i < numReports; i++) {
+            recent.add(reports[(int) (i % reports.length)]);
+        }
+
+        return recent;
+    }
+
+    /**
+     * @return the report of the latest block, null if there is none
+     */
+    public synchronized BlockValidationReport getLatest() {
+        return numReports == 0
+                ? null : reports[(int) ((numReports - 1) % reports.length)];
+    }
+
+    /**
+     * @return the number of reports added so far, including those which
+     * were replaced
+     */
+    public synchronized long getNumReports() {
+        return numReports;
+    }
+
+    /**
+     * Appends the report of every block whose validation takes at least
+     * {@code thresholdNanos} to {@code file}, one line per block, or stops
+     * logging slow blocks if {@code file} is null. Slow blocks are counted
+     * even without a file.
+     */
+    public synchronized void setSlowBlockLog(File file, long thresholdNanos) {
+        slowBlockFile = file;
+        slowThresholdNanos = thresholdNanos;
+    }
+
+    public synchronized File getSlowBlockFile() {
+        return slowBlockFile;
+    }
+
+    public synchronized long getSlowThresholdNanos() {
+        return slowThresholdNanos;
+    }
+}
@@ -0,0 +1,219 @@
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code BlockValidationReport} describes a single {@link
+ * BlockChain#addBlock(Block)} call: the size of the block, the work spent
+ * validating it, the time spent in each phase and, if the block was
+ * rejected, why.
+ * <p/>
+ * The phases are named like the {@link BlockStageEvent} stages, and a
+ * stage event is emitted for each phase as it ends. The reports of the
+ * latest blocks are kept by the {@link BlockValidationLog} of the chain.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class BlockValidationReport {
+
+    public static final String NULL_BLOCK = "null block";
+
+    public static final String GENESIS_BLOCK = "genesis block";
+
+    public static final String DUPLICATE = "duplicate block";
+
+    public static final String UNKNOWN_PARENT = "unknown parent";
+
+    public static final String TOO_OLD = "parent below cut off age";
+
+    public static final String INVALID_TX = "invalid transaction";
+
+    public static final String MEMORY_LIMIT = "fork over memory limit";
+
+    private final Block block;
+
+    private final long startNanos = System.nanoTime();
+
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+
+    private int height;
+
+    private int numInputs;
+
+    private int numSignatures;
+
+    private int numUtxoLookups;
+
+    private long totalNanos;
+
+    private boolean accepted;
+
+    private String rejection;
+
+    private String detail;
+
+    private String phase;
+
+    private long phaseStartNanos;
+
+    private BlockStageEvent stageEvent;
+
+    BlockValidationReport(Block block) {
+        this.block = block;
+    }
+
+    /**
+     * Starts timing {@code phase}, one of the {@link BlockStageEvent}
+     * stages
+     */
+    void startPhase(String phase) {
+        this.phase = phase;
+        stageEvent = BlockStageEvent.start(phase);
+        phaseStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Ends the current phase, which handled {@code numTxs} transactions
+     */
+    void endPhase(int numTxs) {
+        phaseNanos.merge(phase, System.nanoTime() - phaseStartNanos,
+                Long::sum);
+        stageEvent.finish(block, numTxs);
+        phase = null;
+        stageEvent = null;
+    }
+
+    void setHeight(int height) {
+        this.height = height;
+    }
+
+    /**
+     * Records the work done by {@code handler} validating the transactions
+     * of the block
+     */
+    void setValidationWork(TxHandler handler) {
+        numSignatures = handler.getNumSignatures();
+        numUtxoLookups = handler.getNumUtxoLookups();
+        numInputs = 0;
+        for (Transaction tx : block.getTransactions()) {
+            numInputs += tx.numInputs();
+        }
+    }
+
+    /**
+     * Marks the block as rejected
+     *
+     * @return false, to return from the validation
+     */
+    boolean reject(String rejection, String detail) {
+        this.rejection = rejection;
+        this.detail = detail;
+        return false;
+    }
+
+    void finish(boolean accepted) {
+        this.accepted = accepted;
+        totalNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * @return the hash of the block, null if the block was null
+     */
+    public byte[] getBlockHash() {
+        return block == null ? null : block.getHash();
+    }
+
+    /**
+     * @return the height of the block, 0 if its parent is unknown
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    public int getNumTxs() {
+        return block == null ? 0 : block.getTransactions().size();
+    }
+
+    /**
+     * @return the number of inputs of the transactions, 0 if they weren't
+     * validated
+     */
+    public int getNumInputs() {
+        return numInputs;
+    }
+
+    public int getNumSignatures() {
+        return numSignatures;
+    }
+
+    public int getNumUtxoLookups() {
+        return numUtxoLookups;
+    }
+
+    /**
+     * @return the nanoseconds spent in each phase that was reached, in the
+     * order of the phases
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return Collections.unmodifiableMap(phaseNanos);
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    /**
+     * @return why the block was rejected, one of the constants of this
+     * class, or null if it was accepted
+     */
+    public String getRejection() {
+        return rejection;
+    }
+
+    /**
+     * @return more details about the rejection, e.g., the offending
+     * transaction, or null
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * @return the report on a single line, durations in microseconds
+     */
+    @Override
+    public String toString() {
+        StringBuilder line = new StringBuilder();
+        line.append("block=").append(BlockValidationEvent.toHex(
+                getBlockHash()))
+                .append(" height=").append(height)
+                .append(" result=").append(accepted ? "accepted" : "rejected");
+        if (rejection != null) {
+            line.append(" reason=\"").append(rejection).append('"');
+        }
+        if (detail != null) {
+            line.append(" detail=\"").append(detail).append('"');
+        }
+        line.append(" txs=").append(getNumTxs())
+                .append(" inputs=").append(numInputs)
+                .append(" signatures=").append(numSignatures)
+                .append(" utxoLookups=").append(numUtxoLookups)
+                .append(" total=").append(totalNanos / 1000).append("us")
+                .append(" phases=[");
+        String separator = "";
+        for (Map.Entry<String, Long> entry : phaseNanos.entrySet()) {
+            line.append(separator).append(entry.getKey()).append(' ')
+                    .append(entry.getValue() / 1000).append("us");
+            separator = ", ";
+        }
+        line.append(']');
+
+        return line.toString();
+    }
+}
@@ -8,9 +8,20 @@ public class ByteArrayWrapper {
     private byte[] contents;
 
     public ByteArrayWrapper(byte[] b) {
-        contents = new byte[b.length];
-        for (int i = 0; i < contents.length; i++)
-            contents[i] = b[i];
+        contents = Arrays.copyOf(b, b.length);
+    }
+
+    private ByteArrayWrapper() {
+    }
+
+    /**
+     * Creates a wrapper which shares {@code b} instead of copying it, for
+     * lookups which don't outlive {@code b}
+     */
+    static ByteArrayWrapper wrap(byte[] b) {
+        ByteArrayWrapper wrapper = new ByteArrayWrapper();
+        wrapper.contents = b;
+        return wrapper;
     }
 
     public boolean equals(Object other) {
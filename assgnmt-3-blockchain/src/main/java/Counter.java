@@ -0,0 +1,30 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code Counter} is a lock-free, monotonically increasing count registered
+ * with a {@link MetricsRegistry}.
+ * <p/>
+ * Increments from different threads go to different cells of a {@link
+ * LongAdder}, so counting on a hot path doesn't contend on a single memory
+ * location.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long delta) {
+        count.add(delta);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+}
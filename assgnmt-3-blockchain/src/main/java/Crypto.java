@@ -2,6 +2,13 @@ import java.security.*;
 
 public class Crypto {
 
+    private static final LatencyHistogram VERIFY_LATENCY =
+            MetricsRegistry.getDefault().histogram("crypto.verifySignature");
+
+    private static final Counter VERIFY_FAILURES =
+            MetricsRegistry.getDefault().counter(
+                    "crypto.verifySignature.failures");
+
     /**
      * @return true is {@code signature} is a valid digital signature of {@code message} under the
      * key {@code pubKey}. Internally, this uses RSA signature, but the student does not
@@ -9,6 +16,20 @@ public class Crypto {
      * algorithm
      */
     public static boolean verifySignature(PublicKey pubKey, byte[] message, byte[] signature) {
+        long start = System.nanoTime();
+        SignatureVerificationEvent event = new SignatureVerificationEvent();
+        event.begin();
+        boolean verified = verify(pubKey, message, signature);
+        VERIFY_LATENCY.recordSince(start);
+        event.commit(message, verified);
+        if (!verified) {
+            VERIFY_FAILURES.increment();
+        }
+
+        return verified;
+    }
+
+    private static boolean verify(PublicKey pubKey, byte[] message, byte[] signature) {
         Signature sig = null;
         try {
             sig = Signature.getInstance("SHA256withRSA");
@@ -0,0 +1,25 @@
+/**
+ * {@code Gauge} is the current value of a quantity which goes up and down,
+ * e.g., the estimated memory held by a data structure, registered with a
+ * {@link MetricsRegistry}.
+ * <p/>
+ * The value is set by the owner of the quantity, so a gauge reports the
+ * value of whichever instance changed last when a process holds several of
+ * them.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class Gauge {
+
+    private volatile long value;
+
+    public void set(long value) {
+        this.value = value;
+    }
+
+    public long getValue() {
+        return value;
+    }
+}
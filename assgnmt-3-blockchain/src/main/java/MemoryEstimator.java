@@ -0,0 +1,163 @@
+/**
+ * {@code MemoryEstimator} estimates the heap retained by the block chain
+ * data structures, so that {@link BlockChain} and {@link TransactionPool}
+ * can account for their memory as entries are added and removed.
+ * <p/>
+ * The estimates assume a 64-bit JVM with compressed references: a 12 byte
+ * object header, 4 byte references and objects aligned to 8 bytes. Public
+ * keys are shared by many outputs and aren't counted. The estimates are
+ * meant for sizing heaps and enforcing budgets, not for exact accounting.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class MemoryEstimator {
+
+    private static final int OBJECT_HEADER = 12;
+
+    private static final int ARRAY_HEADER = 16;
+
+    private static final int REFERENCE = 4;
+
+    /**
+     * A {@code HashMap} entry: the node and its share of the table, which
+     * is at most 3/4 full
+     */
+    private static final long HASH_MAP_ENTRY =
+            align(OBJECT_HEADER + 3 * REFERENCE + 4) + 2 * REFERENCE;
+
+    /**
+     * An entry of a UTXO pool: the map entry and the {@link UTXO} key. The
+     * transaction hash is shared by all outputs of a transaction and the
+     * {@link Transaction.Output} by the transaction.
+     */
+    public static final long UTXO_ENTRY = HASH_MAP_ENTRY
+            + align(OBJECT_HEADER + REFERENCE + 4);
+
+    /**
+     * An entry of a map keyed by a {@link ByteArrayWrapper} of a 32 byte
+     * hash: the map entry, the wrapper and its copy of the hash
+     */
+    public static final long HASH_KEYED_ENTRY = HASH_MAP_ENTRY
+            + align(OBJECT_HEADER + REFERENCE) + array(32);
+
+    private MemoryEstimator() {
+    }
+
+    /**
+     * @return the estimated size of a byte array of {@code length}
+     */
+    public static long array(int length) {
+        return align(ARRAY_HEADER + (long) length);
+    }
+
+    /**
+     * @return the estimated size of {@code tx} with its inputs and outputs
+     */
+    public static long transaction(Transaction tx) {
+        long bytes = align(OBJECT_HEADER + 3 * REFERENCE + 1)
+                + list(tx.numInputs()) + list(tx.numOutputs());
+        if (tx.getHash() != null) {
+            bytes += array(tx.getHash().length);
+        }
+
+        for (Transaction.Input in : tx.getInputs()) {
+            bytes += align(OBJECT_HEADER + 3 * REFERENCE + 4);
+            if (in.prevTxHash != null) {
+                bytes += array(in.prevTxHash.length);
+            }
+            if (in.signature != null) {
+                bytes += array(in.signature.length);
+            }
+        }
+        bytes += tx.numOutputs() * align(OBJECT_HEADER + 2 * REFERENCE + 8);
+
+        return bytes;
+    }
+
+    /**
+     * @return the estimated size of {@code block} with its transactions
+     */
+    public static long block(Block block) {
+        long bytes = align(OBJECT_HEADER + 4 * REFERENCE)
+                + list(block.getTransactions().size());
+        if (block.getHash() != null) {
+            bytes += array(block.getHash().length);
+        }
+        if (block.getPrevBlockHash() != null) {
+            bytes += array(block.getPrevBlockHash().length);
+        }
+        if (block.getCoinbase() != null) {
+            bytes += transaction(block.getCoinbase());
+        }
+        for (Transaction tx : block.getTransactions()) {
+            bytes += transaction(tx);
+        }
+
+        return bytes;
+    }
+
+    /**
+     * @return the estimated size of a UTXO pool of {@code size} UTXOs,
+     * including its set hash
+     */
+    public static long utxoPool(int size) {
+        return align(OBJECT_HEADER + 2 * REFERENCE)
+                + align(OBJECT_HEADER + 3 * REFERENCE + 16) + setHash()
+                + size * UTXO_ENTRY;
+    }
+
+    /**
+     * @return the estimated size of the {@link AddressIndex} of a UTXO pool
+     * of {@code size} UTXOs paying to {@code numAddresses} addresses
+     */
+    public static long addressIndex(int size, int numAddresses) {
+        return align(OBJECT_HEADER + REFERENCE) + list(0)
+                + numAddresses * (HASH_MAP_ENTRY
+                + align(OBJECT_HEADER + REFERENCE + 8)
+                + 2 * align(OBJECT_HEADER + REFERENCE) + list(0))
+                + size * HASH_MAP_ENTRY;
+    }
+
+    /**
+     * @return the estimated size of a {@link BlockChain.BlockNode} of
+     * {@code block}, including the block, its undo record and the set hash
+     * of the node
+     */
+    public static long blockNode(Block block, BlockUndo undo) {
+        return align(OBJECT_HEADER + 6 * REFERENCE + 4) + list(0)
+                + setHash() + block(block) + undo(undo.size());
+    }
+
+    /**
+     * @return the estimated size of a {@link BlockUndo} of {@code size}
+     * changes. The outputs are shared with the transactions, the {@link
+     * UTXO} keys are counted since the record may be all that holds them.
+     */
+    public static long undo(int size) {
+        return align(OBJECT_HEADER + 3 * REFERENCE + 4)
+                + 2 * align(ARRAY_HEADER + (long) size * REFERENCE)
+                + array(size) + size * align(OBJECT_HEADER + REFERENCE + 4);
+    }
+
+    /**
+     * @return the estimated size of a {@link UTXOSetHash}
+     */
+    private static long setHash() {
+        return align(OBJECT_HEADER + REFERENCE) + array(4 * 8);
+    }
+
+    /**
+     * @return the estimated size of an {@code ArrayList} of {@code size}
+     * elements
+     */
+    public static long list(int size) {
+        return align(OBJECT_HEADER + REFERENCE + 8)
+                + align(ARRAY_HEADER + (long) size * REFERENCE);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
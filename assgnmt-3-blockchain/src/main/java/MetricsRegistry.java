@@ -0,0 +1,221 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code MetricsRegistry} holds the named {@link Counter}s, {@link Gauge}s
+ * and {@link LatencyHistogram}s of the block chain.
+ * <p/>
+ * The hot paths of {@link BlockChain}, {@link BlockHandler}, {@link
+ * TxHandler}, {@link TransactionPool} and {@link Crypto} record into the
+ * {@link #getDefault() default registry}. They look up their metrics once
+ * and keep them in static fields, so recording never goes through the
+ * registry's map.
+ * <p/>
+ * The metrics can be written as text or JSON on demand, or periodically to
+ * a file with {@link #startReporter(File, long, boolean)}. The file is
+ * replaced atomically, so a reader never sees a partial dump.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, Counter> counters =
+            new ConcurrentSkipListMap<>();
+
+    private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+
+    private final Map<String, LatencyHistogram> histograms =
+            new ConcurrentSkipListMap<>();
+
+    /**
+     * @return the registry the block chain classes record into
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return the counter called {@code name}, created if it doesn't exist
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * @return the gauge called {@code name}, created if it doesn't exist
+     */
+    public Gauge gauge(String name) {
+        return gauges.computeIfAbsent(name, key -> new Gauge());
+    }
+
+    /**
+     * @return the histogram called {@code name}, created if it doesn't exist
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Writes one line per metric, sorted by name. Histogram values are in
+     * microseconds.
+     */
+    public void writeText(Appendable out) throws IOException {
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            out.append(entry.getKey()).append(' ')
+                    .append(Long.toString(entry.getValue().getCount()))
+                    .append('\n');
+        }
+        for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+            out.append(entry.getKey()).append(' ')
+                    .append(Long.toString(entry.getValue().getValue()))
+                    .append('\n');
+        }
+        for (Map.Entry<String, LatencyHistogram> entry :
+                histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            out.append(String.format(Locale.ROOT,
+                    "%s count=%d mean=%.3fus p50=%.3fus p90=%.3fus "
+                            + "p99=%.3fus p999=%.3fus max=%.3fus\n",
+                    entry.getKey(), histogram.getCount(),
+                    histogram.getMean() / 1e3,
+                    histogram.getPercentile(50) / 1e3,
+                    histogram.getPercentile(90) / 1e3,
+                    histogram.getPercentile(99) / 1e3,
+                    histogram.getPercentile(99.9) / 1e3,
+                    histogram.getMax() / 1e3));
+        }
+    }
+
+    /**
+     * Writes all metrics as a JSON object with a {@code counters}, a {@code
+     * gauges} and a {@code histograms} member. Histogram values are in nanoseconds.
+     */
+    public void writeJson(Appendable out) throws IOException {
+        out.append("{\"timestamp\":")
+                .append(Long.toString(System.currentTimeMillis()))
+                .append(",\"counters\":{");
+        String separator = "";
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            out.append(separator).append(quote(entry.getKey())).append(':')
+                    .append(Long.toString(entry.getValue().getCount()));
+            separator = ",";
+        }
+
+        out.append("},\"gauges\":{");
+        separator = "";
+        for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+            out.append(separator).append(quote(entry.getKey())).append(':')
+                    .append(Long.toString(entry.getValue().getValue()));
+            separator = ",";
+        }
+
+        out.append("},\"histograms\":{");
+        separator = "";
+        for (Map.Entry<String, LatencyHistogram> entry :
+                histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            out.append(separator).append(quote(entry.getKey()))
+                    .append(String.format(Locale.ROOT,
+                            ":{\"count\":%d,\"sum\":%d,\"mean\":%.1f,"
+                                    + "\"p50\":%d,\"p90\":%d,\"p99\":%d,"
+                                    + "\"p999\":%d,\"max\":%d}",
+                            histogram.getCount(), histogram.getSum(),
+                            histogram.getMean(), histogram.getPercentile(50),
+                            histogram.getPercentile(90),
+                            histogram.getPercentile(99),
+                            histogram.getPercentile(99.9),
+                            histogram.getMax()));
+            separator = ",";
+        }
+        out.append("}}\n");
+    }
+
+    /**
+     * Writes all metrics to {@code file} now, replacing it atomically.
+     *
+     * @param json true for JSON, false for text
+     */
+    public void dump(File file, boolean json) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        File tmp = File.createTempFile(file.getName(), ".tmp", parent);
+        try {
+            try (Writer out = new OutputStreamWriter(
+                    Files.newOutputStream(tmp.toPath()),
+                    StandardCharsets.UTF_8)) {
+                if (json) {
+                    writeJson(out);
+                } else {
+                    writeText(out);
+                }
+            }
+            Files.move(tmp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+
+    /**
+     * Starts dumping all metrics to {@code file} every {@code periodMillis}
+     * on a daemon thread. Closing the returned reporter stops it after a
+     * final dump.
+     *
+     * @param json true for JSON, false for text
+     */
+    public Closeable startReporter(File file, long periodMillis,
+                                   boolean json) {
+        ScheduledExecutorService reporter =
+                Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "metrics-reporter");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        reporter.scheduleAtFixedRate(() -> {
+            try {
+                dump(file, json);
+            } catch (IOException e) {
+                // try again with the next dump
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+
+        return () -> {
+            reporter.shutdown();
+            try {
+                reporter.awaitTermination(periodMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            dump(file, json);
+        };
+    }
+
+    private static String quote(String name) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\');
+            }
+            quoted.append(c);
+        }
+
+        return quoted.append('"').toString();
+    }
+}
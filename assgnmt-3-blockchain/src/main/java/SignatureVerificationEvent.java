@@ -0,0 +1,42 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * {@code SignatureVerificationEvent} is a Java Flight Recorder event spanning
+ * a {@link Crypto#verifySignature} call.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@Name("blockchain.SignatureVerification")
+@Label("Signature Verification")
+@Category({"Block Chain", "Validation"})
+@Description("Verification of an input signature")
+@StackTrace(false)
+public class SignatureVerificationEvent extends jdk.jfr.Event {
+
+    @Label("Message Size")
+    @DataAmount
+    int messageSize;
+
+    @Label("Valid")
+    boolean valid;
+
+    /**
+     * Sets the fields of the event and commits it if it's enabled and took
+     * long enough
+     */
+    void commit(byte[] message, boolean valid) {
+        end();
+        if (shouldCommit()) {
+            messageSize = message == null ? 0 : message.length;
+            this.valid = valid;
+            commit();
+        }
+    }
+}
@@ -75,19 +75,38 @@ public class Transaction {
 
     public class Output {
         /**
-         * value in bitcoins of the output
+         * value of the output in base units, see {@link Amount}
          */
-        public double value;
+        public long amount;
         /**
          * the address or public key of the recipient
          */
         public PublicKey address;
 
+        /**
+         * Creates an output of {@code v} coins, rounded to the nearest base
+         * unit
+         */
         public Output(double v, PublicKey addr) {
-            value = v;
+            this(addr, Amount.fromCoins(v));
+        }
+
+        /**
+         * Creates an output of {@code amount} base units
+         */
+        public Output(PublicKey addr, long amount) {
+            this.amount = amount;
             address = addr;
         }
 
+        /**
+         * @return value in coins of the output, which replaces the former
+         * {@code value} field
+         */
+        public double getValue() {
+            return Amount.toCoins(amount);
+        }
+
         public boolean equals(Object other) {
             if (other == null) {
                 return false;
@@ -98,7 +117,7 @@ public class Transaction {
 
             Output op = (Output) other;
 
-            if (value != op.value)
+            if (amount != op.amount)
                 return false;
             if (!((RSAPublicKey) address).getPublicExponent().equals(
                     ((RSAPublicKey) op.address).getPublicExponent()))
@@ -111,7 +130,7 @@ public class Transaction {
 
         public int hashCode() {
             int hash = 1;
-            hash = hash * 17 + (int) value * 10000;
+            hash = hash * 17 + Long.hashCode(amount);
             hash = hash * 31 + ((RSAPublicKey) address).getPublicExponent().hashCode();
             hash = hash * 31 + ((RSAPublicKey) address).getModulus().hashCode();
             return hash;
@@ -143,13 +162,24 @@ public class Transaction {
      * create a coinbase transaction of value {@code coin} and calls finalize on it
      */
     public Transaction(double coin, PublicKey address) {
-        coinbase = true;
+        this(Amount.fromCoins(coin), address, true);
+    }
+
+    private Transaction(long amount, PublicKey address, boolean coinbase) {
+        this.coinbase = coinbase;
         inputs = new ArrayList<Input>();
         outputs = new ArrayList<Output>();
-        addOutput(coin, address);
+        addOutputAmount(amount, address);
         finalize();
     }
 
+    /**
+     * create a coinbase transaction of {@code amount} base units and calls finalize on it
+     */
+    public static Transaction newCoinbase(long amount, PublicKey address) {
+        return new Transaction(amount, address, true);
+    }
+
     public boolean isCoinbase() {
         return coinbase;
     }
@@ -159,11 +189,22 @@ public class Transaction {
         inputs.add(in);
     }
 
+    /**
+     * Adds an output of {@code value} coins, rounded to the nearest base unit
+     */
     public void addOutput(double value, PublicKey address) {
         Output op = new Output(value, address);
         outputs.add(op);
     }
 
+    /**
+     * Adds an output of {@code amount} base units
+     */
+    public void addOutputAmount(long amount, PublicKey address) {
+        Output op = new Output(address, amount);
+        outputs.add(op);
+    }
+
     public void removeInput(int index) {
         inputs.remove(index);
     }
@@ -181,37 +222,14 @@ public class Transaction {
 
     public byte[] getRawDataToSign(int index) {
         // ith input and all outputs
-        ArrayList<Byte> sigData = new ArrayList<Byte>();
         if (index > inputs.size())
             return null;
         Input in = inputs.get(index);
-        byte[] prevTxHash = in.prevTxHash;
-        ByteBuffer b = ByteBuffer.allocate(Integer.SIZE / 8);
-        b.putInt(in.outputIndex);
-        byte[] outputIndex = b.array();
-        if (prevTxHash != null)
-            for (int i = 0; i < prevTxHash.length; i++)
-                sigData.add(prevTxHash[i]);
-        for (int i = 0; i < outputIndex.length; i++)
-            sigData.add(outputIndex[i]);
-        for (Output op : outputs) {
-            ByteBuffer bo = ByteBuffer.allocate(Double.SIZE / 8);
-            bo.putDouble(op.value);
-            byte[] value = bo.array();
-            byte[] addressExponent = ((RSAPublicKey) op.address).getPublicExponent().toByteArray();
-            byte[] addressModulus = ((RSAPublicKey) op.address).getModulus().toByteArray();
-            for (int i = 0; i < value.length; i++)
-                sigData.add(value[i]);
-            for (int i = 0; i < addressExponent.length; i++)
-                sigData.add(addressExponent[i]);
-            for (int i = 0; i < addressModulus.length; i++)
-                sigData.add(addressModulus[i]);
-        }
-        byte[] sigD = new byte[sigData.size()];
-        int i = 0;
-        for (Byte sb : sigData)
-            sigD[i++] = sb;
-        return sigD;
+        ByteBuffer sigData = ByteBuffer.allocate(
+                rawInputSize(in.prevTxHash, null) + rawOutputsSize());
+        putRawInput(sigData, in.prevTxHash, in.outputIndex, null);
+        putRawOutputs(sigData);
+        return sigData.array();
     }
 
     public void addSignature(byte[] signature, int index) {
@@ -219,40 +237,57 @@ public class Transaction {
     }
 
     public byte[] getRawTx() {
-        ArrayList<Byte> rawTx = new ArrayList<Byte>();
-        for (Input in : inputs) {
-            byte[] prevTxHash = in.prevTxHash;
-            ByteBuffer b = ByteBuffer.allocate(Integer.SIZE / 8);
-            b.putInt(in.outputIndex);
-            byte[] outputIndex = b.array();
-            byte[] signature = in.signature;
-            if (prevTxHash != null)
-                for (int i = 0; i < prevTxHash.length; i++)
-                    rawTx.add(prevTxHash[i]);
-            for (int i = 0; i < outputIndex.length; i++)
-                rawTx.add(outputIndex[i]);
-            if (signature != null)
-                for (int i = 0; i < signature.length; i++)
-                    rawTx.add(signature[i]);
+        int size = rawOutputsSize();
+        for (Input in : inputs)
+            size += rawInputSize(in.prevTxHash, in.signature);
+        ByteBuffer rawTx = ByteBuffer.allocate(size);
+        for (Input in : inputs)
+            putRawInput(rawTx, in.prevTxHash, in.outputIndex, in.signature);
+        putRawOutputs(rawTx);
+        return rawTx.array();
+    }
+
+    private static int rawInputSize(byte[] prevTxHash, byte[] signature) {
+        int size = Integer.SIZE / 8;
+        if (prevTxHash != null)
+            size += prevTxHash.length;
+        if (signature != null)
+            size += signature.length;
+        return size;
+    }
+
+    private static void putRawInput(ByteBuffer raw, byte[] prevTxHash,
+                                    int outputIndex, byte[] signature) {
+        if (prevTxHash != null)
+            raw.put(prevTxHash);
+        raw.putInt(outputIndex);
+        if (signature != null)
+            raw.put(signature);
+    }
+
+    /**
+     * @return the size of the raw outputs, computed without serializing the
+     * addresses
+     */
+    private int rawOutputsSize() {
+        int size = 0;
+        for (Output op : outputs) {
+            RSAPublicKey address = (RSAPublicKey) op.address;
+            // the length of BigInteger.toByteArray()
+            size += Long.SIZE / 8
+                    + address.getPublicExponent().bitLength() / 8 + 1
+                    + address.getModulus().bitLength() / 8 + 1;
         }
+        return size;
+    }
+
+    private void putRawOutputs(ByteBuffer raw) {
         for (Output op : outputs) {
-            ByteBuffer b = ByteBuffer.allocate(Double.SIZE / 8);
-            b.putDouble(op.value);
-            byte[] value = b.array();
-            byte[] addressExponent = ((RSAPublicKey) op.address).getPublicExponent().toByteArray();
-            byte[] addressModulus = ((RSAPublicKey) op.address).getModulus().toByteArray();
-            for (int i = 0; i < value.length; i++)
-                rawTx.add(value[i]);
-            for (int i = 0; i < addressExponent.length; i++)
-                rawTx.add(addressExponent[i]);
-            for (int i = 0; i < addressModulus.length; i++)
-                rawTx.add(addressModulus[i]);
+            RSAPublicKey address = (RSAPublicKey) op.address;
+            raw.putLong(op.amount);
+            raw.put(address.getPublicExponent().toByteArray());
+            raw.put(address.getModulus().toByteArray());
         }
-        byte[] tx = new byte[rawTx.size()];
-        int i = 0;
-        for (Byte b : rawTx)
-            tx[i++] = b;
-        return tx;
     }
 
     public void finalize() {
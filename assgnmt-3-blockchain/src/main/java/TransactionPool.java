@@ -1,30 +1,74 @@
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 
 public class TransactionPool {
 
-    private HashMap<ByteArrayWrapper, Transaction> H;
+    private static final Counter TXS_ADDED =
+            MetricsRegistry.getDefault().counter("txpool.added");
+
+    private static final Counter TXS_REMOVED =
+            MetricsRegistry.getDefault().counter("txpool.removed");
+
+    private static final Counter TXS_EVICTED =
+            MetricsRegistry.getDefault().counter("txpool.evicted");
+
+    private static final Gauge MEMORY =
+            MetricsRegistry.getDefault().gauge("txpool.memory.bytes");
+
+    /**
+     * The transactions in the order they were added, so that the oldest
+     * are evicted first
+     */
+    private LinkedHashMap<ByteArrayWrapper, Transaction> H;
+
+    /**
+     * The estimated memory held by the transactions in the pool, see
+     * {@link MemoryEstimator}
+     */
+    private long estimatedBytes;
+
+    private long memoryLimit = Long.MAX_VALUE;
 
     public TransactionPool() {
-        H = new HashMap<ByteArrayWrapper, Transaction>();
+        H = new LinkedHashMap<ByteArrayWrapper, Transaction>();
     }
 
     public TransactionPool(TransactionPool txPool) {
-        H = new HashMap<ByteArrayWrapper, Transaction>(txPool.H);
+        H = new LinkedHashMap<ByteArrayWrapper, Transaction>(txPool.H);
+        estimatedBytes = txPool.estimatedBytes;
+        memoryLimit = txPool.memoryLimit;
     }
 
+    /**
+     * Adds {@code tx} to the pool. If the pool then holds more than its
+     * memory limit, the oldest transactions are evicted until it fits.
+     */
     public void addTransaction(Transaction tx) {
         ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash());
-        H.put(hash, tx);
+        Transaction previous = H.put(hash, tx);
+        if (previous != null) {
+            estimatedBytes -= entryBytes(previous);
+        }
+        estimatedBytes += entryBytes(tx);
+        TXS_ADDED.increment();
+
+        evict();
+        MEMORY.set(estimatedBytes);
     }
 
     public void removeTransaction(byte[] txHash) {
-        ByteArrayWrapper hash = new ByteArrayWrapper(txHash);
-        H.remove(hash);
+        ByteArrayWrapper hash = ByteArrayWrapper.wrap(txHash);
+        Transaction removed = H.remove(hash);
+        if (removed != null) {
+            estimatedBytes -= entryBytes(removed);
+            TXS_REMOVED.increment();
+            MEMORY.set(estimatedBytes);
+        }
     }
 
     public Transaction getTransaction(byte[] txHash) {
-        ByteArrayWrapper hash = new ByteArrayWrapper(txHash);
+        ByteArrayWrapper hash = ByteArrayWrapper.wrap(txHash);
         return H.get(hash);
     }
 
@@ -34,4 +78,45 @@ public class TransactionPool {
             T.add(tx);
         return T;
     }
+
+    public int size() {
+        return H.size();
+    }
+
+    /**
+     * @return the estimated memory held by the transactions in the pool,
+     * in bytes
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    /**
+     * Limits the estimated memory held by the pool to {@code bytes},
+     * evicting the oldest transactions right away if the pool holds more.
+     * The pool is unlimited by default.
+     */
+    public void setMemoryLimit(long bytes) {
+        memoryLimit = bytes;
+        evict();
+        MEMORY.set(estimatedBytes);
+    }
+
+    private void evict() {
+        Iterator<Transaction> oldest = H.values().iterator();
+        while (estimatedBytes > memoryLimit && oldest.hasNext()) {
+            estimatedBytes -= entryBytes(oldest.next());
+            oldest.remove();
+            TXS_EVICTED.increment();
+        }
+    }
+
+    private static long entryBytes(Transaction tx) {
+        return MemoryEstimator.HASH_KEYED_ENTRY
+                + MemoryEstimator.transaction(tx);
+    }
 }
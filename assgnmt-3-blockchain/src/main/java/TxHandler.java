@@ -5,8 +5,32 @@ import java.util.Set;
 
 public class TxHandler {
 
+    private static final LatencyHistogram IS_VALID_TX_LATENCY =
+            MetricsRegistry.getDefault().histogram("txhandler.isValidTx");
+
+    private static final LatencyHistogram HANDLE_TXS_LATENCY =
+            MetricsRegistry.getDefault().histogram("txhandler.handleTxs");
+
+    private static final Counter TXS_VALID =
+            MetricsRegistry.getDefault().counter("txhandler.txs.valid");
+
+    private static final Counter TXS_INVALID =
+            MetricsRegistry.getDefault().counter("txhandler.txs.invalid");
+
     private UTXOPool utxoPool;
 
+    /**
+     * Records the changes to {@code utxoPool}, null unless the handler
+     * works on the live UTXO set of a block chain
+     */
+    private BlockUndo undo;
+
+    private int numUtxoLookups;
+
+    private int numSignatures;
+
+    private String firstRejection;
+
     /**
      * Creates a public ledger whose current UTXOPool (collection of unspent
      * transaction outputs) is
@@ -18,6 +42,16 @@ public class TxHandler {
         this.utxoPool = new UTXOPool(utxoPool);
     }
 
+    /**
+     * Creates a handler which changes {@code utxoPool} itself instead of a
+     * copy, recording every change in {@code undo} so that it can be
+     * reverted.
+     */
+    TxHandler(UTXOPool utxoPool, BlockUndo undo) {
+        this.utxoPool = utxoPool;
+        this.undo = undo;
+    }
+
     /**
      * @return true if:
      * (1) all outputs claimed by {@code tx} are in the current UTXO pool,
@@ -29,54 +63,90 @@ public class TxHandler {
      * values; and false otherwise.
      */
     public boolean isValidTx(Transaction tx) {
+        long start = System.nanoTime();
+        TxValidationEvent event = new TxValidationEvent();
+        event.begin();
+        boolean valid = checkTx(tx);
+        IS_VALID_TX_LATENCY.recordSince(start);
+        (valid ? TXS_VALID : TXS_INVALID).increment();
+        event.commit(tx, valid);
+
+        return valid;
+    }
+
+    private boolean checkTx(Transaction tx) {
 
         ArrayList<Transaction.Input> inputs = tx.getInputs();
 
-        double inputSum = 0.0;
+        long inputSum = 0;
         Set<UTXO> utxos = new HashSet<>();
 
         for (int i = 0; i < inputs.size(); i++) {
             Transaction.Input input = inputs.get(i);
-            UTXO utxo = new UTXO(input.prevTxHash, input.outputIndex);
-
+            UTXO utxo = UTXO.wrap(input.prevTxHash, input.outputIndex);
 
             // CASE 1: all outputs claimed by {@code tx} are in the
             // current UTXO pool
-            if (!utxoPool.contains(utxo)) {
-                return false;
-            }
-
+            numUtxoLookups++;
             Transaction.Output inputsOutput = utxoPool.getTxOutput(utxo);
+            if (inputsOutput == null) {
+                return reject(tx, "input " + i + " claims an unknown UTXO");
+            }
 
             // CASE 2: the signatures on each input of {@code tx} are valid
+            numSignatures++;
             if (!Crypto.verifySignature(inputsOutput.address,
                     tx.getRawDataToSign(i), input.signature)) {
-                return false;
+                return reject(tx, "input " + i + " has an invalid signature");
             }
 
             // CASE 3: no UTXO is claimed multiple times by {@code tx}
             if (utxos.contains(utxo)) {
-                return false;
+                return reject(tx, "input " + i + " claims a UTXO twice");
             }
 
             utxos.add(utxo);
-            inputSum += inputsOutput.value;
+            inputSum += inputsOutput.amount;
+            if (inputSum < 0) {
+                return reject(tx, "input values overflow");
+            }
         }
 
-        double outputSum = 0.0;
+        long outputSum = 0;
         ArrayList<Transaction.Output> outputs = tx.getOutputs();
         for (Transaction.Output output : outputs) {
             // CASE 4: all of {@code tx}s output values are non-negative
-            if (output.value < 0) {
-                return false;
+            if (output.amount < 0) {
+                return reject(tx, "output value is negative");
             }
 
-            outputSum += output.value;
+            outputSum += output.amount;
+            if (outputSum < 0) {
+                return reject(tx, "output values overflow");
+            }
         }
 
         // CASE 5: the sum of {@code tx}s input values is greater than or
         // equal to the sum of its output values
-        return inputSum >= outputSum;
+        if (inputSum < outputSum) {
+            return reject(tx, "output values exceed input values");
+        }
+
+        return true;
+    }
+
+    /**
+     * Remembers why {@code tx} is invalid, unless an earlier transaction
+     * was already rejected
+     *
+     * @return false
+     */
+    private boolean reject(Transaction tx, String reason) {
+        if (firstRejection == null) {
+            firstRejection = "transaction "
+                    + BlockValidationEvent.toHex(tx.getHash()) + ": " + reason;
+        }
+        return false;
     }
 
     /**
@@ -86,28 +156,65 @@ public class TxHandler {
      * UTXO pool as appropriate.
      */
     public Transaction[] handleTxs(Transaction[] possibleTxs) {
+        long start = System.nanoTime();
         List<Transaction> acceptedTxs = new ArrayList<>();
 
         for (Transaction tx : possibleTxs) {
             if (isValidTx(tx)) {
                 for (Transaction.Input input : tx.getInputs()) {
-                    UTXO utxo = new UTXO(input.prevTxHash, input.outputIndex);
-                    utxoPool.removeUTXO(utxo);
+                    if (undo == null) {
+                        utxoPool.removeUTXO(UTXO.wrap(input.prevTxHash,
+                                input.outputIndex));
+                    } else {
+                        // the undo puts the UTXO back into the pool, so it
+                        // can't share the hash of the caller's input
+                        undo.spend(utxoPool, new UTXO(input.prevTxHash,
+                                input.outputIndex));
+                    }
                 }
 
+                // the new UTXOs share a single copy of the hash
+                byte[] txHash = tx.getHash().clone();
                 for (int i = 0; i < tx.numOutputs(); i++) {
                     Transaction.Output output = tx.getOutput(i);
-                    UTXO utxo = new UTXO(tx.getHash(), i);
-                    utxoPool.addUTXO(utxo, output);
+                    UTXO utxo = UTXO.wrap(txHash, i);
+                    if (undo == null) {
+                        utxoPool.addUTXO(utxo, output);
+                    } else {
+                        undo.create(utxoPool, utxo, output);
+                    }
                 }
 
                 acceptedTxs.add(tx);
             }
         }
 
+        HANDLE_TXS_LATENCY.recordSince(start);
         return acceptedTxs.toArray(new Transaction[0]);
     }
 
+    /**
+     * @return the number of UTXOs looked up validating transactions
+     */
+    int getNumUtxoLookups() {
+        return numUtxoLookups;
+    }
+
+    /**
+     * @return the number of signatures verified validating transactions
+     */
+    int getNumSignatures() {
+        return numSignatures;
+    }
+
+    /**
+     * @return why the first invalid transaction is invalid, null if all
+     * transactions were valid
+     */
+    String getFirstRejection() {
+        return firstRejection;
+    }
+
     public UTXOPool getUTXOPool() {
         return utxoPool;
     }
@@ -0,0 +1,291 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * {@code TxIndex} maps the hash of every transaction on the main chain of a
+ * {@link BlockChain} to the block which includes it and its position in
+ * {@link Block#getTransactions()}. The chain keeps the index up to date as
+ * blocks are connected to and disconnected from the main chain, see {@link
+ * BlockChain#setTxIndex(TxIndex)}.
+ * <p/>
+ * The index is a compact open addressing hash table of fixed size slots in
+ * a single {@link ByteBuffer}, which is held in memory or, for large
+ * indexes, mapped from a file so that the operating system pages it in and
+ * out as needed. The table is rebuilt twice as large once it's 70% full.
+ * <p/>
+ * Coinbase transactions aren't indexed: a coinbase only depends on its
+ * value and address, so the blocks of a miner share the same coinbase hash.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class TxIndex {
+
+    private static final int HASH_SIZE = 32;
+
+    private static final byte EMPTY = 0;
+
+    private static final byte USED = 1;
+
+    private static final byte DELETED = 2;
+
+    /**
+     * state, tx hash, block hash and position, padded to 8 bytes
+     */
+    private static final int SLOT_SIZE = 72;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final File file;
+
+    private ByteBuffer table;
+
+    private int capacity;
+
+    private int size;
+
+    private int deleted;
+
+    /**
+     * Creates an index held in memory.
+     */
+    public TxIndex() {
+        file = null;
+        capacity = INITIAL_CAPACITY;
+        table = ByteBuffer.allocate(capacity * SLOT_SIZE);
+    }
+
+    /**
+     * Creates an index mapped from {@code file}, replacing the file if it
+     * exists. The index is rebuilt with every start, the file only moves
+     * the table out of the heap.
+     */
+    public TxIndex(File file) throws IOException {
+        this.file = file;
+        capacity = INITIAL_CAPACITY;
+        table = map(file, capacity);
+    }
+
+    /**
+     * A transaction's location on the main chain.
+     */
+    public static class Location {
+        private final byte[] blockHash;
+
+        private final int position;
+
+        Location(byte[] blockHash, int position) {
+            this.blockHash = blockHash;
+            this.position = position;
+        }
+
+        public byte[] getBlockHash() {
+            return blockHash;
+        }
+
+        /**
+         * @return the index of the transaction in {@link
+         * Block#getTransactions()}
+         */
+        public int getPosition() {
+            return position;
+        }
+    }
+
+    /**
+     * @return the location of the transaction with hash {@code txHash} or
+     * null if it isn't on the main chain
+     */
+    public Location get(byte[] txHash) {
+        int slot = find(txHash);
+        if (slot < 0) {
+            return null;
+        }
+
+        byte[] blockHash = new byte[HASH_SIZE];
+        int offset = slot * SLOT_SIZE + 1 + HASH_SIZE;
+        for (int i = 0; i < HASH_SIZE; i++) {
+            blockHash[i] = table.get(offset + i);
+        }
+
+        return new Location(blockHash, table.getInt(offset + HASH_SIZE));
+    }
+
+    /**
+     * @return the number of indexed transactions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the estimated heap memory held by the index, in bytes, which
+     * is next to nothing if the index is mapped from a file
+     */
+    public long getEstimatedBytes() {
+        return file == null ? MemoryEstimator.array(capacity * SLOT_SIZE) : 0;
+    }
+
+    /**
+     * Indexes the transactions of {@code block}, which has become part of
+     * the main chain
+     */
+    void connect(Block block) throws IOException {
+        for (int i = 0; i < block.getTransactions().size(); i++) {
+            put(block.getTransaction(i).getHash(), block.getHash(), i);
+        }
+    }
+
+    /**
+     * Removes the transactions of {@code block}, which is no longer part of
+     * the main chain, unless a transaction with the same hash has been
+     * indexed for another block since
+     */
+    void disconnect(Block block) {
+        for (Transaction tx : block.getTransactions()) {
+            int slot = find(tx.getHash());
+            if (slot >= 0 && blockHashEquals(slot, block.getHash())) {
+                table.put(slot * SLOT_SIZE, DELETED);
+                size--;
+                deleted++;
+            }
+        }
+    }
+
+    private void put(byte[] txHash, byte[] blockHash, int position)
+            throws IOException {
+        if ((size + deleted + 1) * 10L > capacity * 7L) {
+            // purging the deleted slots may be enough to make room
+            rebuild(size * 2 > capacity ? capacity * 2 : capacity);
+        }
+
+        int slot = find(txHash);
+        if (slot < 0) {
+            slot = -slot - 1;
+            if (table.get(slot * SLOT_SIZE) == DELETED) {
+                deleted--;
+            }
+            size++;
+        }
+        write(table, slot, txHash, blockHash, position);
+    }
+
+    /**
+     * @return the slot holding {@code txHash} or, if it isn't in the table,
+     * {@code -(slot + 1)} of the first free slot on its probe sequence
+     */
+    private int find(byte[] txHash) {
+        int mask = capacity - 1;
+        int free = -1;
+        for (int slot = Arrays.hashCode(txHash) & mask; ;
+             slot = (slot + 1) & mask) {
+            byte state = table.get(slot * SLOT_SIZE);
+            if (state == EMPTY) {
+                return -(free < 0 ? slot : free) - 1;
+            } else if (state == DELETED) {
+                if (free < 0) {
+                    free = slot;
+                }
+            } else if (keyEquals(slot, txHash)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean keyEquals(int slot, byte[] txHash) {
+        return regionEquals(slot * SLOT_SIZE + 1, txHash);
+    }
+
+    private boolean blockHashEquals(int slot, byte[] blockHash) {
+        return regionEquals(slot * SLOT_SIZE + 1 + HASH_SIZE, blockHash);
+    }
+
+    private boolean regionEquals(int offset, byte[] hash) {
+        if (hash.length != HASH_SIZE) {
+            return false;
+        }
+        for (int i = 0; i < HASH_SIZE; i++) {
+            if (table.get(offset + i) != hash[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Moves the used slots into a new table of {@code newCapacity} slots,
+     * dropping the deleted ones
+     */
+    private void rebuild(int newCapacity) throws IOException {
+        if ((long) newCapacity * SLOT_SIZE > Integer.MAX_VALUE) {
+            throw new IOException("transaction index is too large");
+        }
+
+        File tmpFile = null;
+        ByteBuffer newTable;
+        if (file == null) {
+            newTable = ByteBuffer.allocate(newCapacity * SLOT_SIZE);
+        } else {
+            tmpFile = new File(file.getPath() + ".tmp");
+            newTable = map(tmpFile, newCapacity);
+        }
+
+        byte[] txHash = new byte[HASH_SIZE];
+        byte[] blockHash = new byte[HASH_SIZE];
+        int mask = newCapacity - 1;
+        for (int slot = 0; slot < capacity; slot++) {
+            int offset = slot * SLOT_SIZE;
+            if (table.get(offset) != USED) {
+                continue;
+            }
+            for (int i = 0; i < HASH_SIZE; i++) {
+                txHash[i] = table.get(offset + 1 + i);
+                blockHash[i] = table.get(offset + 1 + HASH_SIZE + i);
+            }
+            int position = table.getInt(offset + 1 + 2 * HASH_SIZE);
+
+            int newSlot = Arrays.hashCode(txHash) & mask;
+            while (newTable.get(newSlot * SLOT_SIZE) != EMPTY) {
+                newSlot = (newSlot + 1) & mask;
+            }
+            write(newTable, newSlot, txHash, blockHash, position);
+        }
+
+        if (tmpFile != null) {
+            Files.move(tmpFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        table = newTable;
+        capacity = newCapacity;
+        deleted = 0;
+    }
+
+    private static void write(ByteBuffer table, int slot, byte[] txHash,
+                              byte[] blockHash, int position) {
+        int offset = slot * SLOT_SIZE;
+        table.put(offset, USED);
+        for (int i = 0; i < HASH_SIZE; i++) {
+            table.put(offset + 1 + i, txHash[i]);
+            table.put(offset + 1 + HASH_SIZE + i, blockHash[i]);
+        }
+        table.putInt(offset + 1 + 2 * HASH_SIZE, position);
+    }
+
+    private static ByteBuffer map(File file, int capacity) throws IOException {
+        // the mapping stays valid once the file is closed
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(0);
+            raf.setLength((long) capacity * SLOT_SIZE);
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                    (long) capacity * SLOT_SIZE);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * {@code TxValidationEvent} is a Java Flight Recorder event spanning a
+ * {@link TxHandler#isValidTx(Transaction)} call.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@Name("blockchain.TxValidation")
+@Label("Transaction Validation")
+@Category({"Block Chain", "Validation"})
+@Description("Validation of a transaction against a UTXO pool")
+@StackTrace(false)
+public class TxValidationEvent extends jdk.jfr.Event {
+
+    @Label("Transaction Hash")
+    String txHash;
+
+    @Label("Inputs")
+    int numInputs;
+
+    @Label("Outputs")
+    int numOutputs;
+
+    @Label("Transaction Size")
+    @DataAmount
+    long txSize;
+
+    @Label("Valid")
+    boolean valid;
+
+    /**
+     * Sets the fields of the event and commits it if it's enabled and took
+     * long enough
+     */
+    void commit(Transaction tx, boolean valid) {
+        end();
+        if (shouldCommit()) {
+            txHash = BlockValidationEvent.toHex(tx.getHash());
+            numInputs = tx.numInputs();
+            numOutputs = tx.numOutputs();
+            txSize = tx.getRawTx().length;
+            this.valid = valid;
+            commit();
+        }
+    }
+}
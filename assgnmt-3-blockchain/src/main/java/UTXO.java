@@ -21,6 +21,20 @@ public class UTXO implements Comparable<UTXO> {
         this.index = index;
     }
 
+    private UTXO() {
+    }
+
+    /**
+     * Creates a UTXO which shares {@code txHash} instead of copying it, for
+     * lookups and for UTXOs of a transaction whose hash doesn't change
+     */
+    static UTXO wrap(byte[] txHash, int index) {
+        UTXO utxo = new UTXO();
+        utxo.txHash = txHash;
+        utxo.index = index;
+        return utxo;
+    }
+
     /**
      * @return the transaction hash of this UTXO
      */
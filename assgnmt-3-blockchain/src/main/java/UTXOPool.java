@@ -1,3 +1,4 @@
+import java.security.PublicKey;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Set;
@@ -9,32 +10,84 @@ public class UTXOPool {
      */
     private HashMap<UTXO, Transaction.Output> H;
 
+    /**
+     * The order-independent hash of all the UTXOs in the pool, updated as
+     * UTXOs are added and removed
+     */
+    private UTXOSetHash setHash;
+
+    /**
+     * The UTXOs by address, built on the first query by address
+     */
+    private AddressIndex addressIndex;
+
+    /**
+     * True for a view of another pool, which can't be changed through the
+     * view
+     */
+    private boolean readOnly;
+
     /**
      * Creates a new empty UTXOPool
      */
     public UTXOPool() {
         H = new HashMap<UTXO, Transaction.Output>();
+        setHash = new UTXOSetHash();
+        addressIndex = new AddressIndex();
     }
 
     /**
-     * Creates a new UTXOPool that is a copy of {@code uPool}
+     * Creates a new UTXOPool that is a copy of {@code uPool}. The address
+     * index isn't copied, it's built again if the copy is queried by
+     * address.
      */
     public UTXOPool(UTXOPool uPool) {
         H = new HashMap<UTXO, Transaction.Output>(uPool.H);
+        setHash = new UTXOSetHash(uPool.setHash);
+        addressIndex = new AddressIndex();
+    }
+
+    private UTXOPool(HashMap<UTXO, Transaction.Output> H,
+                     UTXOSetHash setHash, AddressIndex addressIndex) {
+        this.H = H;
+        this.setHash = setHash;
+        this.addressIndex = addressIndex;
+        this.readOnly = true;
+    }
+
+    /**
+     * @return a read-only view of {@code pool}, which reflects later changes
+     * to {@code pool}. A copy of the view made with {@link
+     * #UTXOPool(UTXOPool)} can be changed.
+     */
+    static UTXOPool readOnlyView(UTXOPool pool) {
+        return new UTXOPool(pool.H, pool.setHash, pool.addressIndex);
     }
 
     /**
      * Adds a mapping from UTXO {@code utxo} to transaction output @code{txOut} to the pool
      */
     public void addUTXO(UTXO utxo, Transaction.Output txOut) {
-        H.put(utxo, txOut);
+        checkWritable();
+        Transaction.Output previous = H.put(utxo, txOut);
+        if (previous != null) {
+            setHash.remove(utxo, previous);
+            addressIndex.remove(utxo, previous);
+        }
+        setHash.add(utxo, txOut);
+        addressIndex.add(utxo, txOut);
     }
 
     /**
      * Removes the UTXO {@code utxo} from the pool
      */
     public void removeUTXO(UTXO utxo) {
-        H.remove(utxo);
+        checkWritable();
+        Transaction.Output removed = H.remove(utxo);
+        if (removed != null) {
+            setHash.remove(utxo, removed);
+            addressIndex.remove(utxo, removed);
+        }
     }
 
     /**
@@ -52,6 +105,35 @@ public class UTXOPool {
         return H.containsKey(utxo);
     }
 
+    /**
+     * @return the number of UTXOs in the pool
+     */
+    public int size() {
+        return H.size();
+    }
+
+    /**
+     * @return the estimated memory held by the pool, in bytes, see {@link
+     * MemoryEstimator}
+     */
+    public long getEstimatedBytes() {
+        long bytes = MemoryEstimator.utxoPool(H.size());
+        if (addressIndex.isBuilt()) {
+            bytes += MemoryEstimator.addressIndex(H.size(),
+                    addressIndex.getNumAddresses());
+        }
+
+        return bytes;
+    }
+
+    /**
+     * @return a copy of the set hash of all the UTXOs in the pool. Two pools
+     * contain the same UTXOs if their set hashes are equal.
+     */
+    public UTXOSetHash getSetHash() {
+        return new UTXOSetHash(setHash);
+    }
+
     /**
      * Returns an {@code ArrayList} of all UTXOs in the pool
      */
@@ -63,4 +145,38 @@ public class UTXOPool {
         }
         return allUTXO;
     }
+
+    /**
+     * Returns the total amount of the UTXOs paying to {@code address}, in
+     * base units. The first query by address builds the address index of
+     * the pool, later ones take constant time.
+     */
+    public long getBalance(PublicKey address) {
+        return getAddressIndex().getBalance(address);
+    }
+
+    /**
+     * Returns an {@code ArrayList} of the UTXOs paying to {@code address},
+     * in time linear in their number once the address index of the pool is
+     * built.
+     */
+    public ArrayList<UTXO> getUTXOs(PublicKey address) {
+        return getAddressIndex().getUTXOs(address);
+    }
+
+    private AddressIndex getAddressIndex() {
+        // a read-only view builds the index of the pool it shares
+        if (!addressIndex.isBuilt()) {
+            addressIndex.build(H);
+        }
+
+        return addressIndex;
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException(
+                    "read-only view of a UTXO pool");
+        }
+    }
 }
@@ -0,0 +1,160 @@
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * {@code UTXOSetHash} is an order-independent commitment to a set of unspent
+ * transaction outputs.
+ * <p/>
+ * Every UTXO along with its output is hashed with SHA-256 and the set hash is
+ * the sum of these element hashes modulo 2<sup>256</sup>. Adding or removing
+ * a UTXO adds or subtracts its element hash, so the set hash is maintained
+ * in O(1) per changed output and two pools hold the same UTXOs if and only
+ * if (barring hash collisions) their set hashes are equal.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class UTXOSetHash {
+
+    private static final ThreadLocal<MessageDigest> DIGEST =
+            ThreadLocal.withInitial(() -> {
+                try {
+                    return MessageDigest.getInstance("SHA-256");
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+    /**
+     * The 256 bit sum, least significant word first
+     */
+    private final long[] words = new long[4];
+
+    /**
+     * Creates the hash of an empty set
+     */
+    public UTXOSetHash() {
+    }
+
+    /**
+     * Creates a copy of {@code other}
+     */
+    public UTXOSetHash(UTXOSetHash other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    /**
+     * Adds the UTXO {@code utxo} with output {@code txOut} to the set hash
+     */
+    public void add(UTXO utxo, Transaction.Output txOut) {
+        long[] element = elementHash(utxo, txOut);
+        long carry = 0;
+        for (int i = 0; i < words.length; i++) {
+            long sum = words[i] + element[i];
+            long next = Long.compareUnsigned(sum, words[i]) < 0 ? 1 : 0;
+            sum += carry;
+            if (carry == 1 && sum == 0) {
+                next = 1;
+            }
+            words[i] = sum;
+            carry = next;
+        }
+    }
+
+    /**
+     * Removes the UTXO {@code utxo} with output {@code txOut} from the set
+     * hash
+     */
+    public void remove(UTXO utxo, Transaction.Output txOut) {
+        long[] element = elementHash(utxo, txOut);
+        long borrow = 0;
+        for (int i = 0; i < words.length; i++) {
+            long diff = words[i] - element[i];
+            long next = Long.compareUnsigned(words[i], element[i]) < 0 ? 1 : 0;
+            if (borrow == 1 && diff == 0) {
+                next = 1;
+            }
+            diff -= borrow;
+            words[i] = diff;
+            borrow = next;
+        }
+    }
+
+    /**
+     * @return the set hash as a 32 byte big-endian array
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        for (int i = words.length - 1; i >= 0; i--) {
+            buffer.putLong(words[i]);
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * @return the set hash whose {@link #toByteArray()} is {@code bytes}
+     */
+    public static UTXOSetHash fromByteArray(byte[] bytes) {
+        if (bytes.length != 32) {
+            throw new IllegalArgumentException(
+                    "a set hash has 32 bytes: " + bytes.length);
+        }
+
+        UTXOSetHash setHash = new UTXOSetHash();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        for (int i = setHash.words.length - 1; i >= 0; i--) {
+            setHash.words[i] = buffer.getLong();
+        }
+
+        return setHash;
+    }
+
+    private static long[] elementHash(UTXO utxo, Transaction.Output txOut) {
+        MessageDigest md = DIGEST.get();
+        md.update(utxo.getTxHash());
+        md.update(ByteBuffer.allocate(12).putInt(utxo.getIndex())
+                .putLong(txOut.amount).array());
+        md.update(txOut.address.getEncoded());
+
+        ByteBuffer digest = ByteBuffer.wrap(md.digest());
+        long[] element = new long[4];
+        for (int i = element.length - 1; i >= 0; i--) {
+            element[i] = digest.getLong();
+        }
+
+        return element;
+    }
+
+    public boolean equals(Object other) {
+        if (other == null) {
+            return false;
+        }
+        if (getClass() != other.getClass()) {
+            return false;
+        }
+
+        UTXOSetHash setHash = (UTXOSetHash) other;
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] != setHash.words[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int hashCode() {
+        return Long.hashCode(words[0]);
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : toByteArray()) {
+            builder.append(String.format("%02x", b));
+        }
+
+        return builder.toString();
+    }
+}
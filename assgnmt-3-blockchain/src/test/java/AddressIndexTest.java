@@ -0,0 +1,98 @@
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code AddressIndexTest} represents an unit test for {@code AddressIndex}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class AddressIndexTest {
+
+    @Test
+    public void testIncrementalUpdates() throws Exception {
+        PublicKey[] addresses = new PublicKey[3];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = TestUtil.generateKeyPair().getPublic();
+        }
+
+        Transaction tx = new Transaction();
+        for (int i = 0; i < 20; i++) {
+            tx.addOutput(i + 1, addresses[i % addresses.length]);
+        }
+        tx.finalize();
+
+        UTXOPool pool = new UTXOPool();
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            UTXO utxo = new UTXO(tx.getHash(), random.nextInt(20));
+            if (random.nextInt(3) == 0) {
+                pool.removeUTXO(utxo);
+            } else {
+                // may replace the output of the UTXO with another address
+                pool.addUTXO(utxo, tx.getOutput(random.nextInt(20)));
+            }
+            if (i == 100) {
+                pool.getBalance(addresses[0]);
+            }
+        }
+
+        for (PublicKey address : addresses) {
+            assertIndexed(pool, address);
+            assertIndexed(new UTXOPool(pool), address);
+        }
+        assertEquals(0, pool.getBalance(
+                TestUtil.generateKeyPair().getPublic()));
+    }
+
+    @Test
+    public void testLiveUTXOSet() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+        UTXOPool pool = chain.getMaxHeightUTXOPool();
+        assertEquals(Block.COINBASE_AMOUNT, pool.getBalance(scrooge.getPublic()));
+        assertEquals(0, pool.getBalance(alice.getPublic()));
+        long bytes = chain.getEstimatedBytes();
+
+        // the view follows the live UTXO set
+        Block block = new Block(genesis.getHash(), alice.getPublic());
+        block.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic()));
+        block.finalize();
+        assertTrue(chain.addBlock(block));
+
+        assertEquals(0, pool.getBalance(scrooge.getPublic()));
+        assertEquals(2 * Block.COINBASE_AMOUNT,
+                pool.getBalance(alice.getPublic()));
+        assertEquals(2, pool.getUTXOs(alice.getPublic()).size());
+        assertTrue(chain.getEstimatedBytes() > bytes);
+    }
+
+    private static void assertIndexed(UTXOPool pool, PublicKey address) {
+        long balance = 0;
+        HashSet<UTXO> utxos = new HashSet<>();
+        for (UTXO utxo : pool.getAllUTXO()) {
+            Transaction.Output output = pool.getTxOutput(utxo);
+            if (output.address.equals(address)) {
+                balance += output.amount;
+                utxos.add(utxo);
+            }
+        }
+
+        assertEquals(balance, pool.getBalance(address));
+        assertEquals(utxos, new HashSet<>(pool.getUTXOs(address)));
+    }
+}
@@ -0,0 +1,170 @@
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code AllocationBudgetTest} represents an allocation regression test for
+ * the validation hot paths: {@link TxHandler#isValidTx(Transaction)}, {@link
+ * TxHandler#handleTxs(Transaction[])}, {@link BlockChain#addBlock(Block)}
+ * and {@link Block#finalize()}.
+ * <p/>
+ * Every workload is run until the JIT has settled and then measured with
+ * the per thread allocation counter of the JVM. The smallest of several
+ * measurements has to stay within the budget of the workload, so a change
+ * which makes a hot path allocate noticeably more fails the build. The
+ * budgets leave some headroom for differences between JVMs; lower them when
+ * a hot path gets leaner.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class AllocationBudgetTest {
+
+    private static final int NUM_TXS = 50;
+
+    private static final int WARM_UP_RUNS = 300;
+
+    private static final int MEASURED_RUNS = 20;
+
+    private static final long IS_VALID_TX_BUDGET = 12_000;
+
+    private static final long HANDLE_TXS_BUDGET = 650_000;
+
+    private static final long ADD_BLOCK_BUDGET = 650_000;
+
+    private static final long FINALIZE_BUDGET = 70_000;
+
+    private static com.sun.management.ThreadMXBean allocationCounter;
+
+    private static Block genesis;
+
+    private static Block splitBlock;
+
+    private static Block block;
+
+    private static UTXOPool pool;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        java.lang.management.ThreadMXBean bean =
+                ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            allocationCounter = (com.sun.management.ThreadMXBean) bean;
+        }
+        Assume.assumeTrue(allocationCounter != null
+                && allocationCounter.isThreadAllocatedMemorySupported());
+        allocationCounter.setThreadAllocatedMemoryEnabled(true);
+
+        // the genesis coinbase is split into NUM_TXS outputs, each of them
+        // is spent by a transaction of the measured block
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+        genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+
+        Transaction split = new Transaction();
+        split.addInput(genesis.getCoinbase().getHash(), 0);
+        for (int i = 0; i < NUM_TXS; i++) {
+            split.addOutput(.5, alice.getPublic());
+        }
+        split.addSignature(TestUtil.createSignature(split.getRawDataToSign(0),
+                scrooge.getPrivate()), 0);
+        split.finalize();
+
+        splitBlock = new Block(genesis.getHash(), scrooge.getPublic());
+        splitBlock.addTransaction(split);
+        splitBlock.finalize();
+
+        block = new Block(splitBlock.getHash(), alice.getPublic());
+        for (int i = 0; i < NUM_TXS; i++) {
+            block.addTransaction(TestUtil.createTransaction(split.getHash(),
+                    i, .5, alice, scrooge.getPublic()));
+        }
+        block.finalize();
+
+        BlockChain chain = newChain();
+        assertTrue(chain.addBlock(block));
+        pool = newChain().getMaxHeightUTXOPool();
+    }
+
+    @Test
+    public void testIsValidTx() {
+        TxHandler handler = new TxHandler(pool);
+        Transaction tx = block.getTransactions().get(0);
+        assertBudget("isValidTx", IS_VALID_TX_BUDGET,
+                () -> assertTrue(handler.isValidTx(tx)), null);
+    }
+
+    @Test
+    public void testHandleTxs() {
+        Transaction[] txs = block.getTransactions().toArray(new Transaction[0]);
+        List<TxHandler> handlers = new ArrayList<>();
+        assertBudget("handleTxs", HANDLE_TXS_BUDGET,
+                () -> assertEquals(NUM_TXS,
+                        handlers.remove(0).handleTxs(txs).length),
+                () -> handlers.add(new TxHandler(pool)));
+    }
+
+    @Test
+    public void testAddBlock() {
+        List<BlockChain> chains = new ArrayList<>();
+        assertBudget("addBlock", ADD_BLOCK_BUDGET,
+                () -> assertTrue(chains.remove(0).addBlock(block)),
+                () -> chains.add(newChain()));
+    }
+
+    @Test
+    public void testFinalize() {
+        byte[] hash = block.getHash().clone();
+        assertBudget("finalize", FINALIZE_BUDGET, () -> block.finalize(),
+                null);
+        assertArrayEquals(hash, block.getHash());
+    }
+
+    private static BlockChain newChain() {
+        BlockChain chain = new BlockChain(genesis);
+        assertTrue(chain.addBlock(splitBlock));
+        return chain;
+    }
+
+    /**
+     * Runs {@code workload} until it's warmed up and asserts that the least
+     * it allocated in any of the measured runs is within {@code budget}.
+     * {@code setUp}, if not null, is run before every run of the workload,
+     * its allocations aren't measured.
+     */
+    private static void assertBudget(String name, long budget,
+                                     Runnable workload, Runnable setUp) {
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            if (setUp != null) {
+                setUp.run();
+            }
+            workload.run();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long least = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            if (setUp != null) {
+                setUp.run();
+            }
+            long start = allocationCounter.getThreadAllocatedBytes(threadId);
+            workload.run();
+            least = Math.min(least,
+                    allocationCounter.getThreadAllocatedBytes(threadId)
+                            - start);
+        }
+
+        assertTrue(name + " allocated " + least + " bytes, budget is "
+                + budget, least <= budget);
+    }
+}
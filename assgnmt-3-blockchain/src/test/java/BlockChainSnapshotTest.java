@@ -0,0 +1,133 @@
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.security.KeyPair;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code BlockChainSnapshotTest} represents an unit test for {@code
+ * BlockChainSnapshot}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class BlockChainSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private KeyPair scrooge;
+
+    private KeyPair alice;
+
+    private BlockChain chain;
+
+    private Block forkBlock;
+
+    @Before
+    public void setUp() throws Exception {
+        scrooge = TestUtil.generateKeyPair();
+        alice = TestUtil.generateKeyPair();
+
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        chain = new BlockChain(genesis);
+
+        Block block1 = new Block(genesis.getHash(), alice.getPublic());
+        block1.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic()));
+        block1.finalize();
+        assertTrue(chain.addBlock(block1));
+
+        forkBlock = new Block(genesis.getHash(), scrooge.getPublic());
+        forkBlock.finalize();
+        assertTrue(chain.addBlock(forkBlock));
+
+        Block block2 = new Block(block1.getHash(), scrooge.getPublic());
+        block2.finalize();
+        assertTrue(chain.addBlock(block2));
+
+        chain.addTransaction(TestUtil.createTransaction(
+                block1.getCoinbase().getHash(), 0, 20, alice,
+                scrooge.getPublic()));
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        File file = folder.newFile("chain.snapshot");
+        BlockChainSnapshot.write(chain, file);
+
+        BlockChain restored = BlockChainSnapshot.read(file, 2);
+        assertArrayEquals(chain.getMaxHeightBlock().getHash(),
+                restored.getMaxHeightBlock().getHash());
+
+        UTXOPool expected = chain.getMaxHeightUTXOPool();
+        UTXOPool actual = restored.getMaxHeightUTXOPool();
+        assertEquals(new HashSet<>(expected.getAllUTXO()),
+                new HashSet<>(actual.getAllUTXO()));
+        for (UTXO utxo : expected.getAllUTXO()) {
+            assertEquals(expected.getTxOutput(utxo), actual.getTxOutput(utxo));
+        }
+
+        assertEquals(chain.getTransactionPool().getTransactions().size(),
+                restored.getTransactionPool().getTransactions().size());
+
+        // the fork is still available after the restore
+        Block block = new Block(forkBlock.getHash(), alice.getPublic());
+        block.finalize();
+        assertTrue(restored.addBlock(block));
+
+        BlockHandler handler = new BlockHandler(restored);
+        Block created = handler.createBlock(alice.getPublic());
+        assertNotNull(created);
+        assertEquals(1, created.getTransactions().size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadCorrupted() throws Exception {
+        File file = folder.newFile("chain.snapshot");
+        BlockChainSnapshot.write(chain, file);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long position = raf.length() / 2;
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0xFF);
+        }
+
+        BlockChainSnapshot.read(file);
+    }
+
+    @Test
+    public void testReadCorruptedChunkLength() throws Exception {
+        File file = folder.newFile("chain.snapshot");
+        BlockChainSnapshot.write(chain, file);
+
+        // the length of the header chunk follows the magic and version
+        int[] lengths = {-1, Integer.MAX_VALUE,
+                BlockChainSnapshot.MAX_CHUNK_SIZE, (int) file.length()};
+        for (int length : lengths) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.seek(8);
+                raf.writeInt(length);
+            }
+            try {
+                BlockChainSnapshot.read(file);
+                fail("read a chunk of " + length + " bytes");
+            } catch (IOException e) {
+                assertEquals("corrupt snapshot chunk", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.KeyPair;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code BlockJournalTest} represents an unit test for {@code BlockJournal}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class BlockJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private KeyPair scrooge;
+
+    private KeyPair alice;
+
+    private Block genesis;
+
+    private File snapshotFile;
+
+    private File journalFile;
+
+    @Before
+    public void setUp() throws Exception {
+        scrooge = TestUtil.generateKeyPair();
+        alice = TestUtil.generateKeyPair();
+
+        genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+
+        snapshotFile = new File(folder.getRoot(), "chain.snapshot");
+        journalFile = new File(folder.getRoot(), "chain.journal");
+    }
+
+    @Test
+    public void testRecoverFromJournal() throws Exception {
+        BlockChain chain =
+                BlockJournal.recover(snapshotFile, journalFile, genesis);
+        Block block = addBlocks(chain, genesis, 3);
+        chain.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic()));
+        chain.getJournal().close();
+
+        BlockChain recovered =
+                BlockJournal.recover(snapshotFile, journalFile, genesis);
+        assertArrayEquals(block.getHash(),
+                recovered.getMaxHeightBlock().getHash());
+        assertNotNull(new BlockHandler(recovered).createBlock(
+                alice.getPublic()).getTransaction(0));
+        recovered.getJournal().close();
+    }
+
+    @Test
+    public void testRecoverFromSnapshotAndJournal() throws Exception {
+        BlockChain chain =
+                BlockJournal.recover(snapshotFile, journalFile, genesis);
+        Block block = addBlocks(chain, genesis, 2);
+        BlockChainSnapshot.write(chain, snapshotFile);
+        long sequence = chain.getJournal().getLastSequence();
+        assertEquals(sequence,
+                BlockChainSnapshot.readJournalSequence(snapshotFile));
+
+        block = addBlocks(chain, block, 2);
+        assertEquals(sequence + 2, chain.getJournal().getLastSequence());
+        chain.getJournal().close();
+
+        BlockChain recovered =
+                BlockJournal.recover(snapshotFile, journalFile, genesis);
+        assertArrayEquals(block.getHash(),
+                recovered.getMaxHeightBlock().getHash());
+        assertEquals(sequence + 2, recovered.getJournal().getLastSequence());
+        recovered.getJournal().close();
+    }
+
+    @Test
+    public void testRecoverWithTornRecord() throws Exception {
+        BlockChain chain =
+                BlockJournal.recover(snapshotFile, journalFile, genesis);
+        Block block = addBlocks(chain, genesis, 2);
+        chain.getJournal().close();
+        long length = journalFile.length();
+
+        try (FileOutputStream out = new FileOutputStream(journalFile, true)) {
+            out.write(new byte[]{0, 0, 1, 0, 7, 7});
+        }
+
+        BlockChain recovered =
+                BlockJournal.recover(snapshotFile, journalFile, genesis);
+        assertArrayEquals(block.getHash(),
+                recovered.getMaxHeightBlock().getHash());
+        assertEquals(length, journalFile.length());
+
+        addBlocks(recovered, block, 1);
+        assertEquals(3, recovered.getJournal().getLastSequence());
+        recovered.getJournal().close();
+    }
+
+    @Test
+    public void testRecoverWithLostJournal() throws Exception {
+        BlockChain chain =
+                BlockJournal.recover(snapshotFile, journalFile, genesis);
+        Block block = addBlocks(chain, genesis, 3);
+        BlockChainSnapshot.write(chain, snapshotFile);
+        long sequence = chain.getJournal().getLastSequence();
+        chain.getJournal().close();
+        assertFalse(new File(journalFile.getPath() + ".tmp").exists());
+
+        // the records written after a lost journal still follow the
+        // snapshot and are replayed
+        assertTrue(journalFile.delete());
+        BlockChain recovered =
+                BlockJournal.recover(snapshotFile, journalFile, genesis);
+        assertEquals(sequence, recovered.getJournal().getLastSequence());
+        block = addBlocks(recovered, block, 2);
+        assertEquals(sequence + 2, recovered.getJournal().getLastSequence());
+        recovered.getJournal().close();
+
+        recovered = BlockJournal.recover(snapshotFile, journalFile, genesis);
+        assertArrayEquals(block.getHash(),
+                recovered.getMaxHeightBlock().getHash());
+        recovered.getJournal().close();
+    }
+
+    @Test
+    public void testFailedAppend() throws Exception {
+        BlockChain chain = new BlockChain(genesis);
+        BlockJournal journal = new BlockJournal(journalFile) {
+            @Override
+            public long appendBlock(Block block) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public long appendTransaction(Transaction tx) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        chain.setJournal(journal);
+
+        Block block = new Block(genesis.getHash(), alice.getPublic());
+        block.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic()));
+        block.finalize();
+        UTXOSetHash setHash = chain.getMaxHeightUTXOSetHash();
+        try {
+            chain.addBlock(block);
+            fail("append should fail");
+        } catch (UncheckedIOException e) {
+            // expected
+        }
+        assertArrayEquals(genesis.getHash(),
+                chain.getMaxHeightBlock().getHash());
+        assertEquals(setHash, chain.getMaxHeightUTXOPool().getSetHash());
+        assertFalse(chain.isOnMainChain(block.getHash()));
+
+        int numTxs = chain.getTransactionPool().size();
+        try {
+            chain.addTransaction(block.getTransaction(0));
+            fail("append should fail");
+        } catch (UncheckedIOException e) {
+            // expected
+        }
+        assertEquals(numTxs, chain.getTransactionPool().size());
+
+        chain.setJournal(null);
+        journal.close();
+        assertTrue(chain.addBlock(block));
+    }
+
+    private Block addBlocks(BlockChain chain, Block parent, int count) {
+        for (int i = 0; i < count; i++) {
+            Block block = new Block(parent.getHash(), alice.getPublic());
+            block.finalize();
+            assertTrue(chain.addBlock(block));
+            parent = block;
+        }
+
+        return parent;
+    }
+}
@@ -0,0 +1,103 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code BlockNodeTest} represents an unit test for {@code
+ * BlockChain.BlockNode}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class BlockNodeTest {
+
+    @Test
+    public void testSkipHeight() {
+        for (int height = 2; height < 100_000; height++) {
+            int skipHeight = BlockChain.BlockNode.skipHeight(height);
+            assertTrue(skipHeight >= 1 && skipHeight < height);
+        }
+    }
+
+    @Test
+    public void testGetAncestor() {
+        List<BlockChain.BlockNode> chain = new ArrayList<>();
+        BlockChain.BlockNode tip = null;
+        for (int i = 0; i < 5000; i++) {
+            tip = new BlockChain.BlockNode(null, tip, null, null);
+            chain.add(tip);
+        }
+
+        assertNull(tip.getAncestor(0));
+        assertNull(tip.getAncestor(5001));
+        for (int height = 1; height <= 5000; height++) {
+            assertSame(chain.get(height - 1), tip.getAncestor(height));
+        }
+        assertSame(chain.get(99), chain.get(1234).getAncestor(100));
+        assertTrue(chain.get(99).isAncestorOf(chain.get(1234)));
+        assertFalse(chain.get(1234).isAncestorOf(chain.get(99)));
+    }
+
+    @Test
+    public void testGetAncestorWithoutOldNodes() {
+        BlockChain.BlockNode root =
+                new BlockChain.BlockNode(null, null, null, null, 1000);
+        BlockChain.BlockNode tip = root;
+        for (int i = 0; i < 3000; i++) {
+            tip = new BlockChain.BlockNode(null, tip, null, null);
+        }
+
+        assertEquals(4000, tip.getHeight());
+        assertSame(root, tip.getAncestor(1000));
+        assertNull(tip.getAncestor(999));
+        assertEquals(2345, tip.getAncestor(2345).getHeight());
+    }
+
+    @Test
+    public void testCommonAncestor() {
+        Random random = new Random(42);
+        List<BlockChain.BlockNode> nodes = new ArrayList<>();
+        nodes.add(new BlockChain.BlockNode(null, null, null, null));
+        for (int i = 0; i < 3000; i++) {
+            // mostly extend one of the latest nodes to get long branches
+            int index = random.nextInt(10) == 0 ? random.nextInt(nodes.size())
+                    : Math.max(0, nodes.size() - 1 - random.nextInt(3));
+            nodes.add(new BlockChain.BlockNode(null, nodes.get(index), null,
+                    null));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            BlockChain.BlockNode a = nodes.get(random.nextInt(nodes.size()));
+            BlockChain.BlockNode b = nodes.get(random.nextInt(nodes.size()));
+            assertSame(walk(a, b), BlockChain.commonAncestor(a, b));
+        }
+
+        BlockChain.BlockNode other =
+                new BlockChain.BlockNode(null, null, null, null);
+        try {
+            BlockChain.commonAncestor(nodes.get(10), other);
+            fail("nodes without a common ancestor");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private static BlockChain.BlockNode walk(BlockChain.BlockNode a,
+                                             BlockChain.BlockNode b) {
+        while (a != b) {
+            if (a.getHeight() >= b.getHeight()) {
+                a = a.getParent();
+            } else {
+                b = b.getParent();
+            }
+        }
+
+        return a;
+    }
+}
@@ -0,0 +1,198 @@
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code BlockUndoTest} represents an unit test for {@code BlockUndo}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class BlockUndoTest {
+
+    @Test
+    public void testDisconnectAndConnect() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+
+        Transaction coinbase = new Transaction(25, scrooge.getPublic());
+        UTXO utxo = new UTXO(coinbase.getHash(), 0);
+        UTXOPool pool = new UTXOPool();
+        pool.addUTXO(utxo, coinbase.getOutput(0));
+        UTXOSetHash parentHash = pool.getSetHash();
+
+        // the spent output is created again by the same block
+        Transaction tx = TestUtil.createTransaction(coinbase.getHash(), 0, 25,
+                scrooge, alice.getPublic());
+        BlockUndo undo = new BlockUndo();
+        undo.spend(pool, utxo);
+        undo.create(pool, new UTXO(tx.getHash(), 0), tx.getOutput(0));
+        undo.create(pool, utxo, coinbase.getOutput(0));
+        undo.create(pool, utxo, coinbase.getOutput(0));
+        assertEquals(4, undo.size());
+        assertEquals(BlockUndo.SPEND, undo.getType(0));
+        assertEquals(BlockUndo.CREATE, undo.getType(1));
+        assertEquals(BlockUndo.CREATE, undo.getType(2));
+        assertEquals(BlockUndo.REPLACE, undo.getType(3));
+        UTXOSetHash blockHash = pool.getSetHash();
+
+        undo.disconnect(pool);
+        assertEquals(1, pool.size());
+        assertEquals(parentHash, pool.getSetHash());
+
+        undo.connect(pool);
+        assertEquals(2, pool.size());
+        assertEquals(blockHash, pool.getSetHash());
+    }
+
+    @Test
+    public void testReorganization() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+        KeyPair bob = TestUtil.generateKeyPair();
+
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+
+        Block a1 = new Block(genesis.getHash(), alice.getPublic());
+        a1.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic()));
+        a1.finalize();
+        assertTrue(chain.addBlock(a1));
+
+        // scrooge mines again, so the coinbase of b1 replaces the genesis
+        // coinbase
+        Block b1 = new Block(genesis.getHash(), scrooge.getPublic());
+        b1.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                bob.getPublic()));
+        b1.finalize();
+        assertTrue(chain.addBlock(b1));
+        assertArrayEquals(a1.getHash(),
+                chain.getMaxHeightBlock().getHash());
+
+        Block b2 = new Block(b1.getHash(), bob.getPublic());
+        b2.finalize();
+        assertTrue(chain.addBlock(b2));
+        assertArrayEquals(b2.getHash(),
+                chain.getMaxHeightBlock().getHash());
+        assertSamePool(replay(genesis, b1, b2), chain.getMaxHeightUTXOPool());
+
+        Block a2 = new Block(a1.getHash(), alice.getPublic());
+        a2.finalize();
+        assertTrue(chain.addBlock(a2));
+        Block a3 = new Block(a2.getHash(), bob.getPublic());
+        a3.finalize();
+        assertTrue(chain.addBlock(a3));
+        assertArrayEquals(a3.getHash(),
+                chain.getMaxHeightBlock().getHash());
+        assertSamePool(replay(genesis, a1, a2, a3),
+                chain.getMaxHeightUTXOPool());
+
+        assertTrue(chain.verifySetHashes());
+    }
+
+    @Test
+    public void testMalformedTransaction() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+        UTXOSetHash setHash = chain.getMaxHeightUTXOSetHash();
+
+        // the first transaction is applied before the second one, which
+        // has no signature, makes the validation throw
+        Transaction tx = TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic());
+        Transaction unsigned = new Transaction();
+        unsigned.addInput(tx.getHash(), 0);
+        unsigned.addOutput(25, scrooge.getPublic());
+        unsigned.finalize();
+        Block malformed = new Block(genesis.getHash(), scrooge.getPublic());
+        malformed.addTransaction(tx);
+        malformed.addTransaction(unsigned);
+        malformed.finalize();
+        assertFalse(chain.addBlock(malformed));
+        BlockValidationReport report = chain.getValidationLog().getLatest();
+        assertEquals(BlockValidationReport.INVALID_TX, report.getRejection());
+        assertTrue(report.getDetail().startsWith("malformed transaction"));
+        assertEquals(setHash, chain.getMaxHeightUTXOPool().getSetHash());
+
+        Block sibling = new Block(genesis.getHash(), alice.getPublic());
+        sibling.addTransaction(tx);
+        sibling.finalize();
+        assertTrue(chain.addBlock(sibling));
+        assertSamePool(replay(genesis, sibling), chain.getMaxHeightUTXOPool());
+        assertTrue(chain.verifySetHashes());
+    }
+
+    @Test
+    public void testSpentUTXOIsCopied() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+        KeyPair bob = TestUtil.generateKeyPair();
+
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+
+        Transaction tx = TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic());
+        Block a1 = new Block(genesis.getHash(), alice.getPublic());
+        a1.addTransaction(tx);
+        a1.finalize();
+        assertTrue(chain.addBlock(a1));
+
+        // the spend of a1 is undone by a reorganization, after which the
+        // caller changes its transaction
+        Block b1 = new Block(genesis.getHash(), bob.getPublic());
+        b1.finalize();
+        assertTrue(chain.addBlock(b1));
+        Block b2 = new Block(b1.getHash(), bob.getPublic());
+        b2.finalize();
+        assertTrue(chain.addBlock(b2));
+        tx.getInput(0).prevTxHash[0] ^= 1;
+
+        assertTrue(chain.getMaxHeightUTXOPool().contains(
+                new UTXO(genesis.getCoinbase().getHash(), 0)));
+        assertTrue(chain.verifySetHashes());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnlyView() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+
+        UTXOPool pool = chain.getMaxHeightUTXOPool();
+        assertEquals(1, new UTXOPool(pool).size());
+        pool.removeUTXO(new UTXO(genesis.getCoinbase().getHash(), 0));
+    }
+
+    private static UTXOPool replay(Block genesis, Block... blocks) {
+        BlockChain chain = new BlockChain(genesis);
+        for (Block block : blocks) {
+            assertTrue(chain.addBlock(block));
+        }
+
+        return chain.getMaxHeightUTXOPool();
+    }
+
+    private static void assertSamePool(UTXOPool expected, UTXOPool actual) {
+        assertEquals(new HashSet<>(expected.getAllUTXO()),
+                new HashSet<>(actual.getAllUTXO()));
+        assertEquals(expected.getSetHash(), actual.getSetHash());
+    }
+}
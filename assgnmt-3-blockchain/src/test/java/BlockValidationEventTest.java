@@ -0,0 +1,109 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code BlockValidationEventTest} represents an unit test for {@code
+ * BlockValidationEvent} and the other block chain JFR events.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class BlockValidationEventTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testToHex() {
+        assertNull(BlockValidationEvent.toHex(null));
+        assertEquals("00ff7f80",
+                BlockValidationEvent.toHex(new byte[]{0, -1, 127, -128}));
+    }
+
+    @Test
+    public void testEvents() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+
+        Block block = new Block(genesis.getHash(), alice.getPublic());
+        block.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic()));
+        block.finalize();
+
+        File file = new File(folder.getRoot(), "blockchain.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(BlockValidationEvent.class);
+            recording.enable(BlockStageEvent.class);
+            recording.enable(TxValidationEvent.class);
+            recording.enable(SignatureVerificationEvent.class);
+            recording.start();
+            assertTrue(chain.addBlock(block));
+            recording.stop();
+            recording.dump(file.toPath());
+        }
+
+        String hash = BlockValidationEvent.toHex(block.getHash());
+        List<String> stages = new ArrayList<>();
+        int blocks = 0;
+        int txs = 0;
+        int signatures = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(
+                file.toPath())) {
+            switch (event.getEventType().getName()) {
+                case "blockchain.BlockValidation":
+                    assertEquals(hash, event.getString("blockHash"));
+                    assertEquals(2, event.getInt("height"));
+                    assertEquals(1, event.getInt("numTxs"));
+                    assertEquals(block.getRawBlock().length,
+                            event.getLong("blockSize"));
+                    assertTrue(event.getBoolean("accepted"));
+                    blocks++;
+                    break;
+                case "blockchain.BlockStage":
+                    assertEquals(hash, event.getString("blockHash"));
+                    stages.add(event.getString("stage"));
+                    break;
+                case "blockchain.TxValidation":
+                    assertEquals(1, event.getInt("numInputs"));
+                    assertEquals(1, event.getInt("numOutputs"));
+                    assertTrue(event.getBoolean("valid"));
+                    txs++;
+                    break;
+                case "blockchain.SignatureVerification":
+                    assertTrue(event.getBoolean("valid"));
+                    signatures++;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        assertEquals(1, blocks);
+        assertTrue(txs >= 1);
+        assertEquals(txs, signatures);
+        assertTrue(stages.contains(BlockStageEvent.PARENT_LOOKUP));
+        assertTrue(stages.contains(BlockStageEvent.UTXO_VIEW));
+        assertTrue(stages.contains(BlockStageEvent.TX_VALIDATION));
+        assertTrue(stages.contains(BlockStageEvent.COINBASE));
+        assertTrue(stages.contains(BlockStageEvent.NODE_INSERTION));
+        assertTrue(stages.contains(BlockStageEvent.TIP_UPDATE));
+        assertFalse(stages.contains(BlockStageEvent.JOURNAL));
+    }
+}
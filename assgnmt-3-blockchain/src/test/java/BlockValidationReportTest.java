@@ -0,0 +1,120 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.KeyPair;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code BlockValidationReportTest} represents an unit test for {@code
+ * BlockValidationReport} and {@code BlockValidationLog}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class BlockValidationReportTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReports() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+        BlockValidationLog log = chain.getValidationLog();
+
+        assertFalse(chain.addBlock(genesis));
+        assertEquals(BlockValidationReport.GENESIS_BLOCK,
+                log.getLatest().getRejection());
+
+        Block orphan = new Block(new byte[32], alice.getPublic());
+        orphan.finalize();
+        assertFalse(chain.addBlock(orphan));
+        assertEquals(BlockValidationReport.UNKNOWN_PARENT,
+                log.getLatest().getRejection());
+
+        // spends the genesis coinbase, signed by the wrong key
+        Block invalid = new Block(genesis.getHash(), alice.getPublic());
+        invalid.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, alice,
+                alice.getPublic()));
+        invalid.finalize();
+        assertFalse(chain.addBlock(invalid));
+        BlockValidationReport report = log.getLatest();
+        assertFalse(report.isAccepted());
+        assertEquals(BlockValidationReport.INVALID_TX, report.getRejection());
+        assertTrue(report.getDetail().contains("invalid signature"));
+        assertEquals(2, report.getHeight());
+        assertEquals(1, report.getNumSignatures());
+
+        Block block = new Block(genesis.getHash(), alice.getPublic());
+        block.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic()));
+        block.finalize();
+        assertTrue(chain.addBlock(block));
+        report = log.getLatest();
+        assertTrue(report.isAccepted());
+        assertNull(report.getRejection());
+        assertArrayEquals(block.getHash(), report.getBlockHash());
+        assertEquals(1, report.getNumTxs());
+        assertEquals(1, report.getNumInputs());
+        assertEquals(1, report.getNumSignatures());
+        assertEquals(1, report.getNumUtxoLookups());
+        assertTrue(report.getPhaseNanos().containsKey(
+                BlockStageEvent.TX_VALIDATION));
+        assertFalse(report.getPhaseNanos().containsKey(
+                BlockStageEvent.JOURNAL));
+        assertTrue(report.getTotalNanos() > 0);
+
+        assertEquals(4, log.getNumReports());
+        assertEquals(4, log.getReports().size());
+        assertEquals(report, log.getReports().get(3));
+    }
+
+    @Test
+    public void testRingBufferAndSlowBlockLog() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        BlockValidationLog log = new BlockValidationLog(2);
+        File file = new File(folder.getRoot(), "slow-blocks.log");
+        log.setSlowBlockLog(file, 0);
+
+        Block[] blocks = new Block[3];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = new Block(new byte[]{(byte) i}, scrooge.getPublic());
+            blocks[i].finalize();
+            BlockValidationReport report = new BlockValidationReport(blocks[i]);
+            report.reject(BlockValidationReport.UNKNOWN_PARENT, null);
+            report.finish(false);
+            log.add(report);
+        }
+
+        List<BlockValidationReport> reports = log.getReports();
+        assertEquals(2, reports.size());
+        assertArrayEquals(blocks[1].getHash(), reports.get(0).getBlockHash());
+        assertArrayEquals(blocks[2].getHash(), reports.get(1).getBlockHash());
+
+        List<String> lines = Files.readAllLines(file.toPath(),
+                StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("block="
+                + BlockValidationEvent.toHex(blocks[0].getHash())));
+        assertTrue(lines.get(0).contains(
+                "reason=\"" + BlockValidationReport.UNKNOWN_PARENT + "\""));
+
+        log.setSlowBlockLog(file, Long.MAX_VALUE);
+        log.add(reports.get(0));
+        assertEquals(3, Files.readAllLines(file.toPath(),
+                StandardCharsets.UTF_8).size());
+    }
+}
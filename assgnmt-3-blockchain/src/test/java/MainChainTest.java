@@ -0,0 +1,157 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code MainChainTest} represents an unit test for the main chain index of
+ * {@code BlockChain}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class MainChainTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReorganization() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+        assertSame(genesis, chain.getBlockByHeight(1));
+        assertNull(chain.getBlockByHeight(0));
+        assertNull(chain.getBlockByHeight(2));
+
+        List<Block> branchA = extend(chain, genesis, alice, 3);
+
+        // the block hash doesn't cover the coinbase, so the other branch
+        // starts with a transaction to tell it apart
+        Block fork = new Block(branchA.get(0).getHash(), scrooge.getPublic());
+        fork.addTransaction(TestUtil.createTransaction(
+                branchA.get(0).getCoinbase().getHash(), 0, 25, alice,
+                scrooge.getPublic()));
+        fork.finalize();
+        assertTrue(chain.addBlock(fork));
+        List<Block> branchB = new ArrayList<>();
+        branchB.add(fork);
+        branchB.addAll(extend(chain, fork, scrooge, 1));
+        assertMainChain(chain, genesis, branchA);
+        assertFalse(chain.isOnMainChain(branchB.get(0).getHash()));
+
+        // the other branch overtakes the main chain
+        branchB.addAll(extend(chain, branchB.get(1), scrooge, 1));
+        List<Block> main = new ArrayList<>();
+        main.add(branchA.get(0));
+        main.addAll(branchB);
+        assertMainChain(chain, genesis, main);
+        assertFalse(chain.isOnMainChain(branchA.get(1).getHash()));
+        assertFalse(chain.isOnMainChain(branchA.get(2).getHash()));
+        assertFalse(chain.isOnMainChain(new byte[32]));
+    }
+
+    @Test
+    public void testDuplicateBlock() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+        List<Block> main = extend(chain, genesis, alice, 2);
+        Block fork = new Block(genesis.getHash(), scrooge.getPublic());
+        fork.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic()));
+        fork.finalize();
+        assertTrue(chain.addBlock(fork));
+        long bytes = chain.getEstimatedBytes();
+        long forkBytes = chain.getEstimatedForkBytes();
+
+        for (Block block : new Block[]{main.get(0), main.get(1), fork}) {
+            assertFalse(chain.addBlock(block));
+            assertEquals(BlockValidationReport.DUPLICATE,
+                    chain.getValidationLog().getLatest().getRejection());
+        }
+        assertMainChain(chain, genesis, main);
+        assertFalse(chain.isOnMainChain(fork.getHash()));
+        assertEquals(bytes, chain.getEstimatedBytes());
+        assertEquals(forkBytes, chain.getEstimatedForkBytes());
+
+        // the main chain still grows past the cut off age without losing
+        // any of its blocks
+        main.addAll(extend(chain, main.get(1), alice,
+                BlockChain.CUT_OFF_AGE + 1));
+        for (Block block : main) {
+            assertTrue(chain.isOnMainChain(block.getHash()));
+        }
+        assertEquals(0, chain.getEstimatedForkBytes());
+        assertTrue(chain.verifySetHashes());
+    }
+
+    @Test
+    public void testRestoredChain() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+        List<Block> blocks =
+                extend(chain, genesis, scrooge, BlockChain.CUT_OFF_AGE + 5);
+
+        File file = folder.newFile("chain.snapshot");
+        BlockChainSnapshot.write(chain, file);
+        BlockChain restored = BlockChainSnapshot.read(file);
+
+        // the blocks below the cut off age aren't restored
+        int oldest = blocks.size() + 1 - BlockChain.CUT_OFF_AGE;
+        assertNull(restored.getBlockByHeight(oldest - 1));
+        for (int height = oldest; height <= blocks.size() + 1; height++) {
+            assertArrayEquals(chain.getBlockByHeight(height).getHash(),
+                    restored.getBlockByHeight(height).getHash());
+            assertTrue(restored.isOnMainChain(
+                    chain.getBlockByHeight(height).getHash()));
+        }
+
+        Block next = extend(restored, blocks.get(blocks.size() - 1), scrooge,
+                1).get(0);
+        assertSame(next, restored.getBlockByHeight(blocks.size() + 2));
+    }
+
+    private static List<Block> extend(BlockChain chain, Block parent,
+                                      KeyPair miner, int count) {
+        List<Block> blocks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Block block = new Block(parent.getHash(), miner.getPublic());
+            block.finalize();
+            assertTrue(chain.addBlock(block));
+            blocks.add(block);
+            parent = block;
+        }
+
+        return blocks;
+    }
+
+    private static void assertMainChain(BlockChain chain, Block genesis,
+                                        List<Block> blocks) {
+        assertSame(genesis, chain.getBlockByHeight(1));
+        assertTrue(chain.isOnMainChain(genesis.getHash()));
+        for (int i = 0; i < blocks.size(); i++) {
+            assertSame(blocks.get(i), chain.getBlockByHeight(i + 2));
+            assertTrue(chain.isOnMainChain(blocks.get(i).getHash()));
+        }
+        assertNull(chain.getBlockByHeight(blocks.size() + 2));
+    }
+}
@@ -0,0 +1,150 @@
+import org.junit.Test;
+
+import java.security.KeyPair;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code MemoryBudgetTest} represents an unit test for the memory accounting
+ * of {@code BlockChain} and {@code TransactionPool}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class MemoryBudgetTest {
+
+    @Test
+    public void testTransactionPoolEviction() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        Transaction[] txs = new Transaction[3];
+        for (int i = 0; i < txs.length; i++) {
+            txs[i] = TestUtil.createTransaction(new byte[32], i, 1, scrooge,
+                    scrooge.getPublic());
+        }
+
+        TransactionPool pool = new TransactionPool();
+        assertEquals(0, pool.getEstimatedBytes());
+        pool.addTransaction(txs[0]);
+        long bytes = pool.getEstimatedBytes();
+        assertTrue(bytes > MemoryEstimator.transaction(txs[0]));
+        pool.addTransaction(txs[0]);
+        assertEquals(bytes, pool.getEstimatedBytes());
+
+        pool.addTransaction(txs[1]);
+        pool.setMemoryLimit(2 * bytes);
+        pool.addTransaction(txs[2]);
+        assertEquals(2, pool.size());
+        assertNull(pool.getTransaction(txs[0].getHash()));
+        assertNotNull(pool.getTransaction(txs[2].getHash()));
+        assertEquals(2 * bytes, pool.getEstimatedBytes());
+        assertEquals(2 * bytes, MetricsRegistry.getDefault()
+                .gauge("txpool.memory.bytes").getValue());
+
+        pool.setMemoryLimit(bytes);
+        assertEquals(1, pool.size());
+        pool.removeTransaction(txs[2].getHash());
+        assertEquals(0, pool.size());
+        assertEquals(0, pool.getEstimatedBytes());
+    }
+
+    @Test
+    public void testForkRefusal() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+        long genesisBytes = chain.getEstimatedBytes();
+        assertTrue(genesisBytes > MemoryEstimator.block(genesis));
+
+        // the main chain doesn't count against the limit
+        chain.setMemoryLimit(1);
+        Block first = new Block(genesis.getHash(), scrooge.getPublic());
+        first.finalize();
+        assertTrue(chain.addBlock(first));
+        Block second = new Block(first.getHash(), scrooge.getPublic());
+        second.finalize();
+        assertTrue(chain.addBlock(second));
+        long bytes = chain.getEstimatedBytes();
+        assertTrue(bytes > genesisBytes);
+        assertEquals(0, chain.getEstimatedForkBytes());
+        assertEquals(bytes, MetricsRegistry.getDefault()
+                .gauge("blockchain.memory.bytes").getValue());
+
+        // a fork below the longest branch is refused while over the limit
+        Counter refused = MetricsRegistry.getDefault()
+                .counter("blockchain.forks.refused");
+        long count = refused.getCount();
+        Block fork = new Block(genesis.getHash(), scrooge.getPublic());
+        fork.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                scrooge.getPublic()));
+        fork.finalize();
+        assertFalse(chain.addBlock(fork));
+        assertEquals(count + 1, refused.getCount());
+        assertEquals(0, chain.getEstimatedForkBytes());
+        assertTrue(chain.getEstimatedBytes() > bytes);
+
+        // a block which ties the longest branch is always added
+        Block tie = new Block(first.getHash(), scrooge.getPublic());
+        tie.addTransaction(fork.getTransaction(0));
+        tie.finalize();
+        assertTrue(chain.addBlock(tie));
+        assertTrue(chain.getEstimatedForkBytes() > 0);
+
+        // and the fork is accepted once the limit is raised
+        chain.setMemoryLimit(Long.MAX_VALUE);
+        assertTrue(chain.addBlock(fork));
+    }
+
+    @Test
+    public void testRefusedForkWins() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+        chain.setMemoryLimit(1);
+
+        Block parent = genesis;
+        for (int i = 0; i < 3; i++) {
+            Block block = new Block(parent.getHash(), scrooge.getPublic());
+            block.finalize();
+            assertTrue(chain.addBlock(block));
+            parent = block;
+        }
+
+        // the fork is refused while it's shorter than the main chain
+        Block[] fork = new Block[4];
+        parent = genesis;
+        for (int i = 0; i < fork.length; i++) {
+            fork[i] = new Block(parent.getHash(), alice.getPublic());
+            if (i == 0) {
+                fork[i].addTransaction(TestUtil.createTransaction(
+                        genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                        alice.getPublic()));
+            }
+            fork[i].finalize();
+            parent = fork[i];
+        }
+        assertFalse(chain.addBlock(fork[0]));
+        assertFalse(chain.addBlock(fork[1]));
+        assertEquals(BlockValidationReport.MEMORY_LIMIT, chain
+                .getValidationLog().getLatest().getRejection());
+
+        // and connected once it ties and then overtakes the main chain
+        assertTrue(chain.addBlock(fork[2]));
+        assertFalse(chain.isOnMainChain(fork[2].getHash()));
+        assertTrue(chain.addBlock(fork[3]));
+        assertArrayEquals(fork[3].getHash(),
+                chain.getMaxHeightBlock().getHash());
+        for (int i = 0; i < fork.length; i++) {
+            assertTrue(chain.isOnMainChain(fork[i].getHash()));
+        }
+        // the coinbases of alice's blocks share one UTXO
+        assertEquals(2 * Block.COINBASE_AMOUNT, chain.getMaxHeightUTXOPool()
+                .getBalance(alice.getPublic()));
+        assertTrue(chain.verifySetHashes());
+    }
+}
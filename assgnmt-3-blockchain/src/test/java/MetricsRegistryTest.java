@@ -0,0 +1,116 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.Closeable;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.KeyPair;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code MetricsRegistryTest} represents an unit test for {@code
+ * MetricsRegistry}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class MetricsRegistryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testBucketBounds() {
+        long[] values = {0, 1, 31, 32, 33, 1000, 123_456_789,
+                Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value);
+            assertTrue(bucket == 0
+                    || LatencyHistogram.upperBound(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(5_000_500, histogram.getMean(), 1e-6);
+        assertEquals(5_000_000, histogram.getPercentile(50), 5_000_000 / 16);
+        assertEquals(9_900_000, histogram.getPercentile(99), 9_900_000 / 16);
+        assertEquals(10_000_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testWriteJson() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("a\"b").add(3);
+        registry.histogram("latency").record(42);
+        registry.gauge("memory").set(-7);
+
+        StringBuilder json = new StringBuilder();
+        registry.writeJson(json);
+        assertTrue(json.toString().contains("\"counters\":{\"a\\\"b\":3}"));
+        assertTrue(json.toString().contains("\"gauges\":{\"memory\":-7}"));
+        assertTrue(json.toString().contains(
+                "\"latency\":{\"count\":1,\"sum\":42,"));
+    }
+
+    @Test
+    public void testReporter() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        File file = new File(folder.getRoot(), "metrics.txt");
+        Closeable reporter = registry.startReporter(file, 10, false);
+        registry.counter("blocks").increment();
+        reporter.close();
+
+        String text = new String(Files.readAllBytes(file.toPath()),
+                StandardCharsets.UTF_8);
+        assertEquals("blocks 1\n", text);
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testBlockChainMetrics() throws Exception {
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+        long accepted = registry.counter("blockchain.blocks.accepted")
+                .getCount();
+        long rejected = registry.counter("blockchain.blocks.rejected")
+                .getCount();
+        long verified = registry.histogram("crypto.verifySignature")
+                .getCount();
+
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+
+        Block block = new Block(genesis.getHash(), alice.getPublic());
+        block.addTransaction(TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic()));
+        block.finalize();
+        assertTrue(chain.addBlock(block));
+        assertFalse(chain.addBlock(genesis));
+
+        assertEquals(accepted + 1, registry
+                .counter("blockchain.blocks.accepted").getCount());
+        assertEquals(rejected + 1, registry
+                .counter("blockchain.blocks.rejected").getCount());
+        assertEquals(verified + 1, registry
+                .histogram("crypto.verifySignature").getCount());
+    }
+}
@@ -0,0 +1,46 @@
+import java.security.*;
+
+/**
+ * {@code TestUtil} is helper class for Java crypto and block chain tests.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+public class TestUtil {
+
+    public static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048, new SecureRandom());
+        KeyPair pair = generator.generateKeyPair();
+
+        return pair;
+    }
+
+    public static byte[] createSignature(byte[] message,
+            PrivateKey privateKey) throws Exception {
+        Signature privateSignature = Signature.getInstance("SHA256withRSA");
+        privateSignature.initSign(privateKey);
+        privateSignature.update(message);
+
+        return privateSignature.sign();
+    }
+
+    /**
+     * Creates a finalized transaction which spends output {@code index} of
+     * transaction {@code prevTxHash}, owned by {@code owner}, and pays
+     * {@code value} to {@code recipient}.
+     */
+    public static Transaction createTransaction(byte[] prevTxHash, int index,
+            double value, KeyPair owner, PublicKey recipient)
+            throws Exception {
+        Transaction tx = new Transaction();
+        tx.addInput(prevTxHash, index);
+        tx.addOutput(value, recipient);
+        tx.addSignature(createSignature(tx.getRawDataToSign(0),
+                owner.getPrivate()), 0);
+        tx.finalize();
+
+        return tx;
+    }
+}
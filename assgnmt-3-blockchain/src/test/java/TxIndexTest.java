@@ -0,0 +1,125 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code TxIndexTest} represents an unit test for {@code TxIndex}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class TxIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReorganization() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain = new BlockChain(genesis);
+
+        Transaction tx1 = TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic());
+        Block block1 = new Block(genesis.getHash(), alice.getPublic());
+        block1.addTransaction(tx1);
+        block1.finalize();
+        assertTrue(chain.addBlock(block1));
+
+        // indexing starts with the blocks already on the main chain
+        TxIndex index = new TxIndex(folder.newFile("tx.index"));
+        chain.setTxIndex(index);
+        assertLocation(block1, 0, index.get(tx1.getHash()));
+        assertNull(index.get(genesis.getCoinbase().getHash()));
+
+        Transaction tx2 = TestUtil.createTransaction(
+                block1.getCoinbase().getHash(), 0, 25, alice,
+                scrooge.getPublic());
+        Block block2 = new Block(block1.getHash(), scrooge.getPublic());
+        block2.addTransaction(tx2);
+        block2.finalize();
+        assertTrue(chain.addBlock(block2));
+        assertLocation(block2, 0, index.get(tx2.getHash()));
+
+        // a fork includes the same transactions in other blocks and
+        // overtakes the main chain
+        Block fork1 = new Block(genesis.getHash(), alice.getPublic());
+        fork1.finalize();
+        Block fork2 = new Block(fork1.getHash(), scrooge.getPublic());
+        fork2.addTransaction(tx1);
+        fork2.finalize();
+        Block fork3 = new Block(fork2.getHash(), scrooge.getPublic());
+        fork3.addTransaction(tx2);
+        fork3.finalize();
+        assertTrue(chain.addBlock(fork1));
+        assertTrue(chain.addBlock(fork2));
+        assertLocation(block1, 0, index.get(tx1.getHash()));
+        assertTrue(chain.addBlock(fork3));
+
+        assertEquals(2, index.size());
+        assertLocation(fork2, 0, index.get(tx1.getHash()));
+        assertLocation(fork3, 0, index.get(tx2.getHash()));
+
+        chain.setTxIndex(null);
+        assertNull(chain.getTxIndex());
+    }
+
+    @Test
+    public void testGrowth() throws Exception {
+        testGrowth(new TxIndex());
+        testGrowth(new TxIndex(folder.newFile("tx.index")));
+    }
+
+    private void testGrowth(TxIndex index) throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        List<Block> blocks = new ArrayList<>();
+        List<Block> removed = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Block block = new Block(new byte[]{(byte) i}, scrooge.getPublic());
+            for (int j = 0; j < 100; j++) {
+                Transaction tx = new Transaction();
+                tx.addOutput(i * 100 + j, scrooge.getPublic());
+                tx.finalize();
+                block.addTransaction(tx);
+            }
+            block.finalize();
+            index.connect(block);
+            if (i % 3 == 0) {
+                index.disconnect(block);
+                removed.add(block);
+            } else {
+                blocks.add(block);
+            }
+        }
+
+        assertEquals(blocks.size() * 100, index.size());
+        for (Block block : removed) {
+            assertNull(index.get(block.getTransaction(0).getHash()));
+        }
+        for (Block block : blocks) {
+            for (int j = 0; j < 100; j++) {
+                assertLocation(block, j,
+                        index.get(block.getTransaction(j).getHash()));
+            }
+        }
+    }
+
+    private static void assertLocation(Block block, int position,
+                                       TxIndex.Location location) {
+        assertNotNull(location);
+        assertArrayEquals(block.getHash(), location.getBlockHash());
+        assertEquals(position, location.getPosition());
+    }
+}
@@ -0,0 +1,100 @@
+import org.junit.Test;
+
+import java.security.KeyPair;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@code UTXOSetHashTest} represents an unit test for {@code UTXOSetHash}.
+ * <p/>
+ *
+ * @author Indra Basak
+ * @since 10/18/26
+ */
+@SuppressWarnings({"squid:S00112", "squid:ObjectFinalizeCheck", "squid:S1220"})
+public class UTXOSetHashTest {
+
+    @Test
+    public void testOrderIndependence() throws Exception {
+        KeyPair pair = TestUtil.generateKeyPair();
+
+        Transaction tx = new Transaction();
+        tx.addOutput(4.2, pair.getPublic());
+        tx.addOutput(3.7, pair.getPublic());
+        tx.addOutput(1.1, pair.getPublic());
+        tx.finalize();
+
+        UTXOPool pool1 = new UTXOPool();
+        UTXOPool pool2 = new UTXOPool();
+        assertEquals(pool1.getSetHash(), pool2.getSetHash());
+
+        for (int i = 0; i < tx.numOutputs(); i++) {
+            pool1.addUTXO(new UTXO(tx.getHash(), i), tx.getOutput(i));
+        }
+        for (int i = tx.numOutputs() - 1; i >= 0; i--) {
+            pool2.addUTXO(new UTXO(tx.getHash(), i), tx.getOutput(i));
+        }
+        assertEquals(pool1.getSetHash(), pool2.getSetHash());
+        assertEquals(pool1.getSetHash(), new UTXOPool(pool1).getSetHash());
+
+        pool1.removeUTXO(new UTXO(tx.getHash(), 1));
+        assertNotEquals(pool1.getSetHash(), pool2.getSetHash());
+
+        UTXOPool pool3 = new UTXOPool();
+        pool3.addUTXO(new UTXO(tx.getHash(), 2), tx.getOutput(2));
+        pool3.addUTXO(new UTXO(tx.getHash(), 0), tx.getOutput(0));
+        assertEquals(pool3.getSetHash(), pool1.getSetHash());
+
+        pool3.removeUTXO(new UTXO(tx.getHash(), 0));
+        pool3.removeUTXO(new UTXO(tx.getHash(), 2));
+        pool3.removeUTXO(new UTXO(tx.getHash(), 2));
+        assertEquals(new UTXOPool().getSetHash(), pool3.getSetHash());
+    }
+
+    @Test
+    public void testReplacedOutput() throws Exception {
+        KeyPair pair = TestUtil.generateKeyPair();
+
+        Transaction tx = new Transaction();
+        tx.addOutput(4.2, pair.getPublic());
+        tx.addOutput(3.7, pair.getPublic());
+        tx.finalize();
+
+        UTXO utxo = new UTXO(tx.getHash(), 0);
+        UTXOPool pool1 = new UTXOPool();
+        pool1.addUTXO(utxo, tx.getOutput(1));
+        pool1.addUTXO(utxo, tx.getOutput(0));
+
+        UTXOPool pool2 = new UTXOPool();
+        pool2.addUTXO(utxo, tx.getOutput(0));
+        assertEquals(pool1.getSetHash(), pool2.getSetHash());
+    }
+
+    @Test
+    public void testBlockChainTips() throws Exception {
+        KeyPair scrooge = TestUtil.generateKeyPair();
+        KeyPair alice = TestUtil.generateKeyPair();
+
+        Block genesis = new Block(null, scrooge.getPublic());
+        genesis.finalize();
+        BlockChain chain1 = new BlockChain(genesis);
+        BlockChain chain2 = new BlockChain(genesis);
+
+        Transaction tx = TestUtil.createTransaction(
+                genesis.getCoinbase().getHash(), 0, 25, scrooge,
+                alice.getPublic());
+        Block block = new Block(genesis.getHash(), alice.getPublic());
+        block.addTransaction(tx);
+        block.finalize();
+
+        assertTrue(chain1.addBlock(block));
+        assertNotEquals(chain1.getMaxHeightUTXOSetHash(),
+                chain2.getMaxHeightUTXOSetHash());
+
+        assertTrue(chain2.addBlock(block));
+        assertEquals(chain1.getMaxHeightUTXOSetHash(),
+                chain2.getMaxHeightUTXOSetHash());
+        assertEquals(chain1.getMaxHeightUTXOPool().getSetHash(),
+                chain1.getMaxHeightUTXOSetHash());
+    }
+}